@@ -0,0 +1,179 @@
+package benchmark;
+
+import model.Author;
+import model.Book;
+import model.EBook;
+import model.PrintedBook;
+import repository.BookRowMapper;
+import repository.interfaces.AuthorRepository;
+import repository.interfaces.BookRepository;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fixtures shared by the benchmarks. Catalogs are synthetic and generated from a
+ * fixed seed, so every run (and every release) measures the same data.
+ */
+final class CatalogData {
+
+    static final String SEARCH_KEYWORD = "kingdom";
+
+    private static final String[] WORDS = { "river", "shadow", "empire", "garden", "winter", "secret", "ocean",
+            "machine", "letters", "silent", "history", "night", "kingdom", "glass", "journey", "city", "stone",
+            "fire", "memory", "island" };
+    private static final String[] NATIONALITIES = { "British", "American", "French", "German", "Russian",
+            "Japanese", "Nigerian", "Brazilian" };
+
+    private static final String[] COLUMNS = { "id", "title", "isbn", "author_id", "publish_year", "book_type",
+            "download_url", "file_size", "shelf_location", "weight", "available", "version", "author_name",
+            "author_birthyear", "author_nationality" };
+
+    private CatalogData() {
+    }
+
+    /** Synthetic catalog of {@code size} books by {@code size / 20} (at least 10) authors. */
+    static List<Book> catalog(int size) {
+        Random random = new Random(42);
+        List<Author> authors = new ArrayList<>();
+        for (int i = 1; i <= Math.max(10, size / 20); i++) {
+            authors.add(new Author(i, "Author " + i, 1900 + random.nextInt(100),
+                    NATIONALITIES[random.nextInt(NATIONALITIES.length)]));
+        }
+        List<Book> books = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " of the " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + id;
+            Author author = authors.get(random.nextInt(authors.size()));
+            int year = 1800 + random.nextInt(226);
+            books.add(id % 2 == 0
+                    ? new EBook(id, title, author, year, "isbn-" + id, 1 + random.nextInt(20), "https://e/" + id)
+                    : new PrintedBook(id, title, author, year, "isbn-" + id, "S-" + (id % 500), 0.5));
+        }
+        return books;
+    }
+
+    static List<Author> authorsOf(List<Book> books) {
+        Map<Integer, Author> authors = new HashMap<>();
+        for (Book book : books) {
+            authors.putIfAbsent(book.getAuthor().getId(), book.getAuthor());
+        }
+        return new ArrayList<>(authors.values());
+    }
+
+    /** The books as {@code SELECT_BOOKS} rows, in {@link #resultSet} column order. */
+    static Object[][] rows(List<Book> books) {
+        Object[][] rows = new Object[books.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = toRow(books.get(i));
+        }
+        return rows;
+    }
+
+    private static Object[] toRow(Book book) {
+        Author author = book.getAuthor();
+        boolean eBook = book instanceof EBook;
+        return new Object[] { book.getId(), book.getTitle(), book.getIsbn(), author.getId(), book.getYear(),
+                book.getBookType(), eBook ? ((EBook) book).getDownloadURL() : null,
+                eBook ? ((EBook) book).getFileSize() : null,
+                eBook ? null : ((PrintedBook) book).getShelfLocation(),
+                eBook ? null : ((PrintedBook) book).getWeight(), true, 0, author.getName(), author.getBirthYear(),
+                author.getNationality() };
+    }
+
+    /**
+     * A forward-only {@link ResultSet} over in-memory rows, implementing only the
+     * getters {@link BookRowMapper} uses. Proxy dispatch adds a small constant
+     * cost per call, the same in every run.
+     */
+    static ResultSet resultSet(Object[][] rows) {
+        Map<String, Integer> columnIndex = new HashMap<>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columnIndex.put(COLUMNS[i], i);
+        }
+        int[] cursor = { -1 };
+        boolean[] wasNull = { false };
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++cursor[0] < rows.length;
+                        case "wasNull":
+                            return wasNull[0];
+                        case "close":
+                            return null;
+                        default:
+                            break;
+                    }
+                    Object value = rows[cursor[0]][columnIndex.get((String) args[0])];
+                    wasNull[0] = value == null;
+                    switch (method.getName()) {
+                        case "getString":
+                            return value;
+                        case "getInt":
+                            return value == null ? 0 : ((Number) value).intValue();
+                        case "getDouble":
+                            return value == null ? 0.0 : ((Number) value).doubleValue();
+                        case "getBoolean":
+                            return value != null && (Boolean) value;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Saves copies of the synthetic authors and books and returns the saved books;
+     * the copies get the repositories' ids.
+     */
+    static List<Book> load(List<Book> books, AuthorRepository authorRepository, BookRepository bookRepository) {
+        Map<Integer, Author> savedAuthors = new HashMap<>();
+        for (Author author : authorsOf(books)) {
+            Author copy = new Author(0, author.getName(), author.getBirthYear(), author.getNationality());
+            authorRepository.save(copy);
+            savedAuthors.put(author.getId(), copy);
+        }
+        List<Book> copies = new ArrayList<>(books.size());
+        for (Book book : books) {
+            Author author = savedAuthors.get(book.getAuthor().getId());
+            copies.add(book instanceof EBook
+                    ? new EBook(0, book.getTitle(), author, book.getYear(), book.getIsbn(),
+                            ((EBook) book).getFileSize(), ((EBook) book).getDownloadURL())
+                    : new PrintedBook(0, book.getTitle(), author, book.getYear(), book.getIsbn(),
+                            ((PrintedBook) book).getShelfLocation(), ((PrintedBook) book).getWeight()));
+        }
+        bookRepository.saveAll(copies);
+        return copies;
+    }
+
+    /**
+     * A repository whose streamAll() walks a list, for the scan search backend, and
+     * whose findAllById() reads a map, for the ids the index backend returns.
+     */
+    static BookRepository listBackedRepository(List<Book> books) {
+        Map<Integer, Book> byId = new HashMap<>();
+        books.forEach(book -> byId.put(book.getId(), book));
+        return (BookRepository) Proxy.newProxyInstance(BookRepository.class.getClassLoader(),
+                new Class<?>[] { BookRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("streamAll")) {
+                        return books.stream();
+                    }
+                    if (method.getName().equals("findAllById")) {
+                        List<Book> found = new ArrayList<>();
+                        for (Object id : (List<?>) args[0]) {
+                            Book book = byId.get(id);
+                            if (book != null) {
+                                found.add(book);
+                            }
+                        }
+                        return found;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
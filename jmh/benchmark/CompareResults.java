@@ -0,0 +1,93 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files written with {@code -rf csv} and lists every
+ * benchmark (with its parameters) whose average time grew by more than
+ * {@code threshold} percent; exits with 1 if there is one.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar benchmark.CompareResults bench-results/v1.0.csv bench-results/v1.1.csv [10]
+ * </pre>
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.csv> <results.csv> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, Double> baseline = read(Paths.get(args[0]));
+        Map<String, Double> results = read(Paths.get(args[1]));
+
+        System.out.println("--- Compared with " + args[0] + " ---");
+        int regressions = 0;
+        for (Map.Entry<String, Double> result : results.entrySet()) {
+            Double before = baseline.get(result.getKey());
+            if (before == null || before == 0) {
+                continue;
+            }
+            double change = (result.getValue() - before) * 100 / before;
+            boolean regressed = change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-12s %-70s %+8.1f%%%n", regressed ? "REGRESSION" : "ok", result.getKey(), change);
+        }
+        System.out.println(regressions + " regression(s) above " + threshold + "%");
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /** Score by "benchmark param=value ..."; the parameter columns are the ones after Unit. */
+    private static Map<String, Double> read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Map<String, Double> scores = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return scores;
+        }
+        List<String> header = fields(lines.get(0));
+        int score = header.indexOf("Score");
+        int unit = header.indexOf("Unit");
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = fields(line);
+            StringBuilder key = new StringBuilder(fields.get(0));
+            for (int i = unit + 1; i < fields.size(); i++) {
+                if (fields.get(i).isEmpty()) {
+                    // a parameter of another benchmark class in the same file
+                    continue;
+                }
+                key.append(' ').append(header.get(i).replace("Param: ", "")).append('=').append(fields.get(i));
+            }
+            scores.put(key.toString(), Double.parseDouble(fields.get(score)));
+        }
+        return scores;
+    }
+
+    // JMH quotes every text field and never puts commas inside them
+    private static List<String> fields(String line) {
+        List<String> fields = new ArrayList<>();
+        for (String field : Arrays.asList(line.split(",", -1))) {
+            fields.add(field.replace("\"", "").trim());
+        }
+        return fields;
+    }
+}
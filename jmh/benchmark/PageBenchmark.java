@@ -0,0 +1,46 @@
+package benchmark;
+
+import model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.InMemoryAuthorRepository;
+import repository.InMemoryBookRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** One keyset page by title from an in-memory repository holding {@code size} books. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    private int size;
+
+    private InMemoryBookRepository books;
+
+    @Setup
+    public void setUp() {
+        InMemoryAuthorRepository authors = new InMemoryAuthorRepository();
+        books = new InMemoryBookRepository(authors);
+        CatalogData.load(CatalogData.catalog(size), authors, books);
+    }
+
+    @Benchmark
+    public List<Book> findPageByTitle() {
+        return books.findPageByTitle("m", 0, 20);
+    }
+}
@@ -0,0 +1,114 @@
+package benchmark;
+
+import model.Author;
+import model.Book;
+import model.PrintedBook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.AuthorRepositoryImpl;
+import repository.BookRepositoryImpl;
+import repository.InMemoryAuthorRepository;
+import repository.InMemoryBookRepository;
+import repository.interfaces.AuthorRepository;
+import repository.interfaces.BookRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts, reads back and updates one book per operation in a repository that
+ * already holds a catalog of {@code size} books. The books inserted during an
+ * iteration are deleted after it, and the catalog and a throwaway author at the
+ * end of the trial. The in-memory repository is the baseline;
+ * {@code -p backend=postgres} runs against the database configured in
+ * library.properties.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoundTripBenchmark {
+
+    @Param({ "memory" })
+    private String backend;
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    private int size;
+
+    private BookRepository repository;
+    private AuthorRepository authorRepository;
+    private Author author;
+    private List<Book> catalog;
+    private String isbnPrefix;
+    private int sequence;
+    private final List<Integer> created = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        switch (backend) {
+            case "memory":
+                InMemoryAuthorRepository authors = new InMemoryAuthorRepository();
+                authorRepository = authors;
+                repository = new InMemoryBookRepository(authors);
+                break;
+            case "postgres":
+                authorRepository = new AuthorRepositoryImpl();
+                repository = new BookRepositoryImpl();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+        catalog = CatalogData.load(CatalogData.catalog(size), authorRepository, repository);
+        author = new Author(0, "Benchmark Author " + System.nanoTime(), 1950, "Benchmark");
+        authorRepository.save(author);
+        isbnPrefix = "bench-" + System.nanoTime() + "-";
+    }
+
+    @Benchmark
+    public Book saveFindUpdate() {
+        int n = ++sequence;
+        PrintedBook book = new PrintedBook(0, "Benchmark " + n, author, 2000, isbnPrefix + n, "B-1", 0.5);
+        repository.save(book);
+        created.add(book.getId());
+        Book found = repository.findById(book.getId());
+        found.setTitle("Benchmark " + n + " (updated)");
+        repository.update(found);
+        return found;
+    }
+
+    /** Keeps the catalog at {@code size} books from one iteration to the next. */
+    @TearDown(Level.Iteration)
+    public void deleteCreated() {
+        repository.deleteAllById(created);
+        created.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        List<Integer> bookIds = new ArrayList<>(catalog.size());
+        Set<Integer> authorIds = new LinkedHashSet<>();
+        for (Book book : catalog) {
+            bookIds.add(book.getId());
+            authorIds.add(book.getAuthor().getId());
+        }
+        repository.deleteAllById(bookIds);
+        authorIds.forEach(authorRepository::deleteById);
+        authorRepository.deleteById(author.getId());
+    }
+}
@@ -0,0 +1,50 @@
+package benchmark;
+
+import model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import repository.BookRowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/** {@link BookRowMapper#map} over a whole result set of {@code size} rows per operation. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMapperBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    private int size;
+
+    private Object[][] rows;
+
+    @Setup
+    public void setUp() {
+        rows = CatalogData.rows(CatalogData.catalog(size));
+    }
+
+    @Benchmark
+    public void map(Blackhole blackhole) throws SQLException {
+        ResultSet rs = CatalogData.resultSet(rows);
+        BookRowMapper mapper = new BookRowMapper();
+        while (rs.next()) {
+            Book book = mapper.map(rs);
+            blackhole.consume(book);
+        }
+    }
+}
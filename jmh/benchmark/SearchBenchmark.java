@@ -0,0 +1,59 @@
+package benchmark;
+
+import model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.BookServiceImpl;
+import service.CatalogSearchIndex;
+import service.SearchBackend;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BookServiceImpl#searchByTitle} over a catalog of {@code size} books,
+ * scanning every title or answered from the trigram index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    private int size;
+
+    @Param({ "SCAN", "INDEX" })
+    private SearchBackend backend;
+
+    private BookServiceImpl service;
+
+    @Setup
+    public void setUp() {
+        List<Book> books = CatalogData.catalog(size);
+        BookServiceImpl.Builder builder = BookServiceImpl.builder(CatalogData.listBackedRepository(books), null)
+                .searchBackend(backend);
+        if (backend == SearchBackend.INDEX) {
+            CatalogSearchIndex index = new CatalogSearchIndex();
+            index.rebuild(books.iterator(), CatalogData.authorsOf(books));
+            builder.searchIndex(index);
+        }
+        service = builder.build();
+    }
+
+    @Benchmark
+    public List<Book> searchByTitle() {
+        return service.searchByTitle(CatalogData.SEARCH_KEYWORD);
+    }
+}
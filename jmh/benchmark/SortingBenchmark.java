@@ -0,0 +1,54 @@
+package benchmark;
+
+import model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.SortingUtils;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/** {@link SortingUtils} over the titles of a catalog of {@code size} books. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SortingBenchmark {
+
+    private static final Comparator<Book> BY_TITLE = Comparator.comparing(Book::getTitle);
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    private int size;
+
+    private List<Book> books;
+    private List<String> titles;
+
+    @Setup
+    public void setUp() {
+        books = CatalogData.catalog(size);
+        titles = books.stream().map(Book::getTitle).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Book> sortByTitle() {
+        return SortingUtils.sortBy(books, BY_TITLE);
+    }
+
+    @Benchmark
+    public List<String> sortStringsAlphabetically() {
+        return SortingUtils.sortStringsAlphabetically(titles);
+    }
+}
@@ -1,18 +1,66 @@
+import controller.HttpApiServer;
 import controller.LibraryController;
 import exception.*;
 import model.*;
 import repository.AuthorRepositoryImpl;
 import repository.BookRepositoryImpl;
+import repository.CatalogImportRepositoryImpl;
+import repository.CatalogSnapshotRepositoryImpl;
+import repository.CachingAuthorRepository;
+import repository.CachingBookRepository;
+import repository.FsyncPolicy;
+import repository.HoldRepositoryImpl;
+import repository.InMemoryAuthorRepository;
+import repository.InMemoryBookRepository;
+import repository.JournalStore;
+import repository.LateFeeRepositoryImpl;
+import repository.LoanRepositoryImpl;
 import repository.interfaces.AuthorRepository;
 import repository.interfaces.BookRepository;
+import repository.interfaces.CatalogImportRepository;
+import repository.interfaces.HoldRepository;
+import repository.interfaces.LateFeeRepository;
+import repository.interfaces.LoanRepository;
+import service.AsyncAuthorServiceImpl;
+import service.AsyncBookServiceImpl;
 import service.AuthorServiceImpl;
+import service.AvailabilityIndex;
 import service.BookServiceImpl;
+import service.CatalogImportServiceImpl;
+import service.CatalogSearchIndex;
+import service.CatalogSnapshotService;
+import service.CheckoutServiceImpl;
+import service.ColumnarCatalog;
+import service.FacetServiceImpl;
+import service.HoldQueue;
+import service.LateFeeScheduler;
+import service.LateFeeServiceImpl;
+import service.ReservationServiceImpl;
+import service.SearchBackend;
+import service.interfaces.AsyncAuthorServiceInterface;
+import service.interfaces.AsyncBookServiceInterface;
 import service.interfaces.AuthorServiceInterface;
 import service.interfaces.BookServiceInterface;
+import service.interfaces.CatalogImportServiceInterface;
+import service.interfaces.CheckoutServiceInterface;
+import service.interfaces.FacetServiceInterface;
+import service.interfaces.LateFeeServiceInterface;
+import service.interfaces.ReservationServiceInterface;
+import utils.AppConfig;
+import utils.BoundedExecutor;
+import utils.Metrics;
+import utils.MetricsExporter;
 import utils.ReflectionUtils;
 import utils.SortingUtils;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class Main {
     public static void main(String[] args) {
@@ -23,25 +71,381 @@ public class Main {
         System.out.println("\n[SOLID ARCHITECTURE SETUP]");
         System.out.println("Creating layers with Dependency Injection (DIP)...");
 
-        AuthorRepository authorRepository = new AuthorRepositoryImpl();
-        BookRepository bookRepository = new BookRepositoryImpl(authorRepository);
-        System.out.println("✓ Repository layer initialized (Generic CrudRepository<T, ID>)");
+        String backend = AppConfig.getString("repository.backend", "postgres");
+        boolean journaled = "journal".equalsIgnoreCase(backend);
+        boolean inMemory = journaled || "memory".equalsIgnoreCase(backend);
+        AuthorRepository authorRepository;
+        BookRepository bookRepository;
+        JournalStore journalStore = null;
+        if (journaled) {
+            journalStore = openJournalStore();
+            if (journalStore == null) {
+                return;
+            }
+            authorRepository = journalStore.getAuthorRepository();
+            bookRepository = journalStore.getBookRepository();
+        } else if (inMemory) {
+            InMemoryAuthorRepository inMemoryAuthors = new InMemoryAuthorRepository();
+            authorRepository = inMemoryAuthors;
+            bookRepository = new InMemoryBookRepository(inMemoryAuthors);
+            System.out.println("✓ Repository layer initialized in memory (repository.backend=memory)");
+        } else {
+            authorRepository = new AuthorRepositoryImpl();
+            bookRepository = new BookRepositoryImpl();
+            System.out.println("✓ Repository layer initialized (Generic CrudRepository<T, ID>)");
+        }
 
-        AuthorServiceInterface authorService = new AuthorServiceImpl(authorRepository);
-        BookServiceInterface bookService = new BookServiceImpl(bookRepository, authorRepository);
-        System.out.println("✓ Service layer initialized (Using repository interfaces - DIP)");
+        CachingAuthorRepository authorCache = null;
+        CachingBookRepository bookCache = null;
+        if (inMemory) {
+            System.out.println("✓ Entity cache skipped (the " + backend + " backend serves reads from memory)");
+        } else if (AppConfig.getBoolean("cache.enabled", true)) {
+            int maxSize = AppConfig.getInt("cache.maxSize", 10_000);
+            long ttlMillis = AppConfig.getLong("cache.ttlSeconds", 300) * 1000;
+            authorCache = new CachingAuthorRepository(authorRepository, maxSize, ttlMillis);
+            bookCache = new CachingBookRepository(bookRepository, maxSize, ttlMillis);
+            authorCache.addInvalidationListener(bookCache::evictByAuthor);
+            authorRepository = authorCache;
+            bookRepository = bookCache;
+            System.out.println("✓ Read-through entity cache enabled (max " + maxSize + " entries per cache)");
+        } else {
+            System.out.println("✓ Entity cache disabled (cache.enabled=false)");
+        }
+        // outermost, so cache hits are timed as well
+        authorRepository = Metrics.instrument(AuthorRepository.class, authorRepository, "repository", true);
+        bookRepository = Metrics.instrument(BookRepository.class, bookRepository, "repository", true);
+
+        // the journal and memory backends already start from memory
+        CatalogSnapshotService snapshotService = null;
+        CatalogSnapshot warmCatalog = null;
+        if (!inMemory && AppConfig.getBoolean("catalog.snapshot.enabled", true)) {
+            snapshotService = new CatalogSnapshotService(new CatalogSnapshotRepositoryImpl(),
+                    Paths.get(AppConfig.getString("catalog.snapshot.file", "data/catalog-warm.snapshot")));
+            warmCatalog = snapshotService.loadIfCurrent();
+            if (warmCatalog != null && bookCache != null) {
+                System.out.println("✓ Entity caches preloaded (" + authorCache.preload(warmCatalog.getAuthors())
+                        + " authors, " + bookCache.preload(warmCatalog.getBooks()) + " books)");
+            }
+            snapshotService.start(AppConfig.getLong("catalog.snapshot.intervalMinutes", 15));
+        }
+
+        CatalogSearchIndex searchIndex = null;
+        if (AppConfig.getBoolean("search.index.enabled", true)) {
+            searchIndex = buildSearchIndex(bookRepository, authorRepository, warmCatalog);
+        }
+
+        AvailabilityIndex availabilityIndex = null;
+        if (AppConfig.getBoolean("availability.index.enabled", true)) {
+            availabilityIndex = buildAvailabilityIndex(bookRepository, warmCatalog);
+        }
+
+        ColumnarCatalog columnarCatalog = null;
+        if (AppConfig.getBoolean("catalog.columnar.enabled", true)) {
+            columnarCatalog = buildColumnarCatalog(bookRepository, authorRepository, warmCatalog);
+        }
 
-        LibraryController controller = new LibraryController(bookService, authorService);
+        HoldRepository holdRepository = null;
+        HoldQueue holdQueue = null;
+        if (!inMemory) {
+            holdRepository = Metrics.instrument(HoldRepository.class, new HoldRepositoryImpl(), "repository", true);
+            holdQueue = buildHoldQueue(holdRepository);
+        }
+
+        FacetServiceImpl facetServiceImpl = new FacetServiceImpl(bookRepository, authorRepository);
+        FacetServiceInterface facetService = Metrics.instrument(FacetServiceInterface.class, facetServiceImpl,
+                "service", false);
+        AuthorServiceInterface authorService = Metrics.instrument(AuthorServiceInterface.class,
+                new AuthorServiceImpl(authorRepository, searchIndex, columnarCatalog, facetServiceImpl), "service",
+                false);
+        SearchBackend searchBackend = SearchBackend.fromConfig(AppConfig.getString("search.backend", "index"));
+        BookServiceImpl bookServiceImpl = BookServiceImpl.builder(bookRepository, authorRepository)
+                .searchIndex(searchIndex)
+                .searchBackend(searchBackend)
+                .availabilityIndex(availabilityIndex)
+                .columnarCatalog(columnarCatalog)
+                .facetService(facetServiceImpl)
+                .holdQueue(holdQueue)
+                .build();
+        BookServiceInterface bookService = Metrics.instrument(BookServiceInterface.class, bookServiceImpl, "service",
+                false);
+        CheckoutServiceInterface checkoutService = null;
+        ReservationServiceInterface reservationService = null;
+        LateFeeServiceInterface lateFeeService = null;
+        if (inMemory) {
+            // loans, holds and fees live in PostgreSQL tables that flip books.available; against another
+            // store they would update unrelated rows, or fail, and disagree with the availability index
+            System.out.println("✓ Loans, holds and late fees disabled (they need repository.backend=postgres)");
+        } else {
+            LoanRepository loanRepository = Metrics.instrument(LoanRepository.class, new LoanRepositoryImpl(),
+                    "repository", true);
+            CheckoutServiceImpl checkoutServiceImpl = new CheckoutServiceImpl(loanRepository, bookRepository,
+                    AppConfig.getInt("loans.periodDays", 14), availabilityIndex, holdQueue);
+            if (bookCache != null) {
+                checkoutServiceImpl.addAvailabilityListener(bookCache::evict);
+            }
+            checkoutService = Metrics.instrument(CheckoutServiceInterface.class, checkoutServiceImpl, "service",
+                    false);
+            reservationService = Metrics.instrument(ReservationServiceInterface.class,
+                    new ReservationServiceImpl(holdRepository, loanRepository, bookRepository, holdQueue),
+                    "service", false);
+            LateFeeRepository lateFeeRepository = Metrics.instrument(LateFeeRepository.class,
+                    new LateFeeRepositoryImpl(), "repository", true);
+            lateFeeService = Metrics.instrument(LateFeeServiceInterface.class,
+                    new LateFeeServiceImpl(lateFeeRepository, AppConfig.getInt("fees.accrual.chunkSize", 50_000)),
+                    "service", false);
+        }
+        System.out.println("✓ Service layer initialized (Using repository interfaces - DIP)");
+        MetricsExporter metricsExporter = startMetricsExporter();
+
+        int maxConcurrency = AppConfig.getInt("async.maxConcurrency", AppConfig.getInt("db.pool.maxSize", 10));
+        BoundedExecutor asyncExecutor = new BoundedExecutor(maxConcurrency);
+        AsyncBookServiceInterface asyncBookService = Metrics.instrument(AsyncBookServiceInterface.class,
+                new AsyncBookServiceImpl(bookService, bookServiceImpl, asyncExecutor), "service", false);
+        AsyncAuthorServiceInterface asyncAuthorService = Metrics.instrument(AsyncAuthorServiceInterface.class,
+                new AsyncAuthorServiceImpl(authorService, asyncExecutor), "service", false);
+        System.out.println("✓ Async service layer initialized ("
+                + (asyncExecutor.usesVirtualThreads() ? "virtual threads" : "platform threads")
+                + ", max " + maxConcurrency + " concurrent DB tasks)");
+
+        LibraryController controller = new LibraryController(bookService, authorService, checkoutService,
+                reservationService, facetService);
         System.out.println("✓ Controller layer initialized (Using service interfaces - DIP)");
 
         System.out.println("\nArchitecture: Controller → Service → Repository → Database");
 
-        if (args.length > 0 && args[0].equals("--demo")) {
+        if (args.length > 1 && args[0].equals("--import")) {
+            if (inMemory) {
+                // the importer COPYs straight into PostgreSQL and would bypass the configured store
+                System.err.println("--import loads into PostgreSQL; it cannot be used with repository.backend="
+                        + backend);
+            } else {
+                runImport(args[1]);
+            }
+        } else if (args.length > 1 && args[0].equals("--export")) {
+            runExport(bookService, args[1]);
+        } else if (args.length > 0 && args[0].equals("--demo")) {
             runDemoMode(authorService, bookService);
+            demonstrateAsync(asyncBookService, asyncAuthorService, bookService);
+            printCacheStats(authorCache, bookCache);
+        } else if (args.length > 0 && args[0].equals("--accrue-fees")) {
+            if (lateFeeService == null) {
+                System.err.println("--accrue-fees needs repository.backend=postgres, not " + backend);
+            } else {
+                runFeeAccrual(lateFeeService, args.length > 1 ? args[1] : null);
+            }
+        } else if (args.length > 0 && args[0].equals("--serve")) {
+            LateFeeScheduler feeScheduler = startFeeScheduler(lateFeeService);
+            runHttpServer(bookService, authorService, checkoutService, reservationService, facetService);
+            if (feeScheduler != null) {
+                feeScheduler.close();
+            }
         } else {
             System.out.println("\n[STARTING INTERACTIVE MODE]");
             controller.run();
         }
+        asyncExecutor.close();
+        if (metricsExporter != null) {
+            metricsExporter.close();
+        }
+        if (snapshotService != null) {
+            snapshotService.close();
+        }
+        closeJournalStore(journalStore);
+    }
+
+    private static MetricsExporter startMetricsExporter() {
+        if (!Metrics.isEnabled()) {
+            System.out.println("✓ Metrics disabled (metrics.enabled=false)");
+            return null;
+        }
+        String file = AppConfig.getString("metrics.file", "");
+        try {
+            MetricsExporter exporter = new MetricsExporter(file.isEmpty() ? null : Paths.get(file),
+                    AppConfig.getLong("metrics.fileIntervalSeconds", 15), AppConfig.getInt("metrics.port", 0));
+            System.out.println("✓ Operation metrics enabled"
+                    + (file.isEmpty() ? "" : " (Prometheus text in " + file + ")")
+                    + (exporter.getPort() > 0 ? " (http://127.0.0.1:" + exporter.getPort() + "/metrics)" : ""));
+            return exporter;
+        } catch (IOException e) {
+            System.out.println("✗ Metrics exporter not started, metrics stay in menu option 26: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static JournalStore openJournalStore() {
+        try {
+            JournalStore journalStore = JournalStore.open(Paths.get(AppConfig.getString("journal.dir", "data/catalog")),
+                    FsyncPolicy.fromConfig(AppConfig.getString("journal.fsync", "always")),
+                    AppConfig.getLong("journal.fsyncIntervalMs", 50),
+                    AppConfig.getInt("journal.mapChunkMb", 64) << 20);
+            journalStore.startCompaction(AppConfig.getLong("journal.compactIntervalSeconds", 300),
+                    AppConfig.getLong("journal.compactMinMb", 16) << 20);
+            return journalStore;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("✗ Journal store could not be opened: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void closeJournalStore(JournalStore journalStore) {
+        if (journalStore == null) {
+            return;
+        }
+        try {
+            System.out.println(journalStore.getStats());
+            journalStore.close();
+        } catch (IOException e) {
+            System.err.println("Journal store was not closed cleanly (recovery will replay the journal): "
+                    + e.getMessage());
+        }
+    }
+
+    private static CatalogSearchIndex buildSearchIndex(BookRepository bookRepository,
+            AuthorRepository authorRepository, CatalogSnapshot warmCatalog) {
+        long start = System.currentTimeMillis();
+        CatalogSearchIndex searchIndex = new CatalogSearchIndex();
+        try (Stream<Book> books = catalogBooks(bookRepository, warmCatalog)) {
+            searchIndex.rebuild(books.iterator(), catalogAuthors(authorRepository, warmCatalog));
+        } catch (RuntimeException e) {
+            System.out.println("✗ Search index not built, falling back to scans: "
+                    + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+            return null;
+        }
+        System.out.println("✓ Trigram search index built (" + searchIndex.getBookCount() + " titles, "
+                + searchIndex.getAuthorCount() + " authors in " + (System.currentTimeMillis() - start) + "ms)");
+        return searchIndex;
+    }
+
+    private static AvailabilityIndex buildAvailabilityIndex(BookRepository bookRepository,
+            CatalogSnapshot warmCatalog) {
+        long start = System.currentTimeMillis();
+        AvailabilityIndex availabilityIndex = new AvailabilityIndex();
+        try (Stream<Book> books = catalogBooks(bookRepository, warmCatalog)) {
+            availabilityIndex.rebuild(books.iterator());
+        } catch (RuntimeException e) {
+            System.out.println("✗ Availability index not built, checking availability in the database: "
+                    + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+            return null;
+        }
+        System.out.println("✓ Availability index built (" + availabilityIndex.getAvailableCount() + " of "
+                + availabilityIndex.getBookCount() + " books on the shelf, "
+                + (System.currentTimeMillis() - start) + "ms)");
+        return availabilityIndex;
+    }
+
+    private static ColumnarCatalog buildColumnarCatalog(BookRepository bookRepository,
+            AuthorRepository authorRepository, CatalogSnapshot warmCatalog) {
+        long start = System.currentTimeMillis();
+        ColumnarCatalog columnarCatalog = new ColumnarCatalog();
+        try (Stream<Book> books = catalogBooks(bookRepository, warmCatalog)) {
+            columnarCatalog.rebuild(books.iterator(), catalogAuthors(authorRepository, warmCatalog));
+        } catch (RuntimeException e) {
+            System.out.println("✗ Columnar catalog not built, filtering in the database stream: "
+                    + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+            return null;
+        }
+        System.out.println("✓ Columnar catalog built (" + columnarCatalog.getBookCount() + " books in "
+                + (System.currentTimeMillis() - start) + "ms)");
+        return columnarCatalog;
+    }
+
+    /** Books from the warm snapshot when there is one, otherwise streamed from the repository. */
+    private static Stream<Book> catalogBooks(BookRepository bookRepository, CatalogSnapshot warmCatalog) {
+        return warmCatalog != null ? warmCatalog.getBooks().stream() : bookRepository.streamAll();
+    }
+
+    private static List<Author> catalogAuthors(AuthorRepository authorRepository, CatalogSnapshot warmCatalog) {
+        return warmCatalog != null ? warmCatalog.getAuthors() : authorRepository.findAll();
+    }
+
+    private static HoldQueue buildHoldQueue(HoldRepository holdRepository) {
+        HoldQueue holdQueue = new HoldQueue();
+        try {
+            holdQueue.rebuild(holdRepository.findAllOpenHolds());
+        } catch (RuntimeException e) {
+            System.out.println("✗ Hold queues not loaded, reading them from the database: "
+                    + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+            return null;
+        }
+        return holdQueue;
+    }
+
+    private static void printCacheStats(CachingAuthorRepository authorCache, CachingBookRepository bookCache) {
+        if (authorCache != null && bookCache != null) {
+            System.out.println("\n[CACHE STATISTICS]");
+            System.out.println("  " + authorCache.getStats());
+            System.out.println("  " + bookCache.getStats());
+        }
+    }
+
+    private static void runHttpServer(BookServiceInterface bookService, AuthorServiceInterface authorService,
+            CheckoutServiceInterface checkoutService, ReservationServiceInterface reservationService,
+            FacetServiceInterface facetService) {
+        HttpApiServer.Settings settings = HttpApiServer.Settings.fromConfig();
+        try {
+            HttpApiServer server = new HttpApiServer(bookService, authorService, checkoutService,
+                    reservationService, facetService, settings);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(2)));
+            server.start();
+            System.out.println("\n[HTTP API LISTENING ON PORT " + server.getPort() + "] (Ctrl+C to stop)");
+            server.awaitStop();
+        } catch (IOException e) {
+            System.err.println("Could not start HTTP server: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static LateFeeScheduler startFeeScheduler(LateFeeServiceInterface lateFeeService) {
+        if (lateFeeService == null || !AppConfig.getBoolean("fees.accrual.enabled", true)) {
+            return null;
+        }
+        LocalTime runAt = LocalTime.parse(AppConfig.getString("fees.accrual.time", "02:00"));
+        LateFeeScheduler feeScheduler = new LateFeeScheduler(lateFeeService, runAt);
+        feeScheduler.start();
+        System.out.println("✓ Late fee accrual scheduled daily at " + runAt);
+        return feeScheduler;
+    }
+
+    private static void runFeeAccrual(LateFeeServiceInterface lateFeeService, String date) {
+        try {
+            LocalDate asOf = date != null ? LocalDate.parse(date) : LocalDate.now();
+            System.out.println("\n[ACCRUING LATE FEES AS OF " + asOf + "]");
+            lateFeeService.accrueFees(asOf).printSummary();
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid date (expected yyyy-mm-dd): " + date);
+        } catch (RuntimeException e) {
+            System.err.println("Accrual failed: "
+                    + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+        }
+    }
+
+    private static void runImport(String file) {
+        System.out.println("\n[IMPORTING CATALOG FROM " + file + "]");
+        CatalogImportRepository importRepository = Metrics.instrument(CatalogImportRepository.class,
+                new CatalogImportRepositoryImpl(), "repository", false);
+        CatalogImportServiceInterface importService = Metrics.instrument(CatalogImportServiceInterface.class,
+                new CatalogImportServiceImpl(importRepository), "service", false);
+        try {
+            importService.importCsv(Paths.get(file)).printSummary();
+        } catch (IOException e) {
+            System.err.println("Import failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Import failed: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+        }
+    }
+
+    private static void runExport(BookServiceInterface bookService, String file) {
+        System.out.println("\n[EXPORTING CATALOG TO " + file + "]");
+        long start = System.currentTimeMillis();
+        try {
+            long rows = bookService.exportCsv(Paths.get(file));
+            System.out.println("Exported " + rows + " books in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (IOException e) {
+            System.err.println("Export failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Export failed: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+        }
     }
 
     private static void runDemoMode(AuthorServiceInterface authorService, BookServiceInterface bookService) {
@@ -153,15 +557,11 @@ public class Main {
 
         List<Book> books = bookService.getAllBooks();
 
-        System.out.println("\n[Sorting by Title using Lambda]");
-        System.out.println("  Lambda: (b1, b2) -> b1.getTitle().compareToIgnoreCase(b2.getTitle())");
-        List<Book> sortedByTitle = bookService.getBooksSortedByTitle();
-        sortedByTitle.stream().limit(5).forEach(b -> System.out.println("    " + b.getTitle()));
+        System.out.println("\n[Top 5 by Title (ORDER BY lower(title) in SQL)]");
+        bookService.getTopBooksByTitle(5).forEach(b -> System.out.println("    " + b.getTitle()));
 
-        System.out.println("\n[Sorting by Year using Lambda]");
-        System.out.println("  Lambda: (b1, b2) -> Integer.compare(b1.getYear(), b2.getYear())");
-        List<Book> sortedByYear = bookService.getBooksSortedByYear();
-        sortedByYear.stream().limit(5).forEach(b -> System.out.println("    " + b.getYear() + " - " + b.getTitle()));
+        System.out.println("\n[Top 5 by Year (ORDER BY publish_year in SQL)]");
+        bookService.getTopBooksByYear(5).forEach(b -> System.out.println("    " + b.getYear() + " - " + b.getTitle()));
 
         System.out.println("\n[Filtering using Lambda/Stream]");
         System.out.println("  Lambda filter: book -> book.getTitle().toLowerCase().contains(\"harry\")");
@@ -257,6 +657,32 @@ public class Main {
         System.out.println("  DatabaseOperationException");
     }
 
+    private static void demonstrateAsync(AsyncBookServiceInterface asyncBookService,
+            AsyncAuthorServiceInterface asyncAuthorService, BookServiceInterface bookService) {
+        System.out.println("\n" + "=".repeat(60));
+        System.out.println("9. ASYNC SERVICE LAYER (CompletableFuture fan-out)");
+        System.out.println("=".repeat(60));
+
+        List<Integer> ids = new ArrayList<>();
+        for (Book book : bookService.getTopBooksByTitle(5)) {
+            ids.add(book.getId());
+        }
+
+        long start = System.nanoTime();
+        asyncBookService.getBooksByIds(ids)
+                .thenCombine(asyncAuthorService.getAllAuthors(), (books, authors) -> {
+                    System.out.println("\n  Fetched " + books.size() + " books by ID and " + authors.size()
+                            + " authors concurrently in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+                    books.forEach(b -> System.out.println("    " + b.getId() + " - " + b.getTitle()));
+                    return null;
+                })
+                .exceptionally(e -> {
+                    System.out.println("  Async lookup failed: " + e.getCause().getMessage());
+                    return null;
+                })
+                .join();
+    }
+
     private static void demonstrateComposition(BookServiceInterface bookService) {
         System.out.println("\n" + "=".repeat(60));
         System.out.println("8. COMPOSITION DEMONSTRATION (Book HAS-A Author)");
@@ -0,0 +1,616 @@
+package controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exception.*;
+import model.*;
+import service.interfaces.AuthorServiceInterface;
+import service.interfaces.BookServiceInterface;
+import service.interfaces.CheckoutServiceInterface;
+import service.interfaces.FacetServiceInterface;
+import service.interfaces.ReservationServiceInterface;
+import utils.AppConfig;
+import utils.BoundedExecutor;
+import utils.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON front end over the book and author services, built on the JDK's
+ * {@code com.sun.net.httpserver}. Each exchange runs on its own (virtual, where
+ * available) thread; at most {@code maxConcurrency} are handled at once and the
+ * rest wait up to {@code queueTimeoutMs} before getting a 503.
+ *
+ * <pre>
+ * GET    /api/books?sort=title|year&amp;limit=&amp;cursor=   GET /api/authors?limit=&amp;cursor=
+ * GET    /api/books/{id}                             GET /api/authors/{id}
+ * GET    /api/books/search?q=&amp;mode=substring|fulltext|fuzzy&amp;page=
+ * GET    /api/authors/search?q=&amp;mode=substring|fuzzy
+ * POST   /api/books                                  POST /api/authors
+ * DELETE /api/books/{id}                             DELETE /api/authors/{id}
+ * POST   /api/books/{id}/borrow  {"patron": ...}     POST /api/books/{id}/return
+ * GET    /api/loans?patron=
+ * GET    /api/books/{id}/availability                GET /api/authors/{id}/available
+ * POST   /api/books/{id}/hold    {"patron": ...}     GET /api/books/{id}/holds
+ * POST   /api/holds/{id}/cancel  {"patron": ...}
+ * </pre>
+ */
+public class HttpApiServer {
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final BookServiceInterface bookService;
+    private final AuthorServiceInterface authorService;
+    private final CheckoutServiceInterface checkoutService;
+    private final ReservationServiceInterface reservationService;
+    private final FacetServiceInterface facetService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final long queueTimeoutMs;
+    private final boolean accessLog;
+    private final int defaultPageSize;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    public HttpApiServer(BookServiceInterface bookService, AuthorServiceInterface authorService,
+            CheckoutServiceInterface checkoutService, ReservationServiceInterface reservationService,
+            FacetServiceInterface facetService, Settings settings) throws IOException {
+        this.bookService = bookService;
+        this.authorService = authorService;
+        this.checkoutService = checkoutService;
+        this.reservationService = reservationService;
+        this.facetService = facetService;
+        this.permits = new Semaphore(settings.maxConcurrency, true);
+        this.queueTimeoutMs = settings.queueTimeoutMs;
+        this.accessLog = settings.accessLog;
+        this.defaultPageSize = settings.pageSize;
+
+        // read once by the JDK server when the first HttpServer is created
+        System.setProperty("sun.net.httpserver.idleInterval", String.valueOf(settings.keepAliveSeconds));
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(settings.maxIdleConnections));
+
+        this.server = HttpServer.create(new InetSocketAddress(settings.port), settings.backlog);
+        this.executor = BoundedExecutor.newThreadPerTaskExecutor("http-");
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        stopped.countDown();
+    }
+
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        int status;
+        try {
+            if (!permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                status = send(exchange, 503, error("Server busy, try again later"));
+            } else {
+                try {
+                    status = route(exchange);
+                } finally {
+                    permits.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = send(exchange, 503, error("Server shutting down"));
+        }
+        if (accessLog) {
+            System.out.printf("[http] %s %s %d %.2fms%n", exchange.getRequestMethod(),
+                    exchange.getRequestURI(), status, (System.nanoTime() - start) / 1_000_000.0);
+        }
+    }
+
+    private int route(HttpExchange exchange) throws IOException {
+        try {
+            String body = readBody(exchange);
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().replaceAll("/+$", "").split("/");
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+            // path = ["", "api", resource, (id | "search" | "filter"), (action)]
+            if (path.length < 3 || path.length > 5) {
+                return send(exchange, 404, error("No such endpoint"));
+            }
+            String resource = path[2];
+            String sub = path.length >= 4 ? path[3] : null;
+            String action = path.length == 5 ? path[4] : null;
+
+            // every per-item action and the loans/holds resources need the lending services
+            if (checkoutService == null && (action != null || resource.equals("loans") || resource.equals("holds"))) {
+                return send(exchange, 501, error("Loans and holds need repository.backend=postgres"));
+            }
+
+            if (action != null && method.equals("GET")) {
+                int id = Integer.parseInt(sub);
+                if (resource.equals("books") && action.equals("availability")) {
+                    return send(exchange, 200, "{\"id\":" + id + ",\"available\":"
+                            + checkoutService.isAvailable(id) + "}");
+                }
+                if (resource.equals("books") && action.equals("holds")) {
+                    return send(exchange, 200, "{\"depth\":" + reservationService.getQueueDepth(id)
+                            + ",\"items\":" + holdsJson(reservationService.getQueue(id)) + "}");
+                }
+                if (resource.equals("authors") && action.equals("available")) {
+                    return send(exchange, 200,
+                            "{\"items\":" + booksJson(checkoutService.getAvailableBooksByAuthor(id)) + "}");
+                }
+                return send(exchange, 404, error("No such endpoint"));
+            } else if (resource.equals("books") && action != null) {
+                if (!method.equals("POST")) {
+                    return send(exchange, 405, error("Method " + method + " not allowed here"));
+                }
+                int bookId = Integer.parseInt(sub);
+                if (action.equals("borrow")) {
+                    String patron = stringField(Json.parseObject(body), "patron");
+                    return send(exchange, 201, loanJson(checkoutService.borrowBook(bookId, patron)));
+                }
+                if (action.equals("return")) {
+                    ReturnResult result = checkoutService.returnBook(bookId);
+                    return send(exchange, 200, "{\"returned\":" + loanJson(result.getReturnedLoan())
+                            + ",\"handedOff\":"
+                            + (result.isHandedOff() ? loanJson(result.getHandOffLoan()) : "null") + "}");
+                }
+                if (action.equals("hold")) {
+                    String patron = stringField(Json.parseObject(body), "patron");
+                    Hold hold = reservationService.placeHold(bookId, patron);
+                    return send(exchange, 201, "{\"hold\":" + holdJson(hold) + ",\"position\":"
+                            + reservationService.getQueuePosition(bookId, hold.getPatron()) + "}");
+                }
+                return send(exchange, 404, error("No such endpoint"));
+            } else if (resource.equals("holds") && "cancel".equals(action) && method.equals("POST")) {
+                reservationService.cancelHold(Integer.parseInt(sub), stringField(Json.parseObject(body), "patron"));
+                return send(exchange, 204, null);
+            } else if (action != null) {
+                return send(exchange, 404, error("No such endpoint"));
+            } else if (resource.equals("facets") && sub == null && method.equals("GET")) {
+                return send(exchange, 200, "{\"type\":" + countsJson(facetService.getTypeCounts())
+                        + ",\"decade\":" + countsJson(facetService.getDecadeCounts())
+                        + ",\"author\":" + countsJson(facetService.getAuthorCounts(intParam(query, "authors", 10)))
+                        + ",\"nationality\":" + countsJson(facetService.getNationalityCounts()) + "}");
+            } else if (resource.equals("loans") && sub == null && method.equals("GET")) {
+                String patron = requiredParam(query, "patron");
+                return send(exchange, 200, loansJson(checkoutService.getLoansByPatron(patron)));
+            } else if (resource.equals("books")) {
+                if (sub == null && method.equals("GET")) {
+                    return send(exchange, 200, listBooks(query));
+                }
+                if (sub == null && method.equals("POST")) {
+                    return send(exchange, 201, createBook(Json.parseObject(body)));
+                }
+                if ("search".equals(sub) && method.equals("GET")) {
+                    return send(exchange, 200, searchBooks(query));
+                }
+                if ("filter".equals(sub) && method.equals("GET")) {
+                    return send(exchange, 200, filterBooks(query));
+                }
+                if (sub != null && method.equals("GET")) {
+                    return send(exchange, 200, bookJson(bookService.getBookById(Integer.parseInt(sub))));
+                }
+                if (sub != null && method.equals("DELETE")) {
+                    bookService.deleteBook(Integer.parseInt(sub));
+                    return send(exchange, 204, null);
+                }
+            } else if (resource.equals("authors")) {
+                if (sub == null && method.equals("GET")) {
+                    return send(exchange, 200, listAuthors(query));
+                }
+                if (sub == null && method.equals("POST")) {
+                    return send(exchange, 201, createAuthor(Json.parseObject(body)));
+                }
+                if ("search".equals(sub) && method.equals("GET")) {
+                    return send(exchange, 200, searchAuthors(query));
+                }
+                if (sub != null && method.equals("GET")) {
+                    return send(exchange, 200, authorJson(authorService.getAuthorById(Integer.parseInt(sub))));
+                }
+                if (sub != null && method.equals("DELETE")) {
+                    authorService.deleteAuthor(Integer.parseInt(sub));
+                    return send(exchange, 204, null);
+                }
+            } else {
+                return send(exchange, 404, error("No such endpoint"));
+            }
+            return send(exchange, 405, error("Method " + method + " not allowed here"));
+        } catch (ResourceNotFoundException e) {
+            return send(exchange, 404, error(e.getMessage()));
+        } catch (DuplicateResourceException | BookUnavailableException e) {
+            return send(exchange, 409, error(e.getMessage()));
+        } catch (InvalidInputException e) {
+            return send(exchange, 400, error(e.getMessage()));
+        } catch (BodyTooLargeException e) {
+            return send(exchange, 413, error("Request body exceeds " + MAX_BODY_BYTES + " bytes"));
+        } catch (IllegalArgumentException e) {
+            // also covers NumberFormatException from ids and query parameters
+            return send(exchange, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            // driver and SQL messages describe the schema; they go to the log, not the client
+            System.err.println("[http] " + exchange.getRequestMethod() + " " + exchange.getRequestURI()
+                    + " failed: " + (e.getCause() != null ? e.getCause() : e));
+            return send(exchange, 500, error("Internal server error"));
+        }
+    }
+
+    private String listBooks(Map<String, String> query) {
+        boolean byYear = "year".equals(query.get("sort"));
+        int limit = intParam(query, "limit", defaultPageSize);
+        Book after = null;
+        String cursor = query.get("cursor");
+        if (cursor != null) {
+            String[] parts = decodeCursor(cursor, 3);
+            after = new PrintedBook(Integer.parseInt(parts[0]), parts[2], null, Integer.parseInt(parts[1]),
+                    null, null, 0);
+        }
+
+        Page<Book> page = byYear
+                ? bookService.getBooksPageByYear(after, limit)
+                : bookService.getBooksPageByTitle(after, limit);
+        String next = null;
+        if (page.hasNext()) {
+            Book last = page.getLast();
+            next = encodeCursor(last.getId() + "\n" + last.getYear() + "\n" + last.getTitle());
+        }
+        return pageJson(booksJson(page.getItems()), next);
+    }
+
+    private String searchBooks(Map<String, String> query) {
+        String q = requiredParam(query, "q");
+        String mode = query.getOrDefault("mode", "substring");
+        switch (mode) {
+            case "substring":
+                return "{\"items\":" + booksJson(bookService.searchByTitle(q)) + "}";
+            case "fuzzy":
+                return "{\"items\":" + booksJson(bookService.fuzzySearchByTitle(q)) + "}";
+            case "fulltext":
+                int page = intParam(query, "page", 0);
+                Page<Book> results = bookService.searchFullText(q, page, intParam(query, "limit", defaultPageSize));
+                return pageJson(booksJson(results.getItems()), results.hasNext() ? String.valueOf(page + 1) : null);
+            default:
+                throw new IllegalArgumentException("Unknown search mode: " + mode);
+        }
+    }
+
+    private String filterBooks(Map<String, String> query) throws InvalidInputException {
+        String type = query.get("type");
+        CatalogFilter filter = new CatalogFilter(optionalIntParam(query, "fromYear"), optionalIntParam(query, "toYear"),
+                type != null ? type.toUpperCase() : null, query.get("nationality"));
+        return "{\"count\":" + bookService.countBooks(filter) + ",\"items\":"
+                + booksJson(bookService.filterBooks(filter, intParam(query, "limit", defaultPageSize))) + "}";
+    }
+
+    private String createBook(Map<String, Object> body)
+            throws InvalidInputException, ResourceNotFoundException, DuplicateResourceException {
+        String type = stringField(body, "type");
+        Author author = authorService.getAuthorById((int) numberField(body, "authorId"));
+        String title = stringField(body, "title");
+        String isbn = stringField(body, "isbn");
+        int year = (int) numberField(body, "year");
+
+        Book book;
+        if ("EBOOK".equalsIgnoreCase(type)) {
+            book = new EBook(0, title, author, year, isbn, numberField(body, "fileSize"),
+                    stringField(body, "downloadUrl"));
+        } else if ("PRINTED".equalsIgnoreCase(type)) {
+            book = new PrintedBook(0, title, author, year, isbn, stringField(body, "shelfLocation"),
+                    numberField(body, "weight"));
+        } else {
+            throw new InvalidInputException("type must be EBOOK or PRINTED");
+        }
+        bookService.createBook(book);
+        return bookJson(book);
+    }
+
+    private String listAuthors(Map<String, String> query) {
+        int limit = intParam(query, "limit", defaultPageSize);
+        Author after = null;
+        String cursor = query.get("cursor");
+        if (cursor != null) {
+            String[] parts = decodeCursor(cursor, 2);
+            after = new Author(Integer.parseInt(parts[0]), parts[1], 0, null);
+        }
+
+        Page<Author> page = authorService.getAuthorsPage(after, limit);
+        String next = null;
+        if (page.hasNext()) {
+            Author last = page.getLast();
+            next = encodeCursor(last.getId() + "\n" + last.getName());
+        }
+        return pageJson(authorsJson(page.getItems()), next);
+    }
+
+    private String searchAuthors(Map<String, String> query) {
+        String q = requiredParam(query, "q");
+        String mode = query.getOrDefault("mode", "substring");
+        switch (mode) {
+            case "substring":
+                return "{\"items\":" + authorsJson(authorService.searchByName(q)) + "}";
+            case "fuzzy":
+                return "{\"items\":" + authorsJson(authorService.fuzzySearchByName(q)) + "}";
+            default:
+                throw new IllegalArgumentException("Unknown search mode: " + mode);
+        }
+    }
+
+    private String createAuthor(Map<String, Object> body) throws InvalidInputException, DuplicateResourceException {
+        Author author = new Author(0, stringField(body, "name"), (int) numberField(body, "birthYear"),
+                stringField(body, "nationality"));
+        authorService.createAuthor(author);
+        return authorJson(author);
+    }
+
+    private static String bookJson(Book book) {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"id\":").append(book.getId());
+        sb.append(",\"title\":").append(Json.quote(book.getTitle()));
+        sb.append(",\"isbn\":").append(Json.quote(book.getIsbn()));
+        sb.append(",\"year\":").append(book.getYear());
+        sb.append(",\"type\":").append(Json.quote(book.getBookType()));
+        if (book.getAuthor() != null) {
+            sb.append(",\"author\":{\"id\":").append(book.getAuthor().getId())
+                    .append(",\"name\":").append(Json.quote(book.getAuthor().getName())).append('}');
+        }
+        if (book instanceof EBook) {
+            EBook ebook = (EBook) book;
+            sb.append(",\"downloadUrl\":").append(Json.quote(ebook.getDownloadUrl()));
+            sb.append(",\"fileSize\":").append(ebook.getFileSize());
+        } else if (book instanceof PrintedBook) {
+            PrintedBook printed = (PrintedBook) book;
+            sb.append(",\"shelfLocation\":").append(Json.quote(printed.getShelfLocation()));
+            sb.append(",\"weight\":").append(printed.getWeight());
+        }
+        if (book instanceof Borrowable) {
+            sb.append(",\"available\":").append(((Borrowable) book).isAvailable());
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String booksJson(List<Book> books) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Book book : books) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(bookJson(book));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String authorJson(Author author) {
+        return "{\"id\":" + author.getId()
+                + ",\"name\":" + Json.quote(author.getName())
+                + ",\"birthYear\":" + author.getBirthYear()
+                + ",\"nationality\":" + Json.quote(author.getNationality()) + "}";
+    }
+
+    private static String authorsJson(List<Author> authors) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Author author : authors) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(authorJson(author));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String loanJson(Loan loan) {
+        return "{\"id\":" + loan.getId()
+                + ",\"bookId\":" + loan.getBookId()
+                + ",\"patron\":" + Json.quote(loan.getPatron())
+                + ",\"borrowedAt\":" + Json.quote(String.valueOf(loan.getBorrowedAt()))
+                + ",\"dueAt\":" + Json.quote(String.valueOf(loan.getDueAt()))
+                + ",\"returnedAt\":"
+                + Json.quote(loan.getReturnedAt() != null ? loan.getReturnedAt().toString() : null)
+                + "}";
+    }
+
+    private static String loansJson(List<Loan> loans) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Loan loan : loans) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(loanJson(loan));
+        }
+        return "{\"items\":" + sb.append(']') + "}";
+    }
+
+    private static String holdJson(Hold hold) {
+        return "{\"id\":" + hold.getId()
+                + ",\"bookId\":" + hold.getBookId()
+                + ",\"patron\":" + Json.quote(hold.getPatron())
+                + ",\"placedAt\":" + Json.quote(String.valueOf(hold.getPlacedAt())) + "}";
+    }
+
+    private static String holdsJson(List<Hold> holds) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Hold hold : holds) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(holdJson(hold));
+        }
+        return sb.append(']').toString();
+    }
+
+    // an array of pairs rather than an object, so the order (largest first) survives
+    private static String countsJson(Map<String, Long> counts) {
+        StringBuilder sb = new StringBuilder("[");
+        counts.forEach((value, count) -> {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append("{\"value\":").append(Json.quote(value)).append(",\"count\":").append(count).append('}');
+        });
+        return sb.append(']').toString();
+    }
+
+    private static String pageJson(String items, String next) {
+        return "{\"items\":" + items + ",\"next\":" + Json.quote(next) + "}";
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + Json.quote(message) + "}";
+    }
+
+    private static String encodeCursor(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor, int parts) {
+        String[] values = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split("\n", parts);
+        if (values.length != parts) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return values;
+    }
+
+    private static String requiredParam(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing query parameter '" + name + "'");
+        }
+        return value;
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static Integer optionalIntParam(Map<String, String> query, String name) {
+        String value = query.get(name);
+        return value == null || value.isEmpty() ? null : Integer.valueOf(value);
+    }
+
+    private static String stringField(Map<String, Object> body, String name) throws InvalidInputException {
+        Object value = body.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new InvalidInputException("Field '" + name + "' must be a string");
+        }
+        return (String) value;
+    }
+
+    private static double numberField(Map<String, Object> body, String name) throws InvalidInputException {
+        Object value = body.get(name);
+        if (!(value instanceof Double)) {
+            throw new InvalidInputException("Field '" + name + "' must be a number");
+        }
+        return (Double) value;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /** Reads the whole body; a connection is only reused once its request body has been consumed. */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new BodyTooLargeException();
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Sends a fixed-length response, which keeps the connection eligible for keep-alive. */
+    private static int send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json == null ? new byte[0] : json.getBytes(StandardCharsets.UTF_8);
+        if (json != null) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        }
+        if (bytes.length == 0) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return status;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        return status;
+    }
+
+    private static class BodyTooLargeException extends RuntimeException {
+    }
+
+    /** Server settings, normally read from the {@code http.*} keys of library.properties. */
+    public static class Settings {
+        private final int port;
+        private final int backlog;
+        private final int maxConcurrency;
+        private final long queueTimeoutMs;
+        private final int keepAliveSeconds;
+        private final int maxIdleConnections;
+        private final boolean accessLog;
+        private final int pageSize;
+
+        public Settings(int port, int backlog, int maxConcurrency, long queueTimeoutMs, int keepAliveSeconds,
+                int maxIdleConnections, boolean accessLog, int pageSize) {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException("http.maxConcurrency must be positive");
+            }
+            this.port = port;
+            this.backlog = backlog;
+            this.maxConcurrency = maxConcurrency;
+            this.queueTimeoutMs = queueTimeoutMs;
+            this.keepAliveSeconds = keepAliveSeconds;
+            this.maxIdleConnections = maxIdleConnections;
+            this.accessLog = accessLog;
+            this.pageSize = pageSize;
+        }
+
+        public static Settings fromConfig() {
+            return new Settings(
+                    AppConfig.getInt("http.port", 8080),
+                    AppConfig.getInt("http.backlog", 0),
+                    AppConfig.getInt("http.maxConcurrency", 200),
+                    AppConfig.getLong("http.queueTimeoutMs", 1000),
+                    AppConfig.getInt("http.keepAliveSeconds", 30),
+                    AppConfig.getInt("http.maxIdleConnections", 200),
+                    AppConfig.getBoolean("http.accessLog", true),
+                    AppConfig.getInt("ui.pageSize", 20));
+        }
+    }
+}
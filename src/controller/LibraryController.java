@@ -3,23 +3,42 @@ package controller;
 import model.*;
 import service.interfaces.BookServiceInterface;
 import service.interfaces.AuthorServiceInterface;
+import service.interfaces.CheckoutServiceInterface;
+import service.interfaces.FacetServiceInterface;
+import service.interfaces.ReservationServiceInterface;
 import exception.*;
+import utils.AppConfig;
+import utils.Metrics;
 import utils.ReflectionUtils;
 import utils.SortingUtils;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class LibraryController {
 
     private final BookServiceInterface bookService;
     private final AuthorServiceInterface authorService;
+    private final CheckoutServiceInterface checkoutService;
+    private final ReservationServiceInterface reservationService;
+    private final FacetServiceInterface facetService;
     private final Scanner scanner;
+    private final int pageSize;
 
-    public LibraryController(BookServiceInterface bookService, AuthorServiceInterface authorService) {
+    public LibraryController(BookServiceInterface bookService, AuthorServiceInterface authorService,
+            CheckoutServiceInterface checkoutService, ReservationServiceInterface reservationService,
+            FacetServiceInterface facetService) {
         this.bookService = bookService;
         this.authorService = authorService;
+        this.checkoutService = checkoutService;
+        this.reservationService = reservationService;
+        this.facetService = facetService;
         this.scanner = new Scanner(System.in);
+        this.pageSize = AppConfig.getInt("ui.pageSize", 20);
     }
 
     public void displayMenu() {
@@ -39,6 +58,19 @@ public class LibraryController {
         System.out.println("11. Delete author");
         System.out.println("12. Show reflection demo");
         System.out.println("13. Show interface features demo");
+        System.out.println("14. Search authors by name");
+        System.out.println("15. Full-text search (ranked)");
+        System.out.println("16. Autocomplete titles and author names");
+        System.out.println("17. Borrow a book");
+        System.out.println("18. Return a book");
+        System.out.println("19. Show a patron's loans");
+        System.out.println("20. List available books by author");
+        System.out.println("21. Place a hold on a borrowed book");
+        System.out.println("22. Cancel a hold");
+        System.out.println("23. Show a book's hold queue");
+        System.out.println("24. Filter books (year range, type, author nationality)");
+        System.out.println("25. Show catalog facets");
+        System.out.println("26. Show operation stats (latency, errors, rows)");
         System.out.println("0.  Exit");
         System.out.println("=".repeat(50));
         System.out.print("Enter choice: ");
@@ -52,6 +84,10 @@ public class LibraryController {
 
             try {
                 int choice = Integer.parseInt(scanner.nextLine().trim());
+                if (choice >= 17 && choice <= 23 && checkoutService == null) {
+                    System.out.println("Loans and holds are only available with repository.backend=postgres.");
+                    continue;
+                }
 
                 switch (choice) {
                     case 0:
@@ -97,6 +133,45 @@ public class LibraryController {
                     case 13:
                         showInterfaceDemo();
                         break;
+                    case 14:
+                        searchAuthors();
+                        break;
+                    case 15:
+                        searchFullText();
+                        break;
+                    case 16:
+                        autocomplete();
+                        break;
+                    case 17:
+                        borrowBook();
+                        break;
+                    case 18:
+                        returnBook();
+                        break;
+                    case 19:
+                        listLoans();
+                        break;
+                    case 20:
+                        listAvailableByAuthor();
+                        break;
+                    case 21:
+                        placeHold();
+                        break;
+                    case 22:
+                        cancelHold();
+                        break;
+                    case 23:
+                        showHoldQueue();
+                        break;
+                    case 24:
+                        filterBooks();
+                        break;
+                    case 25:
+                        showFacets();
+                        break;
+                    case 26:
+                        showStats();
+                        break;
                     default:
                         System.out.println("Invalid choice. Please try again.");
                 }
@@ -108,20 +183,28 @@ public class LibraryController {
 
     private void listAllBooks() {
         System.out.println("\n--- All Books ---");
-        List<Book> books = bookService.getAllBooks();
-        printBooks(books);
+        long count = 0;
+        try (Stream<Book> books = bookService.streamAllBooks()) {
+            for (Book b : (Iterable<Book>) books::iterator) {
+                printBook(b);
+                count++;
+            }
+        }
+        if (count == 0) {
+            System.out.println("No books found.");
+        } else {
+            System.out.println("Total: " + count + " books");
+        }
     }
 
     private void listBooksSortedByTitle() {
-        System.out.println("\n--- Books Sorted by Title (Lambda Demo) ---");
-        List<Book> books = bookService.getBooksSortedByTitle();
-        printBooks(books);
+        System.out.println("\n--- Books Sorted by Title ---");
+        browsePages(bookService::getBooksPageByTitle, this::printBook, "books");
     }
 
     private void listBooksSortedByYear() {
-        System.out.println("\n--- Books Sorted by Year (Lambda Demo) ---");
-        List<Book> books = bookService.getBooksSortedByYear();
-        printBooks(books);
+        System.out.println("\n--- Books Sorted by Year ---");
+        browsePages(bookService::getBooksPageByYear, this::printBook, "books");
     }
 
     private void searchBooks() {
@@ -132,11 +215,94 @@ public class LibraryController {
         List<Book> books = bookService.searchByTitle(keyword);
         if (books.isEmpty()) {
             System.out.println("No books found matching: " + keyword);
+            suggestSimilarTitles(keyword);
         } else {
             printBooks(books);
         }
     }
 
+    private void searchFullText() {
+        System.out.println("Words are AND-ed, \"quoted words\" match a phrase, word* matches a prefix.");
+        System.out.print("Enter search query: ");
+        String query = scanner.nextLine().trim();
+
+        System.out.println("\n--- Full-Text Results (best match first) ---");
+        try {
+            int page = 0;
+            int shown = 0;
+            while (true) {
+                Page<Book> results = bookService.searchFullText(query, page, pageSize);
+                if (results.isEmpty() && page == 0) {
+                    System.out.println("No books found matching: " + query);
+                    return;
+                }
+
+                results.getItems().forEach(this::printBook);
+                shown += results.getItems().size();
+                if (!results.hasNext()) {
+                    System.out.println("Total: " + shown + " books");
+                    return;
+                }
+
+                System.out.print("-- Shown " + shown + " books. Press Enter for the next page, 'q' to stop: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    return;
+                }
+                page++;
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+        }
+    }
+
+    private void suggestSimilarTitles(String keyword) {
+        List<Book> similar = bookService.fuzzySearchByTitle(keyword);
+        List<Author> similarAuthors = authorService.fuzzySearchByName(keyword);
+        if (similar.isEmpty() && similarAuthors.isEmpty()) {
+            return;
+        }
+
+        System.out.println("Did you mean:");
+        similar.forEach(this::printBook);
+        for (Author a : similarAuthors) {
+            System.out.println("  Author: " + a.getName() + " (ID " + a.getId() + ")");
+        }
+    }
+
+    private void autocomplete() {
+        System.out.print("Start typing a title or author name: ");
+        String prefix = scanner.nextLine().trim();
+
+        long start = System.nanoTime();
+        List<String> titles = bookService.autocompleteTitles(prefix);
+        List<String> names = authorService.autocompleteNames(prefix);
+        long micros = (System.nanoTime() - start) / 1000;
+
+        System.out.println("\n--- Suggestions (" + micros + "µs) ---");
+        System.out.println("Titles:");
+        titles.forEach(t -> System.out.println("  " + t));
+        System.out.println("Authors:");
+        names.forEach(n -> System.out.println("  " + n));
+        if (titles.isEmpty() && names.isEmpty()) {
+            System.out.println("No suggestions for: " + prefix);
+        }
+    }
+
+    private void searchAuthors() {
+        System.out.print("Enter part of the author's name: ");
+        String keyword = scanner.nextLine().trim();
+
+        System.out.println("\n--- Matching Authors ---");
+        List<Author> authors = authorService.searchByName(keyword);
+        if (authors.isEmpty()) {
+            System.out.println("No authors found matching: " + keyword);
+        }
+        for (Author a : authors) {
+            System.out.printf("ID: %d | %s (%d) - %s%n",
+                    a.getId(), a.getName(), a.getBirthYear(), a.getNationality());
+        }
+    }
+
     private void getBookById() {
         System.out.print("Enter book ID: ");
         try {
@@ -146,6 +312,9 @@ public class LibraryController {
             book.displayInfo();
             System.out.println("Type: " + book.getClass().getSimpleName());
             System.out.println("Access: " + book.getAccessInstructions());
+            if (checkoutService != null) {
+                System.out.println("Status: " + (checkoutService.isAvailable(id) ? "Available" : "Borrowed"));
+            }
         } catch (NumberFormatException e) {
             System.out.println("Invalid ID format.");
         } catch (ResourceNotFoundException e) {
@@ -254,19 +423,216 @@ public class LibraryController {
         }
     }
 
-    private void listAllAuthors() {
-        System.out.println("\n--- All Authors ---");
-        List<Author> authors = authorService.getAllAuthors();
-        if (authors.isEmpty()) {
-            System.out.println("No authors found.");
-        } else {
-            for (Author a : authors) {
-                System.out.printf("ID: %d | %s (%d) - %s%n",
-                        a.getId(), a.getName(), a.getBirthYear(), a.getNationality());
+    private void borrowBook() {
+        try {
+            System.out.print("Enter book ID to borrow: ");
+            int id = Integer.parseInt(scanner.nextLine().trim());
+            System.out.print("Enter patron name: ");
+            String patron = scanner.nextLine().trim();
+
+            Loan loan = checkoutService.borrowBook(id, patron);
+            System.out.println("Book borrowed! Due back on " + loan.getDueAt().toLocalDate()
+                    + " (" + checkoutService.getLoanDays() + " days).");
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid ID format.");
+        } catch (BookUnavailableException e) {
+            System.out.println("Error: " + e.getMessage());
+            System.out.println("Use option 21 to join the hold queue.");
+        } catch (ResourceNotFoundException | InvalidInputException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.out.println("Error: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+        }
+    }
+
+    private void returnBook() {
+        try {
+            System.out.print("Enter book ID to return: ");
+            int id = Integer.parseInt(scanner.nextLine().trim());
+
+            ReturnResult result = checkoutService.returnBook(id);
+            Loan loan = result.getReturnedLoan();
+            System.out.println("Book returned by " + loan.getPatron() + ".");
+            if (loan.isOverdue(loan.getReturnedAt())) {
+                System.out.println("It was overdue (due " + loan.getDueAt().toLocalDate() + ").");
+            }
+            if (result.isHandedOff()) {
+                System.out.println("Handed to " + result.getHandOffLoan().getPatron() + " from the hold queue, due "
+                        + result.getHandOffLoan().getDueAt().toLocalDate() + ".");
             }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid ID format.");
+        } catch (ResourceNotFoundException | InvalidInputException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.out.println("Error: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
         }
     }
 
+    private void placeHold() {
+        try {
+            System.out.print("Enter book ID to reserve: ");
+            int id = Integer.parseInt(scanner.nextLine().trim());
+            System.out.print("Enter patron name: ");
+            String patron = scanner.nextLine().trim();
+
+            Hold hold = reservationService.placeHold(id, patron);
+            System.out.println("Hold placed (hold ID " + hold.getId() + "). Position in queue: "
+                    + reservationService.getQueuePosition(id, hold.getPatron()));
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid ID format.");
+        } catch (ResourceNotFoundException | InvalidInputException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.out.println("Error: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+        }
+    }
+
+    private void cancelHold() {
+        try {
+            System.out.print("Enter patron name: ");
+            String patron = scanner.nextLine().trim();
+            List<Hold> holds = reservationService.getHoldsByPatron(patron);
+            if (holds.isEmpty()) {
+                System.out.println("No open holds for: " + patron);
+                return;
+            }
+            for (Hold hold : holds) {
+                System.out.printf("Hold ID: %d | book %d | placed %s%n",
+                        hold.getId(), hold.getBookId(), hold.getPlacedAt().toLocalDate());
+            }
+
+            System.out.print("Enter hold ID to cancel: ");
+            int holdId = Integer.parseInt(scanner.nextLine().trim());
+            reservationService.cancelHold(holdId, patron);
+            System.out.println("Hold cancelled.");
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid ID format.");
+        } catch (ResourceNotFoundException | InvalidInputException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.out.println("Error: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+        }
+    }
+
+    private void showHoldQueue() {
+        System.out.print("Enter book ID: ");
+        try {
+            int id = Integer.parseInt(scanner.nextLine().trim());
+            List<Hold> queue = reservationService.getQueue(id);
+            System.out.println("\n--- Hold Queue (" + reservationService.getQueueDepth(id) + " waiting) ---");
+            int position = 0;
+            for (Hold hold : queue) {
+                System.out.printf("%d. %s (since %s)%n",
+                        ++position, hold.getPatron(), hold.getPlacedAt().toLocalDate());
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid ID format.");
+        }
+    }
+
+    private void listLoans() {
+        try {
+            System.out.print("Enter patron name: ");
+            String patron = scanner.nextLine().trim();
+
+            System.out.println("\n--- Open Loans ---");
+            List<Loan> loans = checkoutService.getLoansByPatron(patron);
+            if (loans.isEmpty()) {
+                System.out.println("No open loans for: " + patron);
+            }
+            for (Loan loan : loans) {
+                System.out.printf("Book ID: %d | borrowed %s | due %s%n",
+                        loan.getBookId(), loan.getBorrowedAt().toLocalDate(), loan.getDueAt().toLocalDate());
+            }
+        } catch (InvalidInputException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.out.println("Error: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+        }
+    }
+
+    private void filterBooks() {
+        try {
+            System.out.print("From year (blank for any): ");
+            Integer fromYear = optionalInt(scanner.nextLine());
+            System.out.print("To year (blank for any): ");
+            Integer toYear = optionalInt(scanner.nextLine());
+            System.out.print("Type EBOOK/PRINTED (blank for any): ");
+            String type = scanner.nextLine().trim().toUpperCase();
+            System.out.print("Author nationality (blank for any): ");
+            String nationality = scanner.nextLine().trim();
+
+            CatalogFilter filter = new CatalogFilter(fromYear, toYear, type.isEmpty() ? null : type,
+                    nationality.isEmpty() ? null : nationality);
+            System.out.println("\n--- Books matching " + filter + " ---");
+            long count = bookService.countBooks(filter);
+            if (count == 0) {
+                System.out.println("No books found.");
+                return;
+            }
+            printBooks(bookService.filterBooks(filter, pageSize));
+            System.out.println("Total: " + count + " books"
+                    + (count > pageSize ? " (first " + pageSize + " shown)" : ""));
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid year format.");
+        } catch (InvalidInputException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private void showFacets() {
+        try {
+            printFacet("By type", facetService.getTypeCounts());
+            printFacet("By decade", facetService.getDecadeCounts());
+            printFacet("Top authors", facetService.getAuthorCounts(10));
+            printFacet("By author nationality", facetService.getNationalityCounts());
+        } catch (RuntimeException e) {
+            System.out.println("Error: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+        }
+    }
+
+    private void showStats() {
+        System.out.println("\n--- Operation Stats (since startup) ---");
+        if (!Metrics.isEnabled()) {
+            System.out.println("Metrics are disabled (metrics.enabled=false).");
+            return;
+        }
+        System.out.print(Metrics.formatTable());
+    }
+
+    private static void printFacet(String title, Map<String, Long> counts) {
+        System.out.println("\n--- " + title + " ---");
+        counts.forEach((value, count) -> System.out.printf("%-30s %d%n", value, count));
+    }
+
+    private static Integer optionalInt(String input) {
+        String trimmed = input.trim();
+        return trimmed.isEmpty() ? null : Integer.parseInt(trimmed);
+    }
+
+    private void listAvailableByAuthor() {
+        System.out.print("Enter author ID: ");
+        try {
+            int authorId = Integer.parseInt(scanner.nextLine().trim());
+            System.out.println("\n--- Available Books ---");
+            List<Book> books = checkoutService.getAvailableBooksByAuthor(authorId);
+            if (books.isEmpty()) {
+                System.out.println("No available books by author " + authorId);
+            } else {
+                printBooks(books);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid ID format.");
+        }
+    }
+
+    private void listAllAuthors() {
+        System.out.println("\n--- All Authors ---");
+        browsePages(authorService::getAuthorsPage, a -> System.out.printf("ID: %d | %s (%d) - %s%n",
+                a.getId(), a.getName(), a.getBirthYear(), a.getNationality()), "authors");
+    }
+
     private void addAuthor() {
         try {
             System.out.println("\n--- Add New Author ---");
@@ -354,6 +720,32 @@ public class LibraryController {
         }
     }
 
+    private <T> void browsePages(BiFunction<T, Integer, Page<T>> fetchPage, Consumer<T> printer, String label) {
+        T after = null;
+        int shown = 0;
+
+        while (true) {
+            Page<T> page = fetchPage.apply(after, pageSize);
+            if (page.isEmpty() && after == null) {
+                System.out.println("No " + label + " found.");
+                return;
+            }
+
+            page.getItems().forEach(printer);
+            shown += page.getItems().size();
+            if (!page.hasNext()) {
+                System.out.println("Total: " + shown + " " + label);
+                return;
+            }
+
+            System.out.print("-- Shown " + shown + " " + label + ". Press Enter for the next page, 'q' to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
+            }
+            after = page.getLast();
+        }
+    }
+
     private void printBooks(List<Book> books) {
         if (books.isEmpty()) {
             System.out.println("No books found.");
@@ -361,13 +753,17 @@ public class LibraryController {
         }
 
         for (Book b : books) {
-            System.out.printf("ID: %d | %s (%d) by %s [%s]%n",
-                    b.getId(),
-                    b.getTitle(),
-                    b.getYear(),
-                    b.getAuthor() != null ? b.getAuthor().getName() : "Unknown",
-                    b.getClass().getSimpleName());
+            printBook(b);
         }
         System.out.println("Total: " + books.size() + " books");
     }
+
+    private void printBook(Book b) {
+        System.out.printf("ID: %d | %s (%d) by %s [%s]%n",
+                b.getId(),
+                b.getTitle(),
+                b.getYear(),
+                b.getAuthor() != null ? b.getAuthor().getName() : "Unknown",
+                b.getClass().getSimpleName());
+    }
 }
@@ -0,0 +1,7 @@
+package exception;
+
+public class BookUnavailableException extends InvalidInputException {
+    public BookUnavailableException(String message) {
+        super(message);
+    }
+}
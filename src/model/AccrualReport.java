@@ -0,0 +1,53 @@
+package model;
+
+import java.time.LocalDate;
+
+public class AccrualReport {
+    private final LocalDate asOf;
+    private int chunks;
+    private long rowsTouched;
+    private long elapsedMillis;
+
+    public AccrualReport(LocalDate asOf) {
+        this.asOf = asOf;
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void addChunk(int rowsTouched) {
+        this.chunks++;
+        this.rowsTouched += rowsTouched;
+    }
+
+    public long getRowsTouched() {
+        return rowsTouched;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public void printSummary() {
+        System.out.println("\n--- Late Fee Accrual ---");
+        System.out.println("As of: " + asOf);
+        System.out.println("Chunks: " + chunks);
+        System.out.println("Ledger rows touched: " + rowsTouched);
+        System.out.printf("Elapsed: %dms%n", elapsedMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "Late fees accrued as of " + asOf + ": " + rowsTouched + " ledger rows touched in " + chunks
+                + " chunks, " + elapsedMillis + "ms";
+    }
+}
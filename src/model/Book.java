@@ -9,6 +9,7 @@ public abstract class Book {
     private Author author;
     private String isbn;
     protected String bookType;
+    private int version;
 
     public Book(int id, String title, Author author, int year, String isbn) {
         this.id = id;
@@ -42,6 +43,10 @@ public abstract class Book {
         return bookType;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
     public void setId(int id) {
         if (id > 0) {
             this.id = id;
@@ -80,6 +85,10 @@ public abstract class Book {
         this.isbn = isbn;
     }
 
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public abstract double calculateLateFee(int days);
 
     public abstract String getAccessInstructions();
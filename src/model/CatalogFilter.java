@@ -0,0 +1,57 @@
+package model;
+
+/**
+ * Criteria for catalog filtering: an inclusive publish year range, a book type
+ * ({@code EBOOK} or {@code PRINTED}) and an author nationality. A {@code null}
+ * criterion matches everything.
+ */
+public class CatalogFilter {
+    private final Integer fromYear;
+    private final Integer toYear;
+    private final String bookType;
+    private final String nationality;
+
+    public CatalogFilter(Integer fromYear, Integer toYear, String bookType, String nationality) {
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.bookType = bookType;
+        this.nationality = nationality;
+    }
+
+    public Integer getFromYear() {
+        return fromYear;
+    }
+
+    public Integer getToYear() {
+        return toYear;
+    }
+
+    public String getBookType() {
+        return bookType;
+    }
+
+    public String getNationality() {
+        return nationality;
+    }
+
+    public boolean matches(Book book) {
+        if (fromYear != null && book.getYear() < fromYear) {
+            return false;
+        }
+        if (toYear != null && book.getYear() > toYear) {
+            return false;
+        }
+        if (bookType != null && !bookType.equals(book.getBookType())) {
+            return false;
+        }
+        return nationality == null
+                || (book.getAuthor() != null && nationality.equals(book.getAuthor().getNationality()));
+    }
+
+    @Override
+    public String toString() {
+        return "years " + (fromYear != null ? fromYear : "*") + "-" + (toYear != null ? toYear : "*")
+                + ", type " + (bookType != null ? bookType : "*")
+                + ", nationality " + (nationality != null ? nationality : "*");
+    }
+}
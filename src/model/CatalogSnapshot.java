@@ -0,0 +1,31 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Every author and book as of one catalog watermark (see {@code catalog_watermark}
+ * in schema.sql), used to start warm from a snapshot file.
+ */
+public class CatalogSnapshot {
+    private final long watermark;
+    private final List<Author> authors;
+    private final List<Book> books;
+
+    public CatalogSnapshot(long watermark, List<Author> authors, List<Book> books) {
+        this.watermark = watermark;
+        this.authors = authors;
+        this.books = books;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public List<Author> getAuthors() {
+        return authors;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+}
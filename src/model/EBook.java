@@ -1,10 +1,12 @@
 package model;
 
 public class EBook extends Book implements DigitalAccess, Borrowable, Validatable<EBook> {
+    public static final double DEFAULT_LATE_FEE = 0.25;
+
     private boolean available = true;
     private double fileSize;
     private String downloadUrl;
-    private double lateFee = 0.25;
+    private double lateFee = DEFAULT_LATE_FEE;
 
     public EBook(int id, String title, Author author, int year, String isbn, double fileSize, String downloadUrl) {
         super(id, title, author, year, isbn);
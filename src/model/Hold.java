@@ -0,0 +1,38 @@
+package model;
+
+import java.time.LocalDateTime;
+
+public class Hold {
+    private final int id;
+    private final int bookId;
+    private final String patron;
+    private final LocalDateTime placedAt;
+
+    public Hold(int id, int bookId, String patron, LocalDateTime placedAt) {
+        this.id = id;
+        this.bookId = bookId;
+        this.patron = patron;
+        this.placedAt = placedAt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public String getPatron() {
+        return patron;
+    }
+
+    public LocalDateTime getPlacedAt() {
+        return placedAt;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Hold[id=%d, book=%d, patron=%s, placed=%s]", id, bookId, patron, placedAt);
+    }
+}
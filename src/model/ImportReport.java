@@ -0,0 +1,102 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ImportReport {
+    private final List<RejectedRow> rejectedRows = new ArrayList<>();
+    private long rowsRead;
+    private long rowsStaged;
+    private long authorsInserted;
+    private long booksInserted;
+    private long elapsedMillis;
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void reject(int lineNumber, String reason) {
+        rejectedRows.add(new RejectedRow(lineNumber, reason));
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsStaged() {
+        return rowsStaged;
+    }
+
+    public void setRowsStaged(long rowsStaged) {
+        this.rowsStaged = rowsStaged;
+    }
+
+    public long getAuthorsInserted() {
+        return authorsInserted;
+    }
+
+    public void setAuthorsInserted(long authorsInserted) {
+        this.authorsInserted = authorsInserted;
+    }
+
+    public long getBooksInserted() {
+        return booksInserted;
+    }
+
+    public void setBooksInserted(long booksInserted) {
+        this.booksInserted = booksInserted;
+    }
+
+    public long getBooksSkipped() {
+        return rowsStaged - booksInserted;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000.0 / elapsedMillis;
+    }
+
+    public List<RejectedRow> getRejectedRows() {
+        return Collections.unmodifiableList(rejectedRows);
+    }
+
+    public void printSummary() {
+        System.out.println("\n--- Import Summary ---");
+        System.out.println("Rows read: " + rowsRead);
+        System.out.println("Rows staged: " + rowsStaged);
+        System.out.println("Authors inserted: " + authorsInserted);
+        System.out.println("Books inserted: " + booksInserted);
+        System.out.println("Books skipped (ISBN already in catalog): " + getBooksSkipped());
+        System.out.println("Rows rejected: " + rejectedRows.size());
+        System.out.printf("Elapsed: %dms (%.0f rows/second)%n", elapsedMillis, getRowsPerSecond());
+        for (RejectedRow row : rejectedRows) {
+            System.out.println("  line " + row.getLineNumber() + ": " + row.getReason());
+        }
+    }
+
+    public static class RejectedRow {
+        private final int lineNumber;
+        private final String reason;
+
+        public RejectedRow(int lineNumber, String reason) {
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
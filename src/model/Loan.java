@@ -0,0 +1,75 @@
+package model;
+
+import java.time.LocalDateTime;
+
+public class Loan {
+    private final int id;
+    private final int bookId;
+    private final String patron;
+    private final LocalDateTime borrowedAt;
+    private final LocalDateTime dueAt;
+    private final LocalDateTime returnedAt;
+    private final int bookVersion;
+
+    public Loan(int id, int bookId, String patron, LocalDateTime borrowedAt, LocalDateTime dueAt,
+            LocalDateTime returnedAt) {
+        this(id, bookId, patron, borrowedAt, dueAt, returnedAt, 0);
+    }
+
+    public Loan(int id, int bookId, String patron, LocalDateTime borrowedAt, LocalDateTime dueAt,
+            LocalDateTime returnedAt, int bookVersion) {
+        this.id = id;
+        this.bookId = bookId;
+        this.patron = patron;
+        this.borrowedAt = borrowedAt;
+        this.dueAt = dueAt;
+        this.returnedAt = returnedAt;
+        this.bookVersion = bookVersion;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public String getPatron() {
+        return patron;
+    }
+
+    public LocalDateTime getBorrowedAt() {
+        return borrowedAt;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public LocalDateTime getReturnedAt() {
+        return returnedAt;
+    }
+
+    /**
+     * The book's {@code version} as written by the checkout that opened this loan,
+     * or 0 for a loan read back later.
+     */
+    public int getBookVersion() {
+        return bookVersion;
+    }
+
+    public boolean isOpen() {
+        return returnedAt == null;
+    }
+
+    public boolean isOverdue(LocalDateTime now) {
+        return (returnedAt != null ? returnedAt : now).isAfter(dueAt);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Loan[id=%d, book=%d, patron=%s, due=%s%s]", id, bookId, patron, dueAt,
+                returnedAt != null ? ", returned=" + returnedAt : "");
+    }
+}
@@ -0,0 +1,41 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. The next page is requested with the
+ * last item of this one.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final boolean hasNext;
+
+    public Page(List<T> items, boolean hasNext) {
+        this.items = Collections.unmodifiableList(items);
+        this.hasNext = hasNext;
+    }
+
+    public static <T> Page<T> of(List<T> fetched, int pageSize) {
+        if (fetched.size() > pageSize) {
+            return new Page<>(fetched.subList(0, pageSize), true);
+        }
+        return new Page<>(fetched, false);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    public T getLast() {
+        return items.isEmpty() ? null : items.get(items.size() - 1);
+    }
+}
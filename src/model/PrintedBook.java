@@ -1,10 +1,12 @@
 package model;
 
 public class PrintedBook extends Book implements Borrowable, Validatable<PrintedBook> {
+    public static final double DEFAULT_LATE_FEE = 0.5;
+
     private boolean available = true;
     private String shelfLocation;
     private double weight;
-    private double lateFee = 0.5;
+    private double lateFee = DEFAULT_LATE_FEE;
 
     public PrintedBook(int id, String title, Author author, int year, String isbn, String shelfLocation,
             double weight) {
@@ -0,0 +1,40 @@
+package model;
+
+/**
+ * Outcome of returning a book: the loan that was closed and, if patrons were
+ * waiting, the loan that handed the copy to the first of them. The book's
+ * {@code version} after the return orders it against other borrows and returns.
+ */
+public class ReturnResult {
+    private final Loan returnedLoan;
+    private final Hold fulfilledHold;
+    private final Loan handOffLoan;
+    private final int bookVersion;
+
+    public ReturnResult(Loan returnedLoan, Hold fulfilledHold, Loan handOffLoan, int bookVersion) {
+        this.returnedLoan = returnedLoan;
+        this.fulfilledHold = fulfilledHold;
+        this.handOffLoan = handOffLoan;
+        this.bookVersion = bookVersion;
+    }
+
+    public Loan getReturnedLoan() {
+        return returnedLoan;
+    }
+
+    public Hold getFulfilledHold() {
+        return fulfilledHold;
+    }
+
+    public Loan getHandOffLoan() {
+        return handOffLoan;
+    }
+
+    public int getBookVersion() {
+        return bookVersion;
+    }
+
+    public boolean isHandedOff() {
+        return handOffLoan != null;
+    }
+}
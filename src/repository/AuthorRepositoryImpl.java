@@ -7,10 +7,15 @@ import exception.DatabaseOperationException;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class AuthorRepositoryImpl implements AuthorRepository {
 
+    private static final int BATCH_SIZE = 1000;
+
     @Override
     public void save(Author author) {
         String sql = "INSERT INTO authors(name, birthyear, nationality) VALUES(?, ?, ?)";
@@ -32,6 +37,44 @@ public class AuthorRepositoryImpl implements AuthorRepository {
         }
     }
 
+    @Override
+    public void saveAll(List<Author> authors) {
+        String sql = "INSERT INTO authors(name, birthyear, nationality) VALUES(?, ?, ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql, new String[] { "id" })) {
+                int start = 0;
+                for (int i = 0; i < authors.size(); i++) {
+                    Author author = authors.get(i);
+                    ps.setString(1, author.getName());
+                    ps.setInt(2, author.getBirthYear());
+                    ps.setString(3, author.getNationality());
+                    ps.addBatch();
+
+                    if (i + 1 - start == BATCH_SIZE || i == authors.size() - 1) {
+                        ps.executeBatch();
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            for (Author saved : authors.subList(start, i + 1)) {
+                                if (!keys.next()) {
+                                    throw new SQLException("Missing generated key for author '" + saved.getName() + "'");
+                                }
+                                saved.setId(keys.getInt(1));
+                            }
+                        }
+                        start = i + 1;
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to save authors", e));
+        }
+    }
+
     @Override
     public Author findById(Integer id) {
         String sql = "SELECT * FROM authors WHERE id = ?";
@@ -86,6 +129,35 @@ public class AuthorRepositoryImpl implements AuthorRepository {
         }
     }
 
+    @Override
+    public void updateAll(List<Author> authors) {
+        String sql = "UPDATE authors SET name = ?, birthyear = ?, nationality = ? WHERE id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = 0; i < authors.size(); i++) {
+                    Author author = authors.get(i);
+                    ps.setString(1, author.getName());
+                    ps.setInt(2, author.getBirthYear());
+                    ps.setString(3, author.getNationality());
+                    ps.setInt(4, author.getId());
+                    ps.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        ps.executeBatch();
+                    }
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to update authors", e));
+        }
+    }
+
     @Override
     public void deleteById(Integer id) {
         String sql = "DELETE FROM authors WHERE id = ?";
@@ -104,6 +176,24 @@ public class AuthorRepositoryImpl implements AuthorRepository {
         }
     }
 
+    @Override
+    public void deleteAllById(List<Integer> ids) {
+        String sql = "DELETE FROM authors WHERE id = ANY(?)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setArray(1, conn.createArrayOf("integer", ids.toArray()));
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            if (e.getMessage().contains("foreign key") || e.getMessage().contains("violates")) {
+                throw new RuntimeException(new DatabaseOperationException(
+                        "Cannot delete authors: books reference these authors", e));
+            }
+            throw new RuntimeException(new DatabaseOperationException("Failed to delete authors", e));
+        }
+    }
+
     @Override
     public boolean existsById(Integer id) {
         String sql = "SELECT COUNT(*) FROM authors WHERE id = ?";
@@ -141,6 +231,25 @@ public class AuthorRepositoryImpl implements AuthorRepository {
         }
     }
 
+    @Override
+    public Set<String> findExistingNames(Collection<String> names) {
+        String sql = "SELECT name FROM authors WHERE name = ANY(?)";
+        Set<String> existing = new HashSet<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setArray(1, conn.createArrayOf("varchar", names.toArray()));
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                existing.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to check existing author names", e));
+        }
+        return existing;
+    }
+
     @Override
     public List<Author> findByNationality(String nationality) {
         String sql = "SELECT * FROM authors WHERE nationality = ?";
@@ -161,6 +270,54 @@ public class AuthorRepositoryImpl implements AuthorRepository {
         return authors;
     }
 
+    @Override
+    public List<Author> findAllSortedByName(int limit) {
+        String sql = "SELECT * FROM authors ORDER BY lower(name), id" + (limit > 0 ? " LIMIT ?" : "");
+        List<Author> authors = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            if (limit > 0) {
+                ps.setInt(1, limit);
+            }
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                authors.add(mapResultSetToAuthor(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to retrieve authors by name", e));
+        }
+        return authors;
+    }
+
+    @Override
+    public List<Author> findPageByName(String afterName, int afterId, int limit) {
+        if (afterName == null) {
+            return findAllSortedByName(limit);
+        }
+
+        String sql = "SELECT * FROM authors WHERE (lower(name), id) > (lower(?), ?) ORDER BY lower(name), id LIMIT ?";
+        List<Author> authors = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, afterName);
+            ps.setInt(2, afterId);
+            ps.setInt(3, limit);
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                authors.add(mapResultSetToAuthor(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to retrieve author page", e));
+        }
+        return authors;
+    }
+
     private Author mapResultSetToAuthor(ResultSet rs) throws SQLException {
         int id = rs.getInt("id");
         String name = rs.getString("name");
@@ -1,24 +1,64 @@
 package repository;
 
-import model.Author;
 import model.Book;
 import model.EBook;
 import model.PrintedBook;
 import repository.interfaces.BookRepository;
-import repository.interfaces.AuthorRepository;
+import utils.AppConfig;
 import utils.DatabaseConnection;
 import exception.DatabaseOperationException;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class BookRepositoryImpl implements BookRepository {
 
-    private final AuthorRepository authorRepository;
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_EBOOK = "INSERT INTO books(title, isbn, author_id, publish_year, book_type, "
+            + "download_url, file_size, available) VALUES(?, ?, ?, ?, 'EBOOK', ?, ?, ?)";
+    private static final String INSERT_PRINTED_BOOK = "INSERT INTO books(title, isbn, author_id, publish_year, "
+            + "book_type, shelf_location, weight, available) VALUES(?, ?, ?, ?, 'PRINTED', ?, ?, ?)";
+    // availability is owned by the loan repository, so catalog edits never overwrite a checkout
+    private static final String UPDATE_EBOOK = "UPDATE books SET title = ?, isbn = ?, author_id = ?, "
+            + "publish_year = ?, download_url = ?, file_size = ? WHERE id = ?";
+    private static final String UPDATE_PRINTED_BOOK = "UPDATE books SET title = ?, isbn = ?, author_id = ?, "
+            + "publish_year = ?, shelf_location = ?, weight = ? WHERE id = ?";
+
+    // Both orderings are served by the (lower(title), id) and (publish_year, id) indexes
+    private static final String ORDER_BY_TITLE = " ORDER BY lower(b.title), b.id";
+    private static final String ORDER_BY_YEAR = " ORDER BY b.publish_year, b.id";
+    private static final String PAGE_BY_TITLE = BookRowMapper.SELECT_BOOKS
+            + " WHERE (lower(b.title), b.id) > (lower(?), ?)" + ORDER_BY_TITLE + " LIMIT ?";
+    private static final String PAGE_BY_YEAR = BookRowMapper.SELECT_BOOKS
+            + " WHERE (b.publish_year, b.id) > (?, ?)" + ORDER_BY_YEAR + " LIMIT ?";
+
+    private static final String SEARCH_FULL_TEXT = BookRowMapper.SELECT_BOOKS
+            + ", to_tsquery('english', ?) query WHERE b.search_vector @@ query"
+            + " ORDER BY ts_rank(b.search_vector, query) DESC, b.id";
+
+    private final int fetchSize;
+
+    public BookRepositoryImpl() {
+        this(AppConfig.getInt("db.fetchSize", 500));
+    }
 
-    public BookRepositoryImpl(AuthorRepository authorRepository) {
-        this.authorRepository = authorRepository;
+    public BookRepositoryImpl(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be positive");
+        }
+        this.fetchSize = fetchSize;
     }
 
     @Override
@@ -31,19 +71,10 @@ public class BookRepositoryImpl implements BookRepository {
     }
 
     private void saveEBook(EBook book) {
-        String sql = "INSERT INTO books(title, isbn, author_id, publish_year, book_type, download_url, file_size, available) "
-                +
-                "VALUES(?, ?, ?, ?, 'EBOOK', ?, ?, ?)";
-
         try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setString(1, book.getTitle());
-            ps.setString(2, book.getIsbn());
-            ps.setInt(3, book.getAuthor().getId());
-            ps.setInt(4, book.getYear());
-            ps.setString(5, book.getDownloadURL());
-            ps.setDouble(6, book.getFileSize());
+                PreparedStatement ps = conn.prepareStatement(INSERT_EBOOK, new String[] { "id" })) {
+
+            bindEBook(ps, book);
             ps.setBoolean(7, book.isAvailable());
             ps.executeUpdate();
 
@@ -57,19 +88,10 @@ public class BookRepositoryImpl implements BookRepository {
     }
 
     private void savePrintedBook(PrintedBook book) {
-        String sql = "INSERT INTO books(title, isbn, author_id, publish_year, book_type, shelf_location, weight, available) "
-                +
-                "VALUES(?, ?, ?, ?, 'PRINTED', ?, ?, ?)";
-
         try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setString(1, book.getTitle());
-            ps.setString(2, book.getIsbn());
-            ps.setInt(3, book.getAuthor().getId());
-            ps.setInt(4, book.getYear());
-            ps.setString(5, book.getShelfLocation());
-            ps.setDouble(6, book.getWeight());
+                PreparedStatement ps = conn.prepareStatement(INSERT_PRINTED_BOOK, new String[] { "id" })) {
+
+            bindPrintedBook(ps, book);
             ps.setBoolean(7, book.isAvailable());
             ps.executeUpdate();
 
@@ -82,9 +104,101 @@ public class BookRepositoryImpl implements BookRepository {
         }
     }
 
+    @Override
+    public void saveAll(List<Book> books) {
+        List<EBook> ebooks = new ArrayList<>();
+        List<PrintedBook> printedBooks = new ArrayList<>();
+        splitByType(books, ebooks, printedBooks);
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                saveEBooks(conn, ebooks);
+                savePrintedBooks(conn, printedBooks);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to save books", e));
+        }
+    }
+
+    private void saveEBooks(Connection conn, List<EBook> ebooks) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_EBOOK, new String[] { "id" })) {
+            int start = 0;
+            for (int i = 0; i < ebooks.size(); i++) {
+                bindEBook(ps, ebooks.get(i));
+                ps.setBoolean(7, ebooks.get(i).isAvailable());
+                ps.addBatch();
+                if (i + 1 - start == BATCH_SIZE || i == ebooks.size() - 1) {
+                    ps.executeBatch();
+                    assignGeneratedKeys(ps, ebooks.subList(start, i + 1));
+                    start = i + 1;
+                }
+            }
+        }
+    }
+
+    private void savePrintedBooks(Connection conn, List<PrintedBook> printedBooks) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_PRINTED_BOOK, new String[] { "id" })) {
+            int start = 0;
+            for (int i = 0; i < printedBooks.size(); i++) {
+                bindPrintedBook(ps, printedBooks.get(i));
+                ps.setBoolean(7, printedBooks.get(i).isAvailable());
+                ps.addBatch();
+                if (i + 1 - start == BATCH_SIZE || i == printedBooks.size() - 1) {
+                    ps.executeBatch();
+                    assignGeneratedKeys(ps, printedBooks.subList(start, i + 1));
+                    start = i + 1;
+                }
+            }
+        }
+    }
+
+    private void assignGeneratedKeys(PreparedStatement ps, List<? extends Book> batch) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            for (Book book : batch) {
+                if (!keys.next()) {
+                    throw new SQLException("Missing generated key for book '" + book.getTitle() + "'");
+                }
+                book.setId(keys.getInt(1));
+            }
+        }
+    }
+
+    private void bindEBook(PreparedStatement ps, EBook book) throws SQLException {
+        ps.setString(1, book.getTitle());
+        ps.setString(2, book.getIsbn());
+        ps.setInt(3, book.getAuthor().getId());
+        ps.setInt(4, book.getYear());
+        ps.setString(5, book.getDownloadURL());
+        ps.setDouble(6, book.getFileSize());
+    }
+
+    private void bindPrintedBook(PreparedStatement ps, PrintedBook book) throws SQLException {
+        ps.setString(1, book.getTitle());
+        ps.setString(2, book.getIsbn());
+        ps.setInt(3, book.getAuthor().getId());
+        ps.setInt(4, book.getYear());
+        ps.setString(5, book.getShelfLocation());
+        ps.setDouble(6, book.getWeight());
+    }
+
+    private void splitByType(List<Book> books, List<EBook> ebooks, List<PrintedBook> printedBooks) {
+        for (Book book : books) {
+            if (book instanceof EBook) {
+                ebooks.add((EBook) book);
+            } else if (book instanceof PrintedBook) {
+                printedBooks.add((PrintedBook) book);
+            }
+        }
+    }
+
     @Override
     public Book findById(Integer id) {
-        String sql = "SELECT * FROM books WHERE id = ?";
+        String sql = BookRowMapper.SELECT_BOOKS + " WHERE b.id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -93,7 +207,7 @@ public class BookRepositoryImpl implements BookRepository {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return mapResultSetToBook(rs);
+                return new BookRowMapper().map(rs);
             }
             return null;
         } catch (SQLException e) {
@@ -101,17 +215,49 @@ public class BookRepositoryImpl implements BookRepository {
         }
     }
 
+    @Override
+    public List<Book> findAllById(List<Integer> ids) {
+        String sql = BookRowMapper.SELECT_BOOKS + " WHERE b.id = ANY(?)";
+        Map<Integer, Book> byId = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setArray(1, conn.createArrayOf("integer", ids.toArray()));
+            ResultSet rs = ps.executeQuery();
+            BookRowMapper mapper = new BookRowMapper();
+            while (rs.next()) {
+                Book book = mapper.map(rs);
+                if (book != null) {
+                    byId.put(book.getId(), book);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to find books by ID", e));
+        }
+
+        List<Book> books = new ArrayList<>(byId.size());
+        for (Integer id : ids) {
+            Book book = byId.get(id);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
     @Override
     public List<Book> findAll() {
-        String sql = "SELECT * FROM books";
+        String sql = BookRowMapper.SELECT_BOOKS;
         List<Book> books = new ArrayList<>();
 
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ResultSet rs = ps.executeQuery();
+            BookRowMapper mapper = new BookRowMapper();
             while (rs.next()) {
-                Book book = mapResultSetToBook(rs);
+                Book book = mapper.map(rs);
                 if (book != null) {
                     books.add(book);
                 }
@@ -122,6 +268,51 @@ public class BookRepositoryImpl implements BookRepository {
         return books;
     }
 
+    /**
+     * Streams every book through a server-side cursor, so only {@code fetchSize} rows
+     * are buffered at a time. The connection stays borrowed until the stream is
+     * closed; callers must use try-with-resources.
+     */
+    @Override
+    public Stream<Book> streamAll() {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            // pgjdbc only uses a cursor when autocommit is off and a fetch size is set
+            conn.setAutoCommit(false);
+            PreparedStatement ps = conn.prepareStatement(BookRowMapper.SELECT_BOOKS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ResultSet rs = ps.executeQuery();
+
+            Connection owned = conn;
+            return StreamSupport.stream(new CursorSpliterator(rs), false)
+                    .onClose(() -> closeCursor(rs, ps, owned));
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException ignored) {
+                    // already failing with the original exception
+                }
+            }
+            throw new RuntimeException(new DatabaseOperationException("Failed to stream books", e));
+        }
+    }
+
+    private void closeCursor(ResultSet rs, PreparedStatement ps, Connection conn) {
+        try {
+            try {
+                rs.close();
+                ps.close();
+            } finally {
+                conn.close();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to close book cursor", e));
+        }
+    }
+
     @Override
     public void update(Book book) {
         if (book instanceof EBook) {
@@ -132,20 +323,11 @@ public class BookRepositoryImpl implements BookRepository {
     }
 
     private void updateEBook(EBook book) {
-        String sql = "UPDATE books SET title = ?, isbn = ?, author_id = ?, publish_year = ?, " +
-                "download_url = ?, file_size = ?, available = ? WHERE id = ?";
-
         try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement ps = conn.prepareStatement(sql)) {
+                PreparedStatement ps = conn.prepareStatement(UPDATE_EBOOK)) {
 
-            ps.setString(1, book.getTitle());
-            ps.setString(2, book.getIsbn());
-            ps.setInt(3, book.getAuthor().getId());
-            ps.setInt(4, book.getYear());
-            ps.setString(5, book.getDownloadURL());
-            ps.setDouble(6, book.getFileSize());
-            ps.setBoolean(7, book.isAvailable());
-            ps.setInt(8, book.getId());
+            bindEBook(ps, book);
+            ps.setInt(7, book.getId());
             ps.executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException(new DatabaseOperationException("Failed to update EBook", e));
@@ -153,26 +335,56 @@ public class BookRepositoryImpl implements BookRepository {
     }
 
     private void updatePrintedBook(PrintedBook book) {
-        String sql = "UPDATE books SET title = ?, isbn = ?, author_id = ?, publish_year = ?, " +
-                "shelf_location = ?, weight = ?, available = ? WHERE id = ?";
-
         try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement ps = conn.prepareStatement(sql)) {
+                PreparedStatement ps = conn.prepareStatement(UPDATE_PRINTED_BOOK)) {
 
-            ps.setString(1, book.getTitle());
-            ps.setString(2, book.getIsbn());
-            ps.setInt(3, book.getAuthor().getId());
-            ps.setInt(4, book.getYear());
-            ps.setString(5, book.getShelfLocation());
-            ps.setDouble(6, book.getWeight());
-            ps.setBoolean(7, book.isAvailable());
-            ps.setInt(8, book.getId());
+            bindPrintedBook(ps, book);
+            ps.setInt(7, book.getId());
             ps.executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException(new DatabaseOperationException("Failed to update PrintedBook", e));
         }
     }
 
+    @Override
+    public void updateAll(List<Book> books) {
+        List<EBook> ebooks = new ArrayList<>();
+        List<PrintedBook> printedBooks = new ArrayList<>();
+        splitByType(books, ebooks, printedBooks);
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ebookPs = conn.prepareStatement(UPDATE_EBOOK);
+                    PreparedStatement printedPs = conn.prepareStatement(UPDATE_PRINTED_BOOK)) {
+                for (int i = 0; i < ebooks.size(); i++) {
+                    bindEBook(ebookPs, ebooks.get(i));
+                    ebookPs.setInt(7, ebooks.get(i).getId());
+                    ebookPs.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        ebookPs.executeBatch();
+                    }
+                }
+                ebookPs.executeBatch();
+
+                for (int i = 0; i < printedBooks.size(); i++) {
+                    bindPrintedBook(printedPs, printedBooks.get(i));
+                    printedPs.setInt(7, printedBooks.get(i).getId());
+                    printedPs.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        printedPs.executeBatch();
+                    }
+                }
+                printedPs.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to update books", e));
+        }
+    }
+
     @Override
     public void deleteById(Integer id) {
         String sql = "DELETE FROM books WHERE id = ?";
@@ -187,6 +399,20 @@ public class BookRepositoryImpl implements BookRepository {
         }
     }
 
+    @Override
+    public void deleteAllById(List<Integer> ids) {
+        String sql = "DELETE FROM books WHERE id = ANY(?)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setArray(1, conn.createArrayOf("integer", ids.toArray()));
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to delete books", e));
+        }
+    }
+
     @Override
     public boolean existsById(Integer id) {
         String sql = "SELECT COUNT(*) FROM books WHERE id = ?";
@@ -207,7 +433,7 @@ public class BookRepositoryImpl implements BookRepository {
 
     @Override
     public Book findByIsbn(String isbn) {
-        String sql = "SELECT * FROM books WHERE isbn = ?";
+        String sql = BookRowMapper.SELECT_BOOKS + " WHERE b.isbn = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -216,7 +442,7 @@ public class BookRepositoryImpl implements BookRepository {
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return mapResultSetToBook(rs);
+                return new BookRowMapper().map(rs);
             }
             return null;
         } catch (SQLException e) {
@@ -224,9 +450,28 @@ public class BookRepositoryImpl implements BookRepository {
         }
     }
 
+    @Override
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        String sql = "SELECT isbn FROM books WHERE isbn = ANY(?)";
+        Set<String> existing = new HashSet<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setArray(1, conn.createArrayOf("varchar", isbns.toArray()));
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                existing.add(rs.getString(1));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to check existing ISBNs", e));
+        }
+        return existing;
+    }
+
     @Override
     public List<Book> findByAuthorId(int authorId) {
-        String sql = "SELECT * FROM books WHERE author_id = ?";
+        String sql = BookRowMapper.SELECT_BOOKS + " WHERE b.author_id = ?";
         List<Book> books = new ArrayList<>();
 
         try (Connection conn = DatabaseConnection.getConnection();
@@ -234,9 +479,10 @@ public class BookRepositoryImpl implements BookRepository {
 
             ps.setInt(1, authorId);
             ResultSet rs = ps.executeQuery();
+            BookRowMapper mapper = new BookRowMapper();
 
             while (rs.next()) {
-                Book book = mapResultSetToBook(rs);
+                Book book = mapper.map(rs);
                 if (book != null) {
                     books.add(book);
                 }
@@ -249,7 +495,7 @@ public class BookRepositoryImpl implements BookRepository {
 
     @Override
     public List<Book> findByType(String bookType) {
-        String sql = "SELECT * FROM books WHERE book_type = ?";
+        String sql = BookRowMapper.SELECT_BOOKS + " WHERE b.book_type = ?";
         List<Book> books = new ArrayList<>();
 
         try (Connection conn = DatabaseConnection.getConnection();
@@ -257,9 +503,10 @@ public class BookRepositoryImpl implements BookRepository {
 
             ps.setString(1, bookType);
             ResultSet rs = ps.executeQuery();
+            BookRowMapper mapper = new BookRowMapper();
 
             while (rs.next()) {
-                Book book = mapResultSetToBook(rs);
+                Book book = mapper.map(rs);
                 if (book != null) {
                     books.add(book);
                 }
@@ -270,30 +517,166 @@ public class BookRepositoryImpl implements BookRepository {
         return books;
     }
 
-    private Book mapResultSetToBook(ResultSet rs) throws SQLException {
-        String bookType = rs.getString("book_type");
-        int authorId = rs.getInt("author_id");
-        Author author = authorRepository.findById(authorId);
-
-        if ("EBOOK".equals(bookType)) {
-            return new EBook(
-                    rs.getInt("id"),
-                    rs.getString("title"),
-                    author,
-                    rs.getInt("publish_year"),
-                    rs.getString("isbn"),
-                    rs.getDouble("file_size"),
-                    rs.getString("download_url"));
-        } else if ("PRINTED".equals(bookType)) {
-            return new PrintedBook(
-                    rs.getInt("id"),
-                    rs.getString("title"),
-                    author,
-                    rs.getInt("publish_year"),
-                    rs.getString("isbn"),
-                    rs.getString("shelf_location"),
-                    rs.getDouble("weight"));
-        }
-        return null;
+    @Override
+    public List<Book> findAllSortedByTitle(int limit) {
+        return findSorted(BookRowMapper.SELECT_BOOKS + ORDER_BY_TITLE, limit, "Failed to retrieve books by title");
+    }
+
+    @Override
+    public List<Book> findAllSortedByYear(int limit) {
+        return findSorted(BookRowMapper.SELECT_BOOKS + ORDER_BY_YEAR, limit, "Failed to retrieve books by year");
+    }
+
+    /**
+     * Runs an ordered query, limited to the first {@code limit} rows when limit is positive.
+     */
+    private List<Book> findSorted(String sql, int limit, String errorMessage) {
+        String query = limit > 0 ? sql + " LIMIT ?" : sql;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(query)) {
+
+            if (limit > 0) {
+                ps.setInt(1, limit);
+            }
+            return mapBooks(ps.executeQuery());
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException(errorMessage, e));
+        }
+    }
+
+    @Override
+    public List<Book> findPageByTitle(String afterTitle, int afterId, int limit) {
+        if (afterTitle == null) {
+            return findAllSortedByTitle(limit);
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(PAGE_BY_TITLE)) {
+
+            ps.setString(1, afterTitle);
+            ps.setInt(2, afterId);
+            ps.setInt(3, limit);
+            return mapBooks(ps.executeQuery());
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to retrieve book page by title", e));
+        }
+    }
+
+    @Override
+    public List<Book> findPageByYear(Integer afterYear, int afterId, int limit) {
+        if (afterYear == null) {
+            return findAllSortedByYear(limit);
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(PAGE_BY_YEAR)) {
+
+            ps.setInt(1, afterYear);
+            ps.setInt(2, afterId);
+            ps.setInt(3, limit);
+            return mapBooks(ps.executeQuery());
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to retrieve book page by year", e));
+        }
+    }
+
+    /**
+     * Ranked full-text search. {@code tsQuery} must already be valid tsquery syntax;
+     * a non-positive limit returns every match.
+     */
+    @Override
+    public List<Book> searchFullText(String tsQuery, int offset, int limit) {
+        String sql = limit > 0 ? SEARCH_FULL_TEXT + " LIMIT ? OFFSET ?" : SEARCH_FULL_TEXT;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, tsQuery);
+            if (limit > 0) {
+                ps.setInt(2, limit);
+                ps.setInt(3, offset);
+            }
+            return mapBooks(ps.executeQuery());
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to run full-text search", e));
+        }
+    }
+
+    @Override
+    public Map<String, Long> countByType() {
+        return countGroups("SELECT book_type, count(*) FROM books GROUP BY book_type", String.class);
+    }
+
+    @Override
+    public Map<Integer, Long> countByDecade() {
+        return countGroups("SELECT publish_year / 10 * 10, count(*) FROM books "
+                + "WHERE publish_year IS NOT NULL GROUP BY 1", Integer.class);
+    }
+
+    @Override
+    public Map<Integer, Long> countByAuthor() {
+        return countGroups("SELECT author_id, count(*) FROM books WHERE author_id IS NOT NULL GROUP BY author_id",
+                Integer.class);
+    }
+
+    @Override
+    public Map<String, Long> countByAuthorNationality() {
+        return countGroups("SELECT a.nationality, count(*) FROM books b JOIN authors a ON a.id = b.author_id "
+                + "GROUP BY a.nationality", String.class);
+    }
+
+    private static <K> Map<K, Long> countGroups(String sql, Class<K> keyType) {
+        Map<K, Long> counts = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                counts.put(rs.getObject(1, keyType), rs.getLong(2));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to count books", e));
+        }
+        return counts;
+    }
+
+    private List<Book> mapBooks(ResultSet rs) throws SQLException {
+        List<Book> books = new ArrayList<>();
+        BookRowMapper mapper = new BookRowMapper();
+        while (rs.next()) {
+            Book book = mapper.map(rs);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
+    private static final class CursorSpliterator extends Spliterators.AbstractSpliterator<Book> {
+        private final ResultSet rs;
+        private final BookRowMapper mapper = new BookRowMapper();
+
+        private CursorSpliterator(ResultSet rs) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rs = rs;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Book> action) {
+            try {
+                while (rs.next()) {
+                    Book book = mapper.map(rs);
+                    if (book != null) {
+                        action.accept(book);
+                        return true;
+                    }
+                }
+                return false;
+            } catch (SQLException e) {
+                throw new RuntimeException(new DatabaseOperationException("Failed to read book cursor", e));
+            }
+        }
     }
 }
@@ -0,0 +1,79 @@
+package repository;
+
+import model.Author;
+import model.Book;
+import model.EBook;
+import model.PrintedBook;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps rows of {@link #SELECT_BOOKS} to books. One mapper is used per result set so
+ * that every distinct author is materialized only once.
+ */
+public class BookRowMapper {
+
+    // Columns are listed explicitly so search_vector is never sent to the client
+    public static final String SELECT_BOOKS = "SELECT b.id, b.title, b.isbn, b.author_id, b.publish_year, "
+            + "b.book_type, b.download_url, b.file_size, b.shelf_location, b.weight, b.available, b.version, "
+            + "a.name AS author_name, "
+            + "a.birthyear AS author_birthyear, a.nationality AS author_nationality "
+            + "FROM books b LEFT JOIN authors a ON a.id = b.author_id";
+
+    private final Map<Integer, Author> authors = new HashMap<>();
+
+    public Book map(ResultSet rs) throws SQLException {
+        String bookType = rs.getString("book_type");
+        Author author = mapAuthor(rs);
+
+        Book book;
+        if ("EBOOK".equals(bookType)) {
+            EBook ebook = new EBook(
+                    rs.getInt("id"),
+                    rs.getString("title"),
+                    author,
+                    rs.getInt("publish_year"),
+                    rs.getString("isbn"),
+                    rs.getDouble("file_size"),
+                    rs.getString("download_url"));
+            ebook.setAvailable(rs.getBoolean("available"));
+            book = ebook;
+        } else if ("PRINTED".equals(bookType)) {
+            PrintedBook printed = new PrintedBook(
+                    rs.getInt("id"),
+                    rs.getString("title"),
+                    author,
+                    rs.getInt("publish_year"),
+                    rs.getString("isbn"),
+                    rs.getString("shelf_location"),
+                    rs.getDouble("weight"));
+            printed.setAvailable(rs.getBoolean("available"));
+            book = printed;
+        } else {
+            return null;
+        }
+        book.setVersion(rs.getInt("version"));
+        return book;
+    }
+
+    private Author mapAuthor(ResultSet rs) throws SQLException {
+        int authorId = rs.getInt("author_id");
+        if (rs.wasNull()) {
+            return null;
+        }
+
+        Author author = authors.get(authorId);
+        if (author == null) {
+            String name = rs.getString("author_name");
+            if (name == null) {
+                return null;
+            }
+            author = new Author(authorId, name, rs.getInt("author_birthyear"), rs.getString("author_nationality"));
+            authors.put(authorId, author);
+        }
+        return author;
+    }
+}
@@ -0,0 +1,175 @@
+package repository;
+
+import model.Author;
+import repository.interfaces.AuthorRepository;
+import utils.LruCache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache in front of another {@link AuthorRepository}.
+ *
+ * Callers always get their own copy of a cached author, and an author loaded on
+ * a miss is only cached if no write invalidated its id while it was being read.
+ */
+public class CachingAuthorRepository implements AuthorRepository {
+
+    private final AuthorRepository delegate;
+    private final int maxSize;
+    private final LruCache<Integer, Author> byId;
+    private final LruCache<String, Integer> idByName;
+    private final List<Consumer<Integer>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    public CachingAuthorRepository(AuthorRepository delegate, int maxSize, long ttlMillis) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.byId = new LruCache<>(maxSize, ttlMillis);
+        this.idByName = new LruCache<>(maxSize, ttlMillis);
+    }
+
+    public void addInvalidationListener(Consumer<Integer> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    @Override
+    public void save(Author author) {
+        long stamp = byId.stamp();
+        delegate.save(author);
+        cache(author, stamp);
+    }
+
+    @Override
+    public void saveAll(List<Author> authors) {
+        long stamp = byId.stamp();
+        delegate.saveAll(authors);
+        for (Author author : authors) {
+            cache(author, stamp);
+        }
+    }
+
+    @Override
+    public Author findById(Integer id) {
+        Author cached = byId.get(id);
+        if (cached != null) {
+            return EntityCopies.copy(cached);
+        }
+        long stamp = byId.stamp();
+        Author author = delegate.findById(id);
+        if (author != null) {
+            cache(author, stamp);
+        }
+        return author;
+    }
+
+    @Override
+    public List<Author> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void update(Author author) {
+        delegate.update(author);
+        invalidate(author.getId());
+    }
+
+    @Override
+    public void updateAll(List<Author> authors) {
+        delegate.updateAll(authors);
+        for (Author author : authors) {
+            invalidate(author.getId());
+        }
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        delegate.deleteById(id);
+        invalidate(id);
+    }
+
+    @Override
+    public void deleteAllById(List<Integer> ids) {
+        delegate.deleteAllById(ids);
+        for (Integer id : ids) {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        return byId.peek(id) != null || delegate.existsById(id);
+    }
+
+    @Override
+    public Author findByName(String name) {
+        Integer id = idByName.get(name);
+        if (id != null) {
+            Author author = byId.get(id);
+            if (author != null && author.getName().equals(name)) {
+                return EntityCopies.copy(author);
+            }
+            idByName.remove(name);
+        }
+
+        long stamp = byId.stamp();
+        Author author = delegate.findByName(name);
+        if (author != null) {
+            cache(author, stamp);
+        }
+        return author;
+    }
+
+    @Override
+    public Set<String> findExistingNames(Collection<String> names) {
+        return delegate.findExistingNames(names);
+    }
+
+    @Override
+    public List<Author> findByNationality(String nationality) {
+        return delegate.findByNationality(nationality);
+    }
+
+    @Override
+    public List<Author> findAllSortedByName(int limit) {
+        return delegate.findAllSortedByName(limit);
+    }
+
+    @Override
+    public List<Author> findPageByName(String afterName, int afterId, int limit) {
+        return delegate.findPageByName(afterName, afterId, limit);
+    }
+
+    /** Fills the cache from already loaded authors, up to its capacity; returns how many were cached. */
+    public int preload(Collection<Author> authors) {
+        int cached = 0;
+        for (Author item : authors) {
+            if (cached == maxSize) {
+                break;
+            }
+            cache(item, Long.MAX_VALUE);
+            cached++;
+        }
+        return cached;
+    }
+
+    public String getStats() {
+        return "Author cache [byId: " + byId.getStats() + "] [byName: " + idByName.getStats() + "]";
+    }
+
+    /** Caches a copy of the author, unless its id was invalidated after {@code stamp}. */
+    private void cache(Author author, long stamp) {
+        if (byId.putIfNotInvalidated(author.getId(), EntityCopies.copy(author), stamp)) {
+            idByName.put(author.getName(), author.getId());
+        }
+    }
+
+    private void invalidate(int id) {
+        byId.invalidate(id);
+        for (Consumer<Integer> listener : invalidationListeners) {
+            listener.accept(id);
+        }
+    }
+}
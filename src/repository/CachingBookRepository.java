@@ -0,0 +1,255 @@
+package repository;
+
+import model.Book;
+import repository.interfaces.BookRepository;
+import utils.LruCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache in front of another {@link BookRepository}.
+ *
+ * Callers always get their own copy of a cached book, so editing one never
+ * changes what other callers see. A book loaded on a miss is only cached if no
+ * write invalidated its id while it was being read.
+ */
+public class CachingBookRepository implements BookRepository {
+
+    private final BookRepository delegate;
+    private final int maxSize;
+    private final LruCache<Integer, Book> byId;
+    private final LruCache<String, Integer> idByIsbn;
+
+    public CachingBookRepository(BookRepository delegate, int maxSize, long ttlMillis) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.byId = new LruCache<>(maxSize, ttlMillis);
+        this.idByIsbn = new LruCache<>(maxSize, ttlMillis);
+    }
+
+    @Override
+    public void save(Book book) {
+        long stamp = byId.stamp();
+        delegate.save(book);
+        cache(book, stamp);
+    }
+
+    @Override
+    public void saveAll(List<Book> books) {
+        long stamp = byId.stamp();
+        delegate.saveAll(books);
+        for (Book book : books) {
+            cache(book, stamp);
+        }
+    }
+
+    @Override
+    public Book findById(Integer id) {
+        Book cached = byId.get(id);
+        if (cached != null) {
+            return EntityCopies.copy(cached);
+        }
+        long stamp = byId.stamp();
+        Book book = delegate.findById(id);
+        if (book != null) {
+            cache(book, stamp);
+        }
+        return book;
+    }
+
+    /** Cached books are copied out; the rest are read from the delegate in one call and cached. */
+    @Override
+    public List<Book> findAllById(List<Integer> ids) {
+        Book[] found = new Book[ids.size()];
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < found.length; i++) {
+            Book cached = byId.get(ids.get(i));
+            if (cached != null) {
+                found[i] = EntityCopies.copy(cached);
+            } else {
+                missing.add(ids.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            long stamp = byId.stamp();
+            Map<Integer, Book> loaded = new HashMap<>();
+            for (Book book : delegate.findAllById(missing)) {
+                cache(book, stamp);
+                loaded.put(book.getId(), book);
+            }
+            for (int i = 0; i < found.length; i++) {
+                if (found[i] == null) {
+                    found[i] = loaded.get(ids.get(i));
+                }
+            }
+        }
+
+        List<Book> books = new ArrayList<>(found.length);
+        for (Book book : found) {
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void update(Book book) {
+        delegate.update(book);
+        byId.invalidate(book.getId());
+    }
+
+    @Override
+    public void updateAll(List<Book> books) {
+        delegate.updateAll(books);
+        for (Book book : books) {
+            byId.invalidate(book.getId());
+        }
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        delegate.deleteById(id);
+        byId.invalidate(id);
+    }
+
+    @Override
+    public void deleteAllById(List<Integer> ids) {
+        delegate.deleteAllById(ids);
+        for (Integer id : ids) {
+            byId.invalidate(id);
+        }
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        return byId.peek(id) != null || delegate.existsById(id);
+    }
+
+    @Override
+    public Book findByIsbn(String isbn) {
+        Integer id = idByIsbn.get(isbn);
+        if (id != null) {
+            Book book = byId.get(id);
+            if (book != null && isbn.equals(book.getIsbn())) {
+                return EntityCopies.copy(book);
+            }
+            idByIsbn.remove(isbn);
+        }
+
+        long stamp = byId.stamp();
+        Book book = delegate.findByIsbn(isbn);
+        if (book != null) {
+            cache(book, stamp);
+        }
+        return book;
+    }
+
+    @Override
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        return delegate.findExistingIsbns(isbns);
+    }
+
+    @Override
+    public List<Book> findByAuthorId(int authorId) {
+        return delegate.findByAuthorId(authorId);
+    }
+
+    @Override
+    public List<Book> findByType(String bookType) {
+        return delegate.findByType(bookType);
+    }
+
+    @Override
+    public Stream<Book> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<Book> findAllSortedByTitle(int limit) {
+        return delegate.findAllSortedByTitle(limit);
+    }
+
+    @Override
+    public List<Book> findAllSortedByYear(int limit) {
+        return delegate.findAllSortedByYear(limit);
+    }
+
+    @Override
+    public List<Book> findPageByTitle(String afterTitle, int afterId, int limit) {
+        return delegate.findPageByTitle(afterTitle, afterId, limit);
+    }
+
+    @Override
+    public List<Book> findPageByYear(Integer afterYear, int afterId, int limit) {
+        return delegate.findPageByYear(afterYear, afterId, limit);
+    }
+
+    @Override
+    public List<Book> searchFullText(String tsQuery, int offset, int limit) {
+        return delegate.searchFullText(tsQuery, offset, limit);
+    }
+
+    @Override
+    public Map<String, Long> countByType() {
+        return delegate.countByType();
+    }
+
+    @Override
+    public Map<Integer, Long> countByDecade() {
+        return delegate.countByDecade();
+    }
+
+    @Override
+    public Map<Integer, Long> countByAuthor() {
+        return delegate.countByAuthor();
+    }
+
+    @Override
+    public Map<String, Long> countByAuthorNationality() {
+        return delegate.countByAuthorNationality();
+    }
+
+    public void evict(int bookId) {
+        byId.invalidate(bookId);
+    }
+
+    public void evictByAuthor(int authorId) {
+        byId.removeIf(book -> book.getAuthor() != null && book.getAuthor().getId() == authorId);
+    }
+
+    /** Fills the cache from already loaded books, up to its capacity; returns how many were cached. */
+    public int preload(Collection<Book> books) {
+        int cached = 0;
+        for (Book item : books) {
+            if (cached == maxSize) {
+                break;
+            }
+            cache(item, Long.MAX_VALUE);
+            cached++;
+        }
+        return cached;
+    }
+
+    public String getStats() {
+        return "Book cache [byId: " + byId.getStats() + "] [byIsbn: " + idByIsbn.getStats() + "]";
+    }
+
+    /** Caches a copy of the book, unless its id was invalidated after {@code stamp}. */
+    private void cache(Book book, long stamp) {
+        if (byId.putIfNotInvalidated(book.getId(), EntityCopies.copy(book), stamp) && book.getIsbn() != null) {
+            idByIsbn.put(book.getIsbn(), book.getId());
+        }
+    }
+}
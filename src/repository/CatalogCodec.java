@@ -0,0 +1,108 @@
+package repository;
+
+import model.Author;
+import model.Book;
+import model.EBook;
+import model.PrintedBook;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of authors and books for the journal and snapshot files.
+ * Strings are a length (-1 for null) followed by UTF-8 bytes; a book carries
+ * only its author's id, the author itself is a record of its own.
+ */
+final class CatalogCodec {
+
+    private static final byte EBOOK = 1;
+    private static final byte PRINTED = 2;
+
+    private CatalogCodec() {
+    }
+
+    static void writeAuthor(DataOutput out, Author author) throws IOException {
+        out.writeInt(author.getId());
+        writeString(out, author.getName());
+        out.writeInt(author.getBirthYear());
+        writeString(out, author.getNationality());
+    }
+
+    static Author readAuthor(ByteBuffer in) {
+        return new Author(in.getInt(), readString(in), in.getInt(), readString(in));
+    }
+
+    /** Writes an {@link EBook} or {@link PrintedBook}; availability and version are stored as given. */
+    static void writeBook(DataOutput out, Book book, boolean available, int version) throws IOException {
+        boolean eBook = book instanceof EBook;
+        out.writeByte(eBook ? EBOOK : PRINTED);
+        out.writeInt(book.getId());
+        writeString(out, book.getTitle());
+        writeString(out, book.getIsbn());
+        out.writeInt(book.getAuthor() != null ? book.getAuthor().getId() : 0);
+        out.writeInt(book.getYear());
+        out.writeBoolean(available);
+        out.writeInt(version);
+        if (eBook) {
+            out.writeDouble(((EBook) book).getFileSize());
+            writeString(out, ((EBook) book).getDownloadURL());
+        } else {
+            writeString(out, ((PrintedBook) book).getShelfLocation());
+            out.writeDouble(((PrintedBook) book).getWeight());
+        }
+    }
+
+    /** Reads a book whose author is an id-only placeholder (or null when it had none). */
+    static Book readBook(ByteBuffer in) {
+        byte type = in.get();
+        int id = in.getInt();
+        String title = readString(in);
+        String isbn = readString(in);
+        int authorId = in.getInt();
+        Author author = authorId != 0 ? new Author(authorId, null, 0, null) : null;
+        int year = in.getInt();
+        boolean available = in.get() != 0;
+        int version = in.getInt();
+        Book book;
+        if (type == EBOOK) {
+            double fileSize = in.getDouble();
+            EBook eBook = new EBook(id, title, author, year, isbn, fileSize, readString(in));
+            eBook.setAvailable(available);
+            book = eBook;
+        } else if (type == PRINTED) {
+            PrintedBook printed = new PrintedBook(id, title, author, year, isbn, readString(in), in.getDouble());
+            printed.setAvailable(available);
+            book = printed;
+        } else {
+            throw new IllegalStateException("Unknown book type tag " + type);
+        }
+        book.setVersion(version);
+        return book;
+    }
+
+    static boolean isAvailable(Book book) {
+        return book instanceof EBook ? ((EBook) book).isAvailable() : ((PrintedBook) book).isAvailable();
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,129 @@
+package repository;
+
+import model.Author;
+import model.Book;
+import model.EBook;
+import model.ImportReport;
+import model.PrintedBook;
+import repository.interfaces.CatalogImportRepository;
+import utils.CsvUtils;
+import utils.DatabaseConnection;
+import exception.DatabaseOperationException;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.Iterator;
+
+/**
+ * Streams books into a temporary staging table with COPY and merges them into
+ * {@code authors}/{@code books} in the same transaction. Authors are matched by
+ * name; books whose ISBN is already in the catalog are left untouched.
+ */
+public class CatalogImportRepositoryImpl implements CatalogImportRepository {
+
+    private static final int FLUSH_ROWS = 1000;
+
+    private static final String CREATE_STAGING = "CREATE TEMP TABLE book_import_staging ("
+            + "seq bigint, title varchar(255), isbn varchar(50), publish_year integer, book_type varchar(20), "
+            + "author_name varchar(255), author_birthyear integer, author_nationality varchar(255), "
+            + "download_url varchar(500), file_size double precision, shelf_location varchar(100), "
+            + "weight double precision) ON COMMIT DROP";
+    private static final String COPY_STAGING = "COPY book_import_staging (seq, title, isbn, publish_year, "
+            + "book_type, author_name, author_birthyear, author_nationality, download_url, file_size, "
+            + "shelf_location, weight) FROM STDIN WITH (FORMAT csv)";
+    private static final String MERGE_AUTHORS = "INSERT INTO authors(name, birthyear, nationality) "
+            + "SELECT DISTINCT ON (s.author_name) s.author_name, s.author_birthyear, s.author_nationality "
+            + "FROM book_import_staging s "
+            + "WHERE NOT EXISTS (SELECT 1 FROM authors a WHERE a.name = s.author_name) "
+            + "ORDER BY s.author_name, s.seq";
+    private static final String MERGE_BOOKS = "INSERT INTO books(title, isbn, author_id, publish_year, book_type, "
+            + "download_url, file_size, shelf_location, weight, available) "
+            + "SELECT s.title, s.isbn, a.id, s.publish_year, s.book_type, s.download_url, s.file_size, "
+            + "s.shelf_location, s.weight, true "
+            + "FROM book_import_staging s "
+            + "JOIN (SELECT DISTINCT ON (name) id, name FROM authors ORDER BY name, id) a ON a.name = s.author_name "
+            + "WHERE NOT EXISTS (SELECT 1 FROM books b WHERE b.isbn = s.isbn) "
+            + "ORDER BY s.seq";
+
+    @Override
+    public void importBooks(Iterator<Book> books, ImportReport report) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (Statement st = conn.createStatement()) {
+                    st.execute(CREATE_STAGING);
+                }
+                report.setRowsStaged(copyToStaging(conn, books));
+
+                try (Statement st = conn.createStatement()) {
+                    st.execute("ANALYZE book_import_staging");
+                    report.setAuthorsInserted(st.executeUpdate(MERGE_AUTHORS));
+                    report.setBooksInserted(st.executeUpdate(MERGE_BOOKS));
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to import catalog", e));
+        }
+    }
+
+    private long copyToStaging(Connection conn, Iterator<Book> books) throws SQLException {
+        CopyIn copy = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+        try {
+            StringBuilder buffer = new StringBuilder();
+            long seq = 0;
+            while (books.hasNext()) {
+                appendRow(buffer, ++seq, books.next());
+                if (seq % FLUSH_ROWS == 0) {
+                    flush(copy, buffer);
+                }
+            }
+            flush(copy, buffer);
+            return copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private void appendRow(StringBuilder buffer, long seq, Book book) {
+        Author author = book.getAuthor();
+        buffer.append(seq).append(',')
+                .append(CsvUtils.escape(book.getTitle())).append(',')
+                .append(CsvUtils.escape(book.getIsbn())).append(',')
+                .append(book.getYear()).append(',')
+                .append(CsvUtils.escape(book.getBookType())).append(',')
+                .append(CsvUtils.escape(author.getName())).append(',')
+                .append(author.getBirthYear()).append(',')
+                .append(CsvUtils.escape(author.getNationality())).append(',');
+
+        if (book instanceof EBook) {
+            EBook ebook = (EBook) book;
+            buffer.append(CsvUtils.escape(ebook.getDownloadURL())).append(',')
+                    .append(ebook.getFileSize()).append(",,");
+        } else if (book instanceof PrintedBook) {
+            PrintedBook pbook = (PrintedBook) book;
+            buffer.append(",,")
+                    .append(CsvUtils.escape(pbook.getShelfLocation())).append(',')
+                    .append(pbook.getWeight());
+        } else {
+            buffer.append(",,,");
+        }
+        buffer.append('\n');
+    }
+
+    private void flush(CopyIn copy, StringBuilder buffer) throws SQLException {
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * One append-only journal file of catalog changes. After a 16-byte header
+ * (magic, format version, generation) come records of
+ * {@code [int length][int crc32][byte type][payload]}; length covers type and
+ * payload, the CRC covers the same bytes.
+ *
+ * Appends are copied into a read-write memory mapping of the file, which grows
+ * {@code mapChunkBytes} at a time, so an append is a memory copy. When the bytes
+ * reach the disk depends on the {@link FsyncPolicy}: with ALWAYS a single flusher
+ * thread forces everything appended so far and wakes every writer it covered, so
+ * concurrent writers share one force (group commit).
+ *
+ * Opening a journal replays it: records are read through read-only mappings until
+ * the first zero length, short record or CRC mismatch, which is where a crash cut
+ * the last write. The file is truncated there so appends continue from the last
+ * good record.
+ */
+public class CatalogJournal implements AutoCloseable {
+
+    static final byte PUT_AUTHORS = 1;
+    static final byte DELETE_AUTHORS = 2;
+    static final byte PUT_BOOKS = 3;
+    static final byte DELETE_BOOKS = 4;
+
+    private static final int MAGIC = 0x4C424A31; // "LBJ1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 256 << 20;
+    private static final long REPLAY_WINDOW_BYTES = 1L << 30;
+
+    @FunctionalInterface
+    interface RecordHandler {
+        void apply(byte type, ByteBuffer payload);
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long generation;
+    private final FsyncPolicy policy;
+    private final long fsyncIntervalMillis;
+    private final int mapChunkBytes;
+    private final CRC32 crc = new CRC32();
+    private final Thread flusher;
+
+    private MappedByteBuffer region;
+    private long regionStart;
+    // end of the last appended record; everything before durable is known to be on disk
+    private long written;
+    private long durable;
+    private long records;
+    private long forces;
+    private IOException flushFailure;
+    private boolean closed;
+
+    private CatalogJournal(Path file, FileChannel channel, long generation, FsyncPolicy policy,
+            long fsyncIntervalMillis, int mapChunkBytes, long end) {
+        this.file = file;
+        this.channel = channel;
+        this.generation = generation;
+        this.policy = policy;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.mapChunkBytes = mapChunkBytes;
+        this.written = end;
+        this.durable = end;
+        if (policy == FsyncPolicy.NEVER) {
+            this.flusher = null;
+        } else {
+            this.flusher = new Thread(this::flushLoop, "journal-flush-" + generation);
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        }
+    }
+
+    /**
+     * Opens (creating it if needed) the journal of {@code generation}, handing every
+     * intact record to {@code replay} first.
+     */
+    static CatalogJournal open(Path file, long generation, FsyncPolicy policy, long fsyncIntervalMillis,
+            int mapChunkBytes, RecordHandler replay) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long end;
+            if (channel.size() < HEADER_BYTES) {
+                writeHeader(channel, generation);
+                end = HEADER_BYTES;
+            } else {
+                checkHeader(channel, file, generation);
+                end = replay(channel, replay);
+                // drop the torn tail, so bytes of a half-written record can never follow new ones
+                channel.truncate(end);
+            }
+            return new CatalogJournal(file, channel, generation, policy, fsyncIntervalMillis, mapChunkBytes, end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Throws if the journal is closed or an earlier force failed, so the caller can refuse a write up front. */
+    synchronized void checkWritable() throws IOException {
+        if (closed) {
+            throw new IOException("Journal " + file + " is closed");
+        }
+        if (flushFailure != null) {
+            throw new IOException("Journal " + file + " failed to sync", flushFailure);
+        }
+    }
+
+    /** Appends one record and returns the position {@link #awaitDurable} needs to wait for. */
+    synchronized long append(byte type, byte[] payload) throws IOException {
+        if (closed) {
+            throw new IOException("Journal " + file + " is closed");
+        }
+        int length = 1 + payload.length;
+        if (length > MAX_RECORD_BYTES) {
+            throw new IOException("Journal record of " + length + " bytes exceeds the limit");
+        }
+        ensureMapped(RECORD_HEADER_BYTES + length);
+        crc.reset();
+        crc.update(type);
+        crc.update(payload);
+        int offset = (int) (written - regionStart);
+        region.putInt(offset + 4, (int) crc.getValue());
+        region.put(offset + 8, type);
+        region.put(offset + 9, payload);
+        region.putInt(offset, length);
+        written += RECORD_HEADER_BYTES + length;
+        records++;
+        if (policy == FsyncPolicy.ALWAYS) {
+            notifyAll();
+        }
+        return written;
+    }
+
+    /** With {@link FsyncPolicy#ALWAYS}, blocks until {@code position} is on disk; otherwise returns at once. */
+    synchronized void awaitDurable(long position) throws IOException {
+        if (policy != FsyncPolicy.ALWAYS) {
+            return;
+        }
+        boolean interrupted = false;
+        // close() forces the rest and closes the channel, so waiters outlive the flusher
+        while (durable < position && flushFailure == null && channel.isOpen()) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (durable < position) {
+            throw new IOException("Journal write was not made durable", flushFailure);
+        }
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    /** Bytes of records in this journal. */
+    synchronized long size() {
+        return written - HEADER_BYTES;
+    }
+
+    synchronized long recordCount() {
+        return records;
+    }
+
+    synchronized long forceCount() {
+        return forces;
+    }
+
+    /** Forces what is left, stops the flusher and trims the file to its last record. */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            try {
+                if (region != null) {
+                    region.force();
+                }
+                durable = written;
+                region = null;
+                channel.truncate(written);
+                channel.force(true);
+            } finally {
+                channel.close();
+                notifyAll();
+            }
+        }
+    }
+
+    private void ensureMapped(int bytes) throws IOException {
+        if (region != null && written + bytes <= regionStart + region.capacity()) {
+            return;
+        }
+        if (region != null) {
+            // everything before the new region is forced here, the flusher only ever handles the current one
+            region.force();
+            durable = written;
+            forces++;
+            notifyAll();
+        }
+        regionStart = written;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, Math.max(mapChunkBytes, bytes));
+    }
+
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            long start;
+            long from;
+            long to;
+            synchronized (this) {
+                try {
+                    if (policy == FsyncPolicy.ALWAYS) {
+                        while (!closed && written == durable) {
+                            wait();
+                        }
+                    } else if (!closed) {
+                        wait(fsyncIntervalMillis);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed || flushFailure != null) {
+                    return;
+                }
+                target = region;
+                start = regionStart;
+                from = Math.max(durable, regionStart);
+                to = written;
+            }
+            try {
+                if (target != null && to > from) {
+                    target.force((int) (from - start), (int) (to - from));
+                }
+            } catch (UncheckedIOException e) {
+                synchronized (this) {
+                    flushFailure = e.getCause();
+                    notifyAll();
+                }
+                return;
+            }
+            synchronized (this) {
+                if (to > durable) {
+                    durable = to;
+                    forces++;
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(generation).flip();
+        channel.truncate(0);
+        channel.write(header, 0);
+        channel.force(true);
+    }
+
+    private static void checkHeader(FileChannel channel, Path file, long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException(file + " is not a catalog journal");
+        }
+        int version = header.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Journal " + file + " has unsupported format version " + version);
+        }
+        long fileGeneration = header.getLong();
+        if (fileGeneration != generation) {
+            throw new IOException("Journal " + file + " is generation " + fileGeneration + ", expected "
+                    + generation);
+        }
+    }
+
+    /** Hands every intact record to the handler; returns the end of the last one. */
+    private static long replay(FileChannel channel, RecordHandler handler) throws IOException {
+        long size = channel.size();
+        long position = HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER_BYTES <= size) {
+            int windowSize = (int) Math.min(size - position, REPLAY_WINDOW_BYTES);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+            int offset = 0;
+            while (offset + RECORD_HEADER_BYTES <= windowSize) {
+                int length = window.getInt(offset);
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    return position + offset;
+                }
+                if (offset + RECORD_HEADER_BYTES + length > windowSize) {
+                    if (position + offset + RECORD_HEADER_BYTES + length > size) {
+                        return position + offset;
+                    }
+                    break; // the record continues past this window; remap from its start
+                }
+                ByteBuffer body = window.slice(offset + RECORD_HEADER_BYTES, length);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != window.getInt(offset + 4)) {
+                    return position + offset;
+                }
+                handler.apply(body.get(0), body.slice(1, length - 1));
+                offset += RECORD_HEADER_BYTES + length;
+            }
+            position += offset;
+        }
+        return position;
+    }
+}
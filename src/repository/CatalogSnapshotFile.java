@@ -0,0 +1,150 @@
+package repository;
+
+import model.Author;
+import model.Book;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A whole catalog (authors, books and both id sequences) in one binary file:
+ * a header, every author, every book, and a CRC32 of everything after the magic
+ * number. Written to a temporary file, forced and renamed into place, so a
+ * reader sees either the previous file or the complete new one. Read back
+ * through a single read-only memory mapping.
+ *
+ * The header's {@code stamp} is the writer's: the journal store keeps the first
+ * journal generation the snapshot does not contain there, the warm-start
+ * snapshot the database's catalog watermark.
+ */
+public final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x4C425331; // "LBS1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    /** What a snapshot holds. */
+    public static final class Contents {
+        private final long stamp;
+        private final int lastAuthorId;
+        private final int lastBookId;
+        private final List<Author> authors;
+        private final List<Book> books;
+
+        Contents(long stamp, int lastAuthorId, int lastBookId, List<Author> authors, List<Book> books) {
+            this.stamp = stamp;
+            this.lastAuthorId = lastAuthorId;
+            this.lastBookId = lastBookId;
+            this.authors = authors;
+            this.books = books;
+        }
+
+        public long getStamp() {
+            return stamp;
+        }
+
+        public int getLastAuthorId() {
+            return lastAuthorId;
+        }
+
+        public int getLastBookId() {
+            return lastBookId;
+        }
+
+        public List<Author> getAuthors() {
+            return authors;
+        }
+
+        /** Books whose authors are id-only placeholders; resolve them against {@link #getAuthors()}. */
+        public List<Book> getBooks() {
+            return books;
+        }
+    }
+
+    private CatalogSnapshotFile() {
+    }
+
+    public static void write(Path file, long stamp, int lastAuthorId, int lastBookId, Collection<Author> authors,
+            Collection<Book> books) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile())) {
+            fileOut.write(ByteBuffer.allocate(4).putInt(MAGIC).array());
+            CheckedOutputStream checked = new CheckedOutputStream(fileOut, new CRC32());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, BUFFER_BYTES));
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(stamp);
+            out.writeInt(lastAuthorId);
+            out.writeInt(lastBookId);
+            out.writeInt(authors.size());
+            out.writeInt(books.size());
+            for (Author author : authors) {
+                CatalogCodec.writeAuthor(out, author);
+            }
+            for (Book book : books) {
+                CatalogCodec.writeBook(out, book, CatalogCodec.isAvailable(book), book.getVersion());
+            }
+            out.flush();
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            fileOut.getChannel().force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Returns null when there is no snapshot; a damaged or foreign file is an IOException. */
+    public static Contents read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + file + " is larger than 2 GB");
+            }
+            if (size < 40) {
+                throw new IOException("Snapshot " + file + " is truncated");
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (in.getInt() != MAGIC) {
+                throw new IOException(file + " is not a catalog snapshot");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(in.slice(4, (int) size - 12));
+            if (crc.getValue() != in.getLong((int) size - 8)) {
+                throw new IOException("Snapshot " + file + " is damaged (checksum mismatch)");
+            }
+            int version = in.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Snapshot " + file + " has unsupported format version " + version);
+            }
+            long stamp = in.getLong();
+            int lastAuthorId = in.getInt();
+            int lastBookId = in.getInt();
+            int authorCount = in.getInt();
+            int bookCount = in.getInt();
+            List<Author> authors = new ArrayList<>(authorCount);
+            for (int i = 0; i < authorCount; i++) {
+                authors.add(CatalogCodec.readAuthor(in));
+            }
+            List<Book> books = new ArrayList<>(bookCount);
+            for (int i = 0; i < bookCount; i++) {
+                books.add(CatalogCodec.readBook(in));
+            }
+            return new Contents(stamp, lastAuthorId, lastBookId, authors, books);
+        }
+    }
+}
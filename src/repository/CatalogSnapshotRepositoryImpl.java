@@ -0,0 +1,114 @@
+package repository;
+
+import model.Author;
+import model.Book;
+import model.CatalogSnapshot;
+import repository.interfaces.CatalogSnapshotRepository;
+import utils.AppConfig;
+import utils.DatabaseConnection;
+import exception.DatabaseOperationException;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CatalogSnapshotRepositoryImpl implements CatalogSnapshotRepository {
+
+    private static final String SELECT_WATERMARK = "SELECT version FROM catalog_watermark";
+    private static final String SELECT_AUTHORS = "SELECT id, name, birthyear, nationality FROM authors";
+    // served by books_borrowed_idx
+    private static final String SELECT_BORROWED = "SELECT id, version FROM books WHERE NOT available";
+
+    private final int fetchSize;
+
+    public CatalogSnapshotRepositoryImpl() {
+        this(AppConfig.getInt("db.fetchSize", 500));
+    }
+
+    public CatalogSnapshotRepositoryImpl(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be positive");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long findWatermark() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return readWatermark(conn);
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to read catalog watermark", e));
+        }
+    }
+
+    @Override
+    public CatalogSnapshot readCatalog() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            int isolation = conn.getTransactionIsolation();
+            // one MVCC snapshot for the watermark and every row, so they always belong together
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try {
+                long watermark = readWatermark(conn);
+                List<Author> authors = new ArrayList<>();
+                try (PreparedStatement ps = conn.prepareStatement(SELECT_AUTHORS)) {
+                    ps.setFetchSize(fetchSize);
+                    ResultSet rs = ps.executeQuery();
+                    while (rs.next()) {
+                        authors.add(new Author(rs.getInt("id"), rs.getString("name"), rs.getInt("birthyear"),
+                                rs.getString("nationality")));
+                    }
+                }
+                List<Book> books = new ArrayList<>();
+                try (PreparedStatement ps = conn.prepareStatement(BookRowMapper.SELECT_BOOKS)) {
+                    ps.setFetchSize(fetchSize);
+                    ResultSet rs = ps.executeQuery();
+                    BookRowMapper mapper = new BookRowMapper();
+                    while (rs.next()) {
+                        Book book = mapper.map(rs);
+                        if (book != null) {
+                            books.add(book);
+                        }
+                    }
+                }
+                conn.commit();
+                return new CatalogSnapshot(watermark, authors, books);
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(true);
+                conn.setTransactionIsolation(isolation);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to read catalog snapshot", e));
+        }
+    }
+
+    @Override
+    public Map<Integer, Integer> findBorrowedVersions() {
+        Map<Integer, Integer> borrowed = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(SELECT_BORROWED)) {
+
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                borrowed.put(rs.getInt("id"), rs.getInt("version"));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to read borrowed books", e));
+        }
+        return borrowed;
+    }
+
+    private static long readWatermark(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(SELECT_WATERMARK)) {
+            if (!rs.next()) {
+                throw new SQLException("catalog_watermark has no row; apply schema.sql");
+            }
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package repository;
+
+import model.Author;
+import model.Book;
+import model.EBook;
+import model.PrintedBook;
+
+/**
+ * Field-by-field copies of catalog entities, for repositories that keep entities
+ * between calls and must not hand the same mutable instance to two callers.
+ */
+final class EntityCopies {
+
+    private EntityCopies() {
+    }
+
+    static Author copy(Author author) {
+        return author != null
+                ? new Author(author.getId(), author.getName(), author.getBirthYear(), author.getNationality())
+                : null;
+    }
+
+    /** A copy of the book and of its author; books of other types are returned as they are. */
+    static Book copy(Book book) {
+        Book copy;
+        if (book instanceof EBook) {
+            EBook eBook = (EBook) book;
+            EBook c = new EBook(book.getId(), book.getTitle(), copy(book.getAuthor()), book.getYear(),
+                    book.getIsbn(), eBook.getFileSize(), eBook.getDownloadURL());
+            c.setAvailable(eBook.isAvailable());
+            c.setLateFee(eBook.getLateFee());
+            copy = c;
+        } else if (book instanceof PrintedBook) {
+            PrintedBook printed = (PrintedBook) book;
+            PrintedBook c = new PrintedBook(book.getId(), book.getTitle(), copy(book.getAuthor()), book.getYear(),
+                    book.getIsbn(), printed.getShelfLocation(), printed.getWeight());
+            c.setAvailable(printed.isAvailable());
+            c.setLateFee(printed.getLateFee());
+            copy = c;
+        } else {
+            return book;
+        }
+        copy.setVersion(book.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,23 @@
+package repository;
+
+/**
+ * When {@link CatalogJournal} forces appended records to disk, selected with the
+ * {@code journal.fsync} config key.
+ */
+public enum FsyncPolicy {
+    /** Every write returns once it is on disk; writers waiting together share one force (group commit). */
+    ALWAYS,
+    /** A background force every {@code journal.fsyncIntervalMs}; a crash loses at most that window. */
+    INTERVAL,
+    /** Left to the operating system; forced only at checkpoints and on close. */
+    NEVER;
+
+    public static FsyncPolicy fromConfig(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown fsync policy '" + value + "', using ALWAYS");
+            return ALWAYS;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package repository;
+
+import model.Hold;
+import repository.interfaces.HoldRepository;
+import utils.DatabaseConnection;
+import exception.DatabaseOperationException;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds are queued in id order. Placing a hold locks the book row first, the same
+ * lock {@link LoanRepositoryImpl#checkin} takes, so a hold is either queued before
+ * a return (and gets the copy) or sees the book back on the shelf and is refused.
+ */
+public class HoldRepositoryImpl implements HoldRepository {
+
+    static final String OPEN = "fulfilled_at IS NULL AND cancelled_at IS NULL";
+
+    private static final String LOCK_BOOK = "SELECT id FROM books WHERE id = ? FOR UPDATE";
+    private static final String INSERT_HOLD = "INSERT INTO holds(book_id, patron) "
+            + "SELECT b.id, ? FROM books b WHERE b.id = ? AND NOT b.available "
+            + "AND NOT EXISTS (SELECT 1 FROM loans l WHERE l.book_id = b.id AND l.returned_at IS NULL "
+            + "AND l.patron = ?) "
+            + "ON CONFLICT DO NOTHING RETURNING id, placed_at";
+    private static final String CANCEL_HOLD = "UPDATE holds SET cancelled_at = now() "
+            + "WHERE id = ? AND patron = ? AND " + OPEN + " RETURNING id, book_id, patron, placed_at";
+    private static final String SELECT_OPEN_HOLDS = "SELECT id, book_id, patron, placed_at FROM holds WHERE " + OPEN;
+
+    @Override
+    public Hold placeHold(int bookId, String patron) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = conn.prepareStatement(LOCK_BOOK)) {
+                    ps.setInt(1, bookId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return null;
+                        }
+                    }
+                }
+
+                Hold hold = null;
+                try (PreparedStatement ps = conn.prepareStatement(INSERT_HOLD)) {
+                    ps.setString(1, patron);
+                    ps.setInt(2, bookId);
+                    ps.setString(3, patron);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            hold = new Hold(rs.getInt("id"), bookId, patron,
+                                    rs.getTimestamp("placed_at").toLocalDateTime());
+                        }
+                    }
+                }
+                conn.commit();
+                return hold;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to place hold", e));
+        }
+    }
+
+    @Override
+    public Hold cancelHold(int holdId, String patron) {
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(CANCEL_HOLD)) {
+
+            ps.setInt(1, holdId);
+            ps.setString(2, patron);
+            ResultSet rs = ps.executeQuery();
+            return rs.next() ? mapHold(rs) : null;
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to cancel hold", e));
+        }
+    }
+
+    @Override
+    public List<Hold> findOpenHolds(int bookId) {
+        return findHolds(SELECT_OPEN_HOLDS + " AND book_id = ? ORDER BY id", bookId, null);
+    }
+
+    @Override
+    public List<Hold> findOpenHoldsByPatron(String patron) {
+        return findHolds(SELECT_OPEN_HOLDS + " AND patron = ? ORDER BY id", null, patron);
+    }
+
+    @Override
+    public List<Hold> findAllOpenHolds() {
+        return findHolds(SELECT_OPEN_HOLDS + " ORDER BY book_id, id", null, null);
+    }
+
+    private List<Hold> findHolds(String sql, Integer bookId, String patron) {
+        List<Hold> holds = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            if (bookId != null) {
+                ps.setInt(1, bookId);
+            } else if (patron != null) {
+                ps.setString(1, patron);
+            }
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                holds.add(mapHold(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to find holds", e));
+        }
+        return holds;
+    }
+
+    static Hold mapHold(ResultSet rs) throws SQLException {
+        return new Hold(
+                rs.getInt("id"),
+                rs.getInt("book_id"),
+                rs.getString("patron"),
+                rs.getTimestamp("placed_at").toLocalDateTime());
+    }
+}
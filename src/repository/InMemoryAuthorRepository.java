@@ -0,0 +1,307 @@
+package repository;
+
+import model.Author;
+import repository.interfaces.AuthorRepository;
+import exception.DatabaseOperationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link AuthorRepository} held entirely in memory. Authors live in a concurrent
+ * map by id, with secondary indexes by exact name, by nationality and by
+ * {@code (lower(name), id)} for the sorted listings, so every finder is a map
+ * lookup or a skip-list range.
+ *
+ * Reads are lock-free; writes (here and in {@link InMemoryBookRepository}) take
+ * one shared lock so the indexes and the book-to-author reference check change
+ * together. Callers always get copies, as they would from the database.
+ */
+public class InMemoryAuthorRepository implements AuthorRepository {
+
+    private final Object writeLock = new Object();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Map<Integer, Author> authors = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Integer>> idsByName = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Integer>> idsByNationality = new ConcurrentHashMap<>();
+    private final NavigableSet<SortKey> byName = new ConcurrentSkipListSet<>();
+
+    private InMemoryBookRepository books;
+
+    @Override
+    public void save(Author author) {
+        synchronized (writeLock) {
+            author.setId(sequence.incrementAndGet());
+            insert(copy(author));
+        }
+    }
+
+    @Override
+    public void saveAll(List<Author> authors) {
+        synchronized (writeLock) {
+            for (Author author : authors) {
+                save(author);
+            }
+        }
+    }
+
+    @Override
+    public Author findById(Integer id) {
+        Author author = authors.get(id);
+        return author != null ? copy(author) : null;
+    }
+
+    @Override
+    public List<Author> findAll() {
+        return copies(authors.keySet());
+    }
+
+    @Override
+    public void update(Author author) {
+        synchronized (writeLock) {
+            if (authors.containsKey(author.getId())) {
+                replace(copy(author));
+            }
+        }
+    }
+
+    @Override
+    public void updateAll(List<Author> authors) {
+        synchronized (writeLock) {
+            authors.forEach(this::update);
+        }
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        synchronized (writeLock) {
+            if (books != null && books.hasBooksByAuthor(id)) {
+                throw new RuntimeException(
+                        new DatabaseOperationException("Cannot delete author: books reference this author"));
+            }
+            remove(id);
+        }
+    }
+
+    @Override
+    public void deleteAllById(List<Integer> ids) {
+        synchronized (writeLock) {
+            for (int id : ids) {
+                if (books != null && books.hasBooksByAuthor(id)) {
+                    throw new RuntimeException(
+                            new DatabaseOperationException("Cannot delete authors: books reference these authors"));
+                }
+            }
+            ids.forEach(this::remove);
+        }
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        return authors.containsKey(id);
+    }
+
+    @Override
+    public Author findByName(String name) {
+        NavigableSet<Integer> ids = idsByName.get(name);
+        Integer id = ids != null && !ids.isEmpty() ? ids.first() : null;
+        return id != null ? findById(id) : null;
+    }
+
+    @Override
+    public Set<String> findExistingNames(Collection<String> names) {
+        Set<String> existing = new HashSet<>();
+        for (String name : names) {
+            NavigableSet<Integer> ids = idsByName.get(name);
+            if (ids != null && !ids.isEmpty()) {
+                existing.add(name);
+            }
+        }
+        return existing;
+    }
+
+    @Override
+    public List<Author> findByNationality(String nationality) {
+        NavigableSet<Integer> ids = idsByNationality.get(nationality);
+        return ids != null ? copies(ids) : new ArrayList<>();
+    }
+
+    @Override
+    public List<Author> findAllSortedByName(int limit) {
+        return page(byName, limit);
+    }
+
+    @Override
+    public List<Author> findPageByName(String afterName, int afterId, int limit) {
+        if (afterName == null) {
+            return page(byName, limit);
+        }
+        return page(byName.tailSet(new SortKey(afterName.toLowerCase(), afterId), false), limit);
+    }
+
+    /** The lock {@link InMemoryBookRepository} writes under, so author deletes see every book. */
+    Object writeLock() {
+        return writeLock;
+    }
+
+    void attachBooks(InMemoryBookRepository books) {
+        this.books = books;
+    }
+
+    /** The stored author, for books to attach copies of; never handed to callers as is. */
+    Author stored(int id) {
+        return authors.get(id);
+    }
+
+    Collection<Author> storedAuthors() {
+        return authors.values();
+    }
+
+    /** Puts an author back under its own id, as recovered from disk; no checks, the id sequence catches up. */
+    void restore(Author author) {
+        if (authors.containsKey(author.getId())) {
+            replace(copy(author));
+        } else {
+            insert(copy(author));
+        }
+        sequence.accumulateAndGet(author.getId(), Math::max);
+    }
+
+    void restoreDelete(int id) {
+        remove(id);
+    }
+
+    int lastId() {
+        return sequence.get();
+    }
+
+    void advanceSequence(int lastId) {
+        sequence.accumulateAndGet(lastId, Math::max);
+    }
+
+    private void insert(Author author) {
+        authors.put(author.getId(), author);
+        index(idsByName, author.getName(), author.getId());
+        index(idsByNationality, author.getNationality(), author.getId());
+        byName.add(new SortKey(lower(author.getName()), author.getId()));
+    }
+
+    /**
+     * Stores the new version with one put, so lock-free readers never miss the
+     * author; index entries for a changed name or nationality are added before the
+     * stale ones are dropped.
+     */
+    private void replace(Author author) {
+        int id = author.getId();
+        Author previous = authors.put(id, author);
+        if (!Objects.equals(previous.getName(), author.getName())) {
+            index(idsByName, author.getName(), id);
+            byName.add(new SortKey(lower(author.getName()), id));
+            unindex(idsByName, previous.getName(), id);
+            SortKey oldKey = new SortKey(lower(previous.getName()), id);
+            if (!oldKey.equals(new SortKey(lower(author.getName()), id))) {
+                byName.remove(oldKey);
+            }
+        }
+        if (!Objects.equals(previous.getNationality(), author.getNationality())) {
+            index(idsByNationality, author.getNationality(), id);
+            unindex(idsByNationality, previous.getNationality(), id);
+        }
+    }
+
+    private void remove(int id) {
+        Author author = authors.remove(id);
+        if (author != null) {
+            unindex(idsByName, author.getName(), id);
+            unindex(idsByNationality, author.getNationality(), id);
+            byName.remove(new SortKey(lower(author.getName()), id));
+        }
+    }
+
+    private List<Author> copies(Collection<Integer> ids) {
+        List<Author> result = new ArrayList<>();
+        for (int id : ids) {
+            Author author = authors.get(id);
+            if (author != null) {
+                result.add(copy(author));
+            }
+        }
+        return result;
+    }
+
+    private List<Author> page(NavigableSet<SortKey> keys, int limit) {
+        List<Author> result = new ArrayList<>();
+        Iterator<SortKey> it = keys.iterator();
+        while (it.hasNext() && (limit <= 0 || result.size() < limit)) {
+            Author author = authors.get(it.next().id);
+            if (author != null) {
+                result.add(copy(author));
+            }
+        }
+        return result;
+    }
+
+    static <K> void index(Map<K, NavigableSet<Integer>> index, K key, int id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+    static <K> void unindex(Map<K, NavigableSet<Integer>> index, K key, int id) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    static String lower(String value) {
+        return value != null ? value.toLowerCase() : "";
+    }
+
+    static Author copy(Author author) {
+        return new Author(author.getId(), author.getName(), author.getBirthYear(), author.getNationality());
+    }
+
+    /** {@code (lower(text), id)}, ordered like the database's sort indexes. */
+    static final class SortKey implements Comparable<SortKey> {
+        private final String text;
+        private final int id;
+
+        SortKey(String text, int id) {
+            this.text = text;
+            this.id = id;
+        }
+
+        int id() {
+            return id;
+        }
+
+        @Override
+        public int compareTo(SortKey other) {
+            int byText = text.compareTo(other.text);
+            return byText != 0 ? byText : Integer.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SortKey && compareTo((SortKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return text.hashCode() * 31 + id;
+        }
+    }
+}
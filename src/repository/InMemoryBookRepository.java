@@ -0,0 +1,630 @@
+package repository;
+
+import model.Author;
+import model.Book;
+import model.EBook;
+import model.PrintedBook;
+import repository.InMemoryAuthorRepository.SortKey;
+import repository.interfaces.BookRepository;
+import exception.DatabaseOperationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static repository.InMemoryAuthorRepository.index;
+import static repository.InMemoryAuthorRepository.lower;
+import static repository.InMemoryAuthorRepository.unindex;
+
+/**
+ * {@link BookRepository} held entirely in memory, for edge nodes without a
+ * database, for tests and as the baseline in benchmarks. Books live in a
+ * concurrent map by id; ISBN, author id and book type are hash indexes,
+ * {@code (lower(title), id)} and {@code (publish_year, id)} are skip lists for
+ * the sorted listings and keyset pages, and title words are a sorted map so
+ * full-text prefixes are a range. Facet counts are maintained on every write.
+ * No finder scans the catalog.
+ *
+ * Behaves like the database: unique ISBNs, authors must exist, updates never
+ * touch availability or version, and batch writes are all-or-nothing. Writes
+ * share {@link InMemoryAuthorRepository}'s lock; reads are lock-free. Books are
+ * stored without their author and resolved from the author repository on read,
+ * as the join does, so author edits show up in every book.
+ */
+public class InMemoryBookRepository implements BookRepository {
+
+    private final InMemoryAuthorRepository authors;
+    private final Object writeLock;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    private final Map<Integer, Book> books = new ConcurrentHashMap<>();
+    private final Map<String, Integer> idByIsbn = new ConcurrentHashMap<>();
+    private final Map<Integer, NavigableSet<Integer>> idsByAuthor = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Integer>> idsByType = new ConcurrentHashMap<>();
+    private final NavigableSet<SortKey> byTitle = new ConcurrentSkipListSet<>();
+    // (publish_year << 32) | id, so the natural long order is (publish_year, id)
+    private final NavigableSet<Long> byYear = new ConcurrentSkipListSet<>();
+    private final ConcurrentNavigableMap<String, NavigableSet<Integer>> idsByWord = new ConcurrentSkipListMap<>();
+
+    private final Map<String, Long> typeCounts = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> decadeCounts = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> authorCounts = new ConcurrentHashMap<>();
+
+    public InMemoryBookRepository(InMemoryAuthorRepository authors) {
+        this.authors = authors;
+        this.writeLock = authors.writeLock();
+        authors.attachBooks(this);
+    }
+
+    @Override
+    public void save(Book book) {
+        saveAll(List.of(book));
+    }
+
+    @Override
+    public void saveAll(List<Book> books) {
+        synchronized (writeLock) {
+            Set<String> isbns = new HashSet<>();
+            for (Book book : books) {
+                if (isStorable(book)) {
+                    checkIsbn(book, null, isbns, "Failed to save book");
+                    checkAuthor(book, "Failed to save book");
+                }
+            }
+            for (Book book : books) {
+                if (isStorable(book)) {
+                    book.setId(sequence.incrementAndGet());
+                    insert(copy(book, storedAuthor(book), isAvailable(book), 0));
+                }
+            }
+        }
+    }
+
+    @Override
+    public Book findById(Integer id) {
+        return read(books.get(id));
+    }
+
+    @Override
+    public List<Book> findAllById(List<Integer> ids) {
+        return read(ids);
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return read(books.keySet());
+    }
+
+    /** A snapshot of the ids at the time of the call, read book by book as the stream is consumed. */
+    @Override
+    public Stream<Book> streamAll() {
+        return new ArrayList<>(books.keySet()).stream()
+                .map(books::get)
+                .filter(book -> book != null)
+                .map(this::read);
+    }
+
+    @Override
+    public void update(Book book) {
+        updateAll(List.of(book));
+    }
+
+    @Override
+    public void updateAll(List<Book> books) {
+        synchronized (writeLock) {
+            Set<String> isbns = new HashSet<>();
+            for (Book book : books) {
+                if (isStorable(book) && this.books.containsKey(book.getId())) {
+                    checkIsbn(book, book.getId(), isbns, "Failed to update book");
+                    checkAuthor(book, "Failed to update book");
+                }
+            }
+            for (Book book : books) {
+                Book previous = isStorable(book) ? this.books.get(book.getId()) : null;
+                if (previous != null) {
+                    // availability is owned by loans, so catalog edits keep the stored flag and version
+                    replace(previous, copy(book, storedAuthor(book), isAvailable(previous), previous.getVersion()));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        synchronized (writeLock) {
+            remove(id);
+        }
+    }
+
+    @Override
+    public void deleteAllById(List<Integer> ids) {
+        synchronized (writeLock) {
+            ids.forEach(this::remove);
+        }
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        return books.containsKey(id);
+    }
+
+    @Override
+    public Book findByIsbn(String isbn) {
+        Integer id = isbn != null ? idByIsbn.get(isbn) : null;
+        return id != null ? findById(id) : null;
+    }
+
+    @Override
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        Set<String> existing = new HashSet<>();
+        for (String isbn : isbns) {
+            if (isbn != null && idByIsbn.containsKey(isbn)) {
+                existing.add(isbn);
+            }
+        }
+        return existing;
+    }
+
+    @Override
+    public List<Book> findByAuthorId(int authorId) {
+        NavigableSet<Integer> ids = idsByAuthor.get(authorId);
+        return ids != null ? read(ids) : new ArrayList<>();
+    }
+
+    @Override
+    public List<Book> findByType(String bookType) {
+        NavigableSet<Integer> ids = bookType != null ? idsByType.get(bookType) : null;
+        return ids != null ? read(ids) : new ArrayList<>();
+    }
+
+    @Override
+    public List<Book> findAllSortedByTitle(int limit) {
+        return pageByTitle(byTitle, limit);
+    }
+
+    @Override
+    public List<Book> findAllSortedByYear(int limit) {
+        return pageByYear(byYear, limit);
+    }
+
+    @Override
+    public List<Book> findPageByTitle(String afterTitle, int afterId, int limit) {
+        if (afterTitle == null) {
+            return findAllSortedByTitle(limit);
+        }
+        return pageByTitle(byTitle.tailSet(new SortKey(afterTitle.toLowerCase(), afterId), false), limit);
+    }
+
+    @Override
+    public List<Book> findPageByYear(Integer afterYear, int afterId, int limit) {
+        if (afterYear == null) {
+            return findAllSortedByYear(limit);
+        }
+        return pageByYear(byYear.tailSet(yearKey(afterYear, afterId), false), limit);
+    }
+
+    /**
+     * Answers the tsquery subset {@link utils.FullTextQuery} produces: clauses AND-ed
+     * with {@code &}, {@code term:*} prefixes and {@code (a <-> b)} phrases. Words
+     * are matched as lower-cased title words, without the database's stemming and
+     * stop words, and results come in id order rather than by rank.
+     */
+    @Override
+    public List<Book> searchFullText(String tsQuery, int offset, int limit) {
+        NavigableSet<Integer> candidates = null;
+        List<String[]> phrases = new ArrayList<>();
+        for (String clause : tsQuery.split("&")) {
+            clause = clause.trim();
+            if (clause.isEmpty()) {
+                continue;
+            }
+            String[] terms = clause.replace("(", "").replace(")", "").split("<->");
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = terms[i].trim();
+                candidates = intersect(candidates, idsMatching(terms[i]));
+            }
+            if (terms.length > 1) {
+                phrases.add(terms);
+            }
+        }
+
+        List<Book> result = new ArrayList<>();
+        if (candidates == null) {
+            return result;
+        }
+        int skipped = 0;
+        for (int id : candidates) {
+            Book book = books.get(id);
+            if (book == null || !containsPhrases(book.getTitle(), phrases)) {
+                continue;
+            }
+            if (skipped++ < offset && limit > 0) {
+                continue;
+            }
+            result.add(read(book));
+            if (limit > 0 && result.size() == limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> countByType() {
+        return new HashMap<>(typeCounts);
+    }
+
+    @Override
+    public Map<Integer, Long> countByDecade() {
+        return new HashMap<>(decadeCounts);
+    }
+
+    @Override
+    public Map<Integer, Long> countByAuthor() {
+        return new HashMap<>(authorCounts);
+    }
+
+    /** Folds the per-author counts by the authors' current nationality; one pass over authors, not books. */
+    @Override
+    public Map<String, Long> countByAuthorNationality() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Map.Entry<Integer, Long> entry : authorCounts.entrySet()) {
+            Author author = authors.stored(entry.getKey());
+            if (author != null) {
+                counts.merge(author.getNationality(), entry.getValue(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    boolean hasBooksByAuthor(int authorId) {
+        return idsByAuthor.containsKey(authorId);
+    }
+
+    Collection<Book> storedBooks() {
+        return books.values();
+    }
+
+    /**
+     * Puts a book back under its own id with its availability and version, as
+     * recovered from disk. Nothing is checked; the id sequence catches up.
+     */
+    void restore(Book book) {
+        if (isStorable(book)) {
+            Book restored = copy(book, book.getAuthor(), isAvailable(book), book.getVersion());
+            Book previous = books.get(book.getId());
+            if (previous != null) {
+                replace(previous, restored);
+            } else {
+                insert(restored);
+            }
+            sequence.accumulateAndGet(book.getId(), Math::max);
+        }
+    }
+
+    void restoreDelete(int id) {
+        remove(id);
+    }
+
+    int lastId() {
+        return sequence.get();
+    }
+
+    void advanceSequence(int lastId) {
+        sequence.accumulateAndGet(lastId, Math::max);
+    }
+
+    private void insert(Book book) {
+        int id = book.getId();
+        books.put(id, book);
+        if (book.getIsbn() != null) {
+            idByIsbn.put(book.getIsbn(), id);
+        }
+        Integer authorId = authorId(book);
+        if (authorId != null) {
+            index(idsByAuthor, authorId, id);
+            count(authorCounts, authorId, 1);
+        }
+        index(idsByType, book.getBookType(), id);
+        count(typeCounts, book.getBookType(), 1);
+        count(decadeCounts, book.getYear() / 10 * 10, 1);
+        byTitle.add(new SortKey(lower(book.getTitle()), id));
+        byYear.add(yearKey(book.getYear(), id));
+        for (String word : words(book.getTitle())) {
+            index(idsByWord, word, id);
+        }
+    }
+
+    /**
+     * Stores a new version of {@code previous} with one put, so a lock-free reader
+     * sees the old book or the new one but never neither. Index entries for changed
+     * values are then added, and the stale ones dropped only after that.
+     */
+    private void replace(Book previous, Book book) {
+        int id = book.getId();
+        books.put(id, book);
+
+        String oldIsbn = previous.getIsbn();
+        String newIsbn = book.getIsbn();
+        boolean isbnChanged = !Objects.equals(oldIsbn, newIsbn);
+        Integer oldAuthor = authorId(previous);
+        Integer newAuthor = authorId(book);
+        boolean authorChanged = !Objects.equals(oldAuthor, newAuthor);
+        boolean typeChanged = !Objects.equals(previous.getBookType(), book.getBookType());
+        int oldDecade = previous.getYear() / 10 * 10;
+        int newDecade = book.getYear() / 10 * 10;
+        SortKey oldTitle = new SortKey(lower(previous.getTitle()), id);
+        SortKey newTitle = new SortKey(lower(book.getTitle()), id);
+        long oldYear = yearKey(previous.getYear(), id);
+        long newYear = yearKey(book.getYear(), id);
+        Set<String> oldWords = new HashSet<>(words(previous.getTitle()));
+        Set<String> newWords = new HashSet<>(words(book.getTitle()));
+
+        if (isbnChanged && newIsbn != null) {
+            idByIsbn.put(newIsbn, id);
+        }
+        if (authorChanged && newAuthor != null) {
+            index(idsByAuthor, newAuthor, id);
+            count(authorCounts, newAuthor, 1);
+        }
+        if (typeChanged) {
+            index(idsByType, book.getBookType(), id);
+            count(typeCounts, book.getBookType(), 1);
+        }
+        if (oldDecade != newDecade) {
+            count(decadeCounts, newDecade, 1);
+        }
+        byTitle.add(newTitle);
+        byYear.add(newYear);
+        for (String word : newWords) {
+            if (!oldWords.contains(word)) {
+                index(idsByWord, word, id);
+            }
+        }
+
+        if (isbnChanged && oldIsbn != null) {
+            idByIsbn.remove(oldIsbn, id);
+        }
+        if (authorChanged && oldAuthor != null) {
+            unindex(idsByAuthor, oldAuthor, id);
+            count(authorCounts, oldAuthor, -1);
+        }
+        if (typeChanged) {
+            unindex(idsByType, previous.getBookType(), id);
+            count(typeCounts, previous.getBookType(), -1);
+        }
+        if (oldDecade != newDecade) {
+            count(decadeCounts, oldDecade, -1);
+        }
+        if (!oldTitle.equals(newTitle)) {
+            byTitle.remove(oldTitle);
+        }
+        if (oldYear != newYear) {
+            byYear.remove(oldYear);
+        }
+        for (String word : oldWords) {
+            if (!newWords.contains(word)) {
+                unindex(idsByWord, word, id);
+            }
+        }
+    }
+
+    private void remove(int id) {
+        Book book = books.remove(id);
+        if (book == null) {
+            return;
+        }
+        if (book.getIsbn() != null) {
+            idByIsbn.remove(book.getIsbn(), id);
+        }
+        Integer authorId = authorId(book);
+        if (authorId != null) {
+            unindex(idsByAuthor, authorId, id);
+            count(authorCounts, authorId, -1);
+        }
+        unindex(idsByType, book.getBookType(), id);
+        count(typeCounts, book.getBookType(), -1);
+        count(decadeCounts, book.getYear() / 10 * 10, -1);
+        byTitle.remove(new SortKey(lower(book.getTitle()), id));
+        byYear.remove(yearKey(book.getYear(), id));
+        for (String word : words(book.getTitle())) {
+            unindex(idsByWord, word, id);
+        }
+    }
+
+    private void checkIsbn(Book book, Integer ownId, Set<String> batchIsbns, String action) {
+        String isbn = book.getIsbn();
+        if (isbn == null) {
+            return;
+        }
+        Integer holder = idByIsbn.get(isbn);
+        if ((holder != null && !holder.equals(ownId)) || !batchIsbns.add(isbn)) {
+            throw new RuntimeException(
+                    new DatabaseOperationException(action + ": ISBN '" + isbn + "' already exists"));
+        }
+    }
+
+    private void checkAuthor(Book book, String action) {
+        Integer authorId = authorId(book);
+        if (authorId != null && authors.stored(authorId) == null) {
+            throw new RuntimeException(
+                    new DatabaseOperationException(action + ": author " + authorId + " does not exist"));
+        }
+    }
+
+    private Author storedAuthor(Book book) {
+        Integer authorId = authorId(book);
+        return authorId != null ? authors.stored(authorId) : null;
+    }
+
+    private List<Book> pageByTitle(NavigableSet<SortKey> keys, int limit) {
+        List<Book> result = new ArrayList<>();
+        Iterator<SortKey> it = keys.iterator();
+        while (it.hasNext() && (limit <= 0 || result.size() < limit)) {
+            Book book = books.get(it.next().id());
+            if (book != null) {
+                result.add(read(book));
+            }
+        }
+        return result;
+    }
+
+    private List<Book> pageByYear(NavigableSet<Long> keys, int limit) {
+        List<Book> result = new ArrayList<>();
+        Iterator<Long> it = keys.iterator();
+        while (it.hasNext() && (limit <= 0 || result.size() < limit)) {
+            Book book = books.get((int) it.next().longValue());
+            if (book != null) {
+                result.add(read(book));
+            }
+        }
+        return result;
+    }
+
+    private NavigableSet<Integer> idsMatching(String term) {
+        if (term.endsWith(":*")) {
+            String prefix = term.substring(0, term.length() - 2);
+            NavigableSet<Integer> ids = new TreeSet<>();
+            for (NavigableSet<Integer> wordIds : idsByWord.subMap(prefix, true, prefix + Character.MAX_VALUE, true)
+                    .values()) {
+                ids.addAll(wordIds);
+            }
+            return ids;
+        }
+        NavigableSet<Integer> ids = idsByWord.get(term);
+        return ids != null ? ids : new TreeSet<>();
+    }
+
+    private static NavigableSet<Integer> intersect(NavigableSet<Integer> current, NavigableSet<Integer> ids) {
+        if (current == null) {
+            return new TreeSet<>(ids);
+        }
+        current.retainAll(ids);
+        return current;
+    }
+
+    private static boolean containsPhrases(String title, List<String[]> phrases) {
+        if (phrases.isEmpty()) {
+            return true;
+        }
+        List<String> words = words(title);
+        for (String[] phrase : phrases) {
+            if (!containsPhrase(words, phrase)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsPhrase(List<String> words, String[] phrase) {
+        for (int start = 0; start + phrase.length <= words.size(); start++) {
+            int i = 0;
+            while (i < phrase.length && matches(words.get(start + i), phrase[i])) {
+                i++;
+            }
+            if (i == phrase.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(String word, String term) {
+        return term.endsWith(":*") ? word.startsWith(term.substring(0, term.length() - 2)) : word.equals(term);
+    }
+
+    /** Lower-cased runs of letters and digits, the same split {@link utils.FullTextQuery} applies to input. */
+    private static List<String> words(String title) {
+        List<String> words = new ArrayList<>();
+        if (title == null) {
+            return words;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= title.length(); i++) {
+            char c = i < title.length() ? title.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return words;
+    }
+
+    private static <K> void count(Map<K, Long> counts, K key, long delta) {
+        if (key != null) {
+            counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private static long yearKey(int year, int id) {
+        return ((long) year << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    private static Integer authorId(Book book) {
+        return book.getAuthor() != null ? book.getAuthor().getId() : null;
+    }
+
+    private static boolean isStorable(Book book) {
+        return book instanceof EBook || book instanceof PrintedBook;
+    }
+
+    private static boolean isAvailable(Book book) {
+        return book instanceof EBook ? ((EBook) book).isAvailable() : ((PrintedBook) book).isAvailable();
+    }
+
+    private List<Book> read(Collection<Integer> ids) {
+        List<Book> result = new ArrayList<>();
+        for (int id : ids) {
+            Book book = books.get(id);
+            if (book != null) {
+                result.add(read(book));
+            }
+        }
+        return result;
+    }
+
+    /** A fresh copy of a stored book with its author as it is now. */
+    private Book read(Book stored) {
+        if (stored == null) {
+            return null;
+        }
+        Author author = storedAuthor(stored);
+        return copy(stored, author != null ? InMemoryAuthorRepository.copy(author) : null, isAvailable(stored),
+                stored.getVersion());
+    }
+
+    private static Book copy(Book book, Author author, boolean available, int version) {
+        Book copy;
+        if (book instanceof EBook) {
+            EBook eBook = (EBook) book;
+            EBook c = new EBook(book.getId(), book.getTitle(), author, book.getYear(), book.getIsbn(),
+                    eBook.getFileSize(), eBook.getDownloadURL());
+            c.setAvailable(available);
+            copy = c;
+        } else {
+            PrintedBook printed = (PrintedBook) book;
+            PrintedBook c = new PrintedBook(book.getId(), book.getTitle(), author, book.getYear(), book.getIsbn(),
+                    printed.getShelfLocation(), printed.getWeight());
+            c.setAvailable(available);
+            copy = c;
+        }
+        copy.setVersion(version);
+        return copy;
+    }
+}
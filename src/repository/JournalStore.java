@@ -0,0 +1,387 @@
+package repository;
+
+import model.Author;
+import model.Book;
+import repository.interfaces.AuthorRepository;
+import repository.interfaces.BookRepository;
+import exception.DatabaseOperationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Embedded storage for the catalog without PostgreSQL: the in-memory
+ * repositories serve every read, and every write is also appended to a
+ * {@link CatalogJournal} in {@code directory}. A checkpoint writes the whole
+ * catalog to {@code catalog.snapshot} and starts a new journal generation, so
+ * the journals never hold more than the changes since the last snapshot.
+ *
+ * Opening the store is the crash recovery: the snapshot is loaded, then every
+ * journal from the snapshot's generation on is replayed in order, which rebuilds
+ * the in-memory indexes. Records are whole batches and are replayed as put/delete
+ * by id, so replaying a change twice is harmless.
+ *
+ * Files: {@code catalog.snapshot} and {@code journal-<generation>.log}.
+ */
+public class JournalStore implements AutoCloseable {
+
+    private static final String SNAPSHOT_FILE = "catalog.snapshot";
+    private static final Pattern JOURNAL_FILE = Pattern.compile("journal-(\\d+)\\.log");
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalMillis;
+    private final int mapChunkBytes;
+    private final InMemoryAuthorRepository authors = new InMemoryAuthorRepository();
+    private final InMemoryBookRepository books = new InMemoryBookRepository(authors);
+    private final JournalingAuthorRepository authorRepository;
+    private final JournalingBookRepository bookRepository;
+    private final Object checkpointLock = new Object();
+
+    private volatile CatalogJournal journal;
+    private ScheduledExecutorService compactor;
+    private long replayedRecords;
+    private long checkpoints;
+
+    private JournalStore(Path directory, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis, int mapChunkBytes) {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.mapChunkBytes = mapChunkBytes;
+        this.authorRepository = new JournalingAuthorRepository(authors, this);
+        this.bookRepository = new JournalingBookRepository(books, this);
+    }
+
+    public static JournalStore open(Path directory, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis,
+            int mapChunkBytes) throws IOException {
+        JournalStore store = new JournalStore(directory, fsyncPolicy, fsyncIntervalMillis, mapChunkBytes);
+        store.recover();
+        return store;
+    }
+
+    public AuthorRepository getAuthorRepository() {
+        return authorRepository;
+    }
+
+    public BookRepository getBookRepository() {
+        return bookRepository;
+    }
+
+    /**
+     * Writes a snapshot of the catalog and drops the journals it covers. Writers
+     * are only held up while the state is copied and the next journal is opened;
+     * the snapshot itself is written outside the lock.
+     */
+    public void checkpoint() throws IOException {
+        synchronized (checkpointLock) {
+            List<Author> authorState;
+            List<Book> bookState;
+            int lastAuthorId;
+            int lastBookId;
+            CatalogJournal previous;
+            long next;
+            synchronized (authors.writeLock()) {
+                if (journal.size() == 0) {
+                    return;
+                }
+                authorState = new ArrayList<>(authors.storedAuthors());
+                bookState = new ArrayList<>(books.storedBooks());
+                lastAuthorId = authors.lastId();
+                lastBookId = books.lastId();
+                previous = journal;
+                next = previous.generation() + 1;
+                journal = openJournal(next);
+            }
+            previous.close();
+            // a crash before the rename leaves the old snapshot and every journal since, which still recovers
+            CatalogSnapshotFile.write(directory.resolve(SNAPSHOT_FILE), next, lastAuthorId, lastBookId, authorState,
+                    bookState);
+            for (long generation : journalGenerations()) {
+                if (generation < next) {
+                    Files.deleteIfExists(journalPath(generation));
+                }
+            }
+            checkpoints++;
+        }
+    }
+
+    /** Checkpoints every {@code intervalSeconds} once the journal holds at least {@code minJournalBytes}. */
+    public synchronized void startCompaction(long intervalSeconds, long minJournalBytes) {
+        if (compactor != null) {
+            return;
+        }
+        compactor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "journal-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(() -> {
+            try {
+                if (journal.size() >= minJournalBytes) {
+                    checkpoint();
+                }
+            } catch (IOException | RuntimeException e) {
+                // an exception would cancel every later run
+                System.err.println("[journal] Checkpoint failed: " + e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public String getStats() {
+        CatalogJournal current = journal;
+        return String.format("Journal store %s: %d authors, %d books; journal generation %d holds %d KB "
+                + "(%d records, %d forces, fsync %s); %d checkpoints, %d records replayed at startup",
+                directory, authors.storedAuthors().size(), books.storedBooks().size(), current.generation(),
+                current.size() / 1024, current.recordCount(), current.forceCount(), fsyncPolicy, checkpoints,
+                replayedRecords);
+    }
+
+    /** Stops compaction, checkpoints (so the next start only loads the snapshot) and closes the journal. */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (compactor != null) {
+                compactor.shutdownNow();
+                compactor = null;
+            }
+        }
+        try {
+            checkpoint();
+        } finally {
+            journal.close();
+        }
+    }
+
+    /**
+     * Applies {@code change} to the in-memory repositories and appends a
+     * {@code type} record of the entities {@code ids} names afterwards (their stored
+     * state, or just the ids for a delete), both under the write lock so journal
+     * order is apply order. If the append fails, the entities are put back as they
+     * were, so memory never holds a change the journal lost; a journal that failed
+     * to sync refuses writes before they are applied. Waiting for the disk happens
+     * after the lock is released, which lets concurrent writers share a force, so
+     * with {@code fsync=always} a write is visible to readers while its own force
+     * is in flight.
+     */
+    void commit(Runnable change, byte type, Supplier<Collection<Integer>> ids) {
+        boolean ofAuthors = type == CatalogJournal.PUT_AUTHORS || type == CatalogJournal.DELETE_AUTHORS;
+        boolean delete = type == CatalogJournal.DELETE_AUTHORS || type == CatalogJournal.DELETE_BOOKS;
+        CatalogJournal target;
+        long position;
+        synchronized (authors.writeLock()) {
+            target = journal;
+            try {
+                target.checkWritable();
+            } catch (IOException e) {
+                throw new RuntimeException(new DatabaseOperationException("Failed to write journal", e));
+            }
+            // for a save these are the ids the entities had before, which the rollback only rewrites as they were
+            Map<Integer, Object> before = storedState(ofAuthors, ids.get());
+            change.run();
+            Collection<Integer> changed = ids.get();
+            try {
+                byte[] payload = delete ? encodeIds(changed)
+                        : ofAuthors ? encodeAuthors(changed) : encodeBooks(changed);
+                if (payload == null) {
+                    return;
+                }
+                position = target.append(type, payload);
+            } catch (IOException | RuntimeException e) {
+                rollBack(ofAuthors, before, changed);
+                throw new RuntimeException(new DatabaseOperationException("Failed to write journal", e));
+            }
+        }
+        try {
+            target.awaitDurable(position);
+        } catch (IOException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to sync journal", e));
+        }
+    }
+
+    private Map<Integer, Object> storedState(boolean ofAuthors, Collection<Integer> ids) {
+        Map<Integer, Object> state = new HashMap<>();
+        for (int id : ids) {
+            Object stored = ofAuthors ? authors.stored(id) : books.findById(id);
+            if (stored != null) {
+                state.put(id, stored);
+            }
+        }
+        return state;
+    }
+
+    /** Restores what {@link #storedState} captured and drops anything the change created. */
+    private void rollBack(boolean ofAuthors, Map<Integer, Object> before, Collection<Integer> changed) {
+        Set<Integer> ids = new HashSet<>(changed);
+        ids.addAll(before.keySet());
+        for (int id : ids) {
+            Object previous = before.get(id);
+            if (ofAuthors) {
+                if (previous != null) {
+                    authors.restore((Author) previous);
+                } else {
+                    authors.restoreDelete(id);
+                }
+            } else if (previous != null) {
+                books.restore((Book) previous);
+            } else {
+                books.restoreDelete(id);
+            }
+        }
+    }
+
+    private byte[] encodeAuthors(Collection<Integer> ids) {
+        List<Author> stored = new ArrayList<>();
+        for (int id : ids) {
+            Author author = authors.stored(id);
+            if (author != null) {
+                stored.add(author);
+            }
+        }
+        return stored.isEmpty() ? null : encode(out -> {
+            out.writeInt(stored.size());
+            for (Author author : stored) {
+                CatalogCodec.writeAuthor(out, author);
+            }
+        });
+    }
+
+    private byte[] encodeBooks(Collection<Integer> ids) {
+        List<Book> stored = new ArrayList<>();
+        for (int id : ids) {
+            Book book = books.findById(id);
+            if (book != null) {
+                stored.add(book);
+            }
+        }
+        return stored.isEmpty() ? null : encode(out -> {
+            out.writeInt(stored.size());
+            for (Book book : stored) {
+                CatalogCodec.writeBook(out, book, CatalogCodec.isAvailable(book), book.getVersion());
+            }
+        });
+    }
+
+    private byte[] encodeIds(Collection<Integer> ids) {
+        return ids.isEmpty() ? null : encode(out -> {
+            out.writeInt(ids.size());
+            for (int id : ids) {
+                out.writeInt(id);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] encode(Encoder encoder) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            encoder.write(out);
+        } catch (IOException e) {
+            // in-memory streams do not fail
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void recover() throws IOException {
+        long start = System.currentTimeMillis();
+        Files.createDirectories(directory);
+        long firstGeneration = 1;
+        CatalogSnapshotFile.Contents snapshot = CatalogSnapshotFile.read(directory.resolve(SNAPSHOT_FILE));
+        if (snapshot != null) {
+            snapshot.getAuthors().forEach(authors::restore);
+            snapshot.getBooks().forEach(books::restore);
+            authors.advanceSequence(snapshot.getLastAuthorId());
+            books.advanceSequence(snapshot.getLastBookId());
+            firstGeneration = snapshot.getStamp();
+        }
+
+        List<Long> generations = journalGenerations();
+        for (long generation : generations) {
+            if (generation < firstGeneration) {
+                // already in the snapshot; left behind by a crash during the last checkpoint
+                Files.deleteIfExists(journalPath(generation));
+                continue;
+            }
+            CatalogJournal replayed = CatalogJournal.open(journalPath(generation), generation, fsyncPolicy,
+                    fsyncIntervalMillis, mapChunkBytes, this::replay);
+            if (generation == generations.get(generations.size() - 1)) {
+                journal = replayed;
+            } else {
+                replayed.close();
+            }
+        }
+        if (journal == null) {
+            journal = openJournal(firstGeneration);
+        }
+        System.out.println("✓ Journal store recovered from " + directory + " (" + authors.storedAuthors().size()
+                + " authors, " + books.storedBooks().size() + " books, " + replayedRecords
+                + " journal records replayed in " + (System.currentTimeMillis() - start) + "ms)");
+    }
+
+    private void replay(byte type, ByteBuffer payload) {
+        int count = payload.getInt();
+        for (int i = 0; i < count; i++) {
+            switch (type) {
+                case CatalogJournal.PUT_AUTHORS:
+                    authors.restore(CatalogCodec.readAuthor(payload));
+                    break;
+                case CatalogJournal.DELETE_AUTHORS:
+                    authors.restoreDelete(payload.getInt());
+                    break;
+                case CatalogJournal.PUT_BOOKS:
+                    books.restore(CatalogCodec.readBook(payload));
+                    break;
+                case CatalogJournal.DELETE_BOOKS:
+                    books.restoreDelete(payload.getInt());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown journal record type " + type);
+            }
+        }
+        replayedRecords++;
+    }
+
+    private CatalogJournal openJournal(long generation) throws IOException {
+        return CatalogJournal.open(journalPath(generation), generation, fsyncPolicy, fsyncIntervalMillis,
+                mapChunkBytes, (type, payload) -> {
+                    throw new IllegalStateException("Journal generation " + generation + " already exists");
+                });
+    }
+
+    private Path journalPath(long generation) {
+        return directory.resolve("journal-" + generation + ".log");
+    }
+
+    private List<Long> journalGenerations() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> JOURNAL_FILE.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package repository;
+
+import model.Author;
+import repository.interfaces.AuthorRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link JournalStore}'s author repository: reads go straight to the
+ * in-memory repository, writes are applied there and then journaled.
+ */
+public class JournalingAuthorRepository implements AuthorRepository {
+
+    private final InMemoryAuthorRepository delegate;
+    private final JournalStore store;
+
+    JournalingAuthorRepository(InMemoryAuthorRepository delegate, JournalStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public void save(Author author) {
+        store.commit(() -> delegate.save(author), CatalogJournal.PUT_AUTHORS,
+                () -> List.of(author.getId()));
+    }
+
+    @Override
+    public void saveAll(List<Author> authors) {
+        store.commit(() -> delegate.saveAll(authors), CatalogJournal.PUT_AUTHORS,
+                () -> idsOf(authors));
+    }
+
+    @Override
+    public Author findById(Integer id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Author> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void update(Author author) {
+        store.commit(() -> delegate.update(author), CatalogJournal.PUT_AUTHORS,
+                () -> List.of(author.getId()));
+    }
+
+    @Override
+    public void updateAll(List<Author> authors) {
+        store.commit(() -> delegate.updateAll(authors), CatalogJournal.PUT_AUTHORS,
+                () -> idsOf(authors));
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        store.commit(() -> delegate.deleteById(id), CatalogJournal.DELETE_AUTHORS,
+                () -> List.of(id));
+    }
+
+    @Override
+    public void deleteAllById(List<Integer> ids) {
+        store.commit(() -> delegate.deleteAllById(ids), CatalogJournal.DELETE_AUTHORS,
+                () -> ids);
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public Author findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public Set<String> findExistingNames(Collection<String> names) {
+        return delegate.findExistingNames(names);
+    }
+
+    @Override
+    public List<Author> findByNationality(String nationality) {
+        return delegate.findByNationality(nationality);
+    }
+
+    @Override
+    public List<Author> findAllSortedByName(int limit) {
+        return delegate.findAllSortedByName(limit);
+    }
+
+    @Override
+    public List<Author> findPageByName(String afterName, int afterId, int limit) {
+        return delegate.findPageByName(afterName, afterId, limit);
+    }
+
+    private static List<Integer> idsOf(List<Author> authors) {
+        return authors.stream().map(Author::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,157 @@
+package repository;
+
+import model.Book;
+import repository.interfaces.BookRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The {@link JournalStore}'s book repository: reads go straight to the
+ * in-memory repository, writes are applied there and then journaled with the
+ * stored state (assigned id, kept availability and version).
+ */
+public class JournalingBookRepository implements BookRepository {
+
+    private final InMemoryBookRepository delegate;
+    private final JournalStore store;
+
+    JournalingBookRepository(InMemoryBookRepository delegate, JournalStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public void save(Book book) {
+        store.commit(() -> delegate.save(book), CatalogJournal.PUT_BOOKS,
+                () -> List.of(book.getId()));
+    }
+
+    @Override
+    public void saveAll(List<Book> books) {
+        store.commit(() -> delegate.saveAll(books), CatalogJournal.PUT_BOOKS,
+                () -> idsOf(books));
+    }
+
+    @Override
+    public Book findById(Integer id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Book> findAllById(List<Integer> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Book> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public void update(Book book) {
+        store.commit(() -> delegate.update(book), CatalogJournal.PUT_BOOKS,
+                () -> List.of(book.getId()));
+    }
+
+    @Override
+    public void updateAll(List<Book> books) {
+        store.commit(() -> delegate.updateAll(books), CatalogJournal.PUT_BOOKS,
+                () -> idsOf(books));
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        store.commit(() -> delegate.deleteById(id), CatalogJournal.DELETE_BOOKS,
+                () -> List.of(id));
+    }
+
+    @Override
+    public void deleteAllById(List<Integer> ids) {
+        store.commit(() -> delegate.deleteAllById(ids), CatalogJournal.DELETE_BOOKS,
+                () -> ids);
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public Book findByIsbn(String isbn) {
+        return delegate.findByIsbn(isbn);
+    }
+
+    @Override
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        return delegate.findExistingIsbns(isbns);
+    }
+
+    @Override
+    public List<Book> findByAuthorId(int authorId) {
+        return delegate.findByAuthorId(authorId);
+    }
+
+    @Override
+    public List<Book> findByType(String bookType) {
+        return delegate.findByType(bookType);
+    }
+
+    @Override
+    public List<Book> findAllSortedByTitle(int limit) {
+        return delegate.findAllSortedByTitle(limit);
+    }
+
+    @Override
+    public List<Book> findAllSortedByYear(int limit) {
+        return delegate.findAllSortedByYear(limit);
+    }
+
+    @Override
+    public List<Book> findPageByTitle(String afterTitle, int afterId, int limit) {
+        return delegate.findPageByTitle(afterTitle, afterId, limit);
+    }
+
+    @Override
+    public List<Book> findPageByYear(Integer afterYear, int afterId, int limit) {
+        return delegate.findPageByYear(afterYear, afterId, limit);
+    }
+
+    @Override
+    public List<Book> searchFullText(String tsQuery, int offset, int limit) {
+        return delegate.searchFullText(tsQuery, offset, limit);
+    }
+
+    @Override
+    public Map<String, Long> countByType() {
+        return delegate.countByType();
+    }
+
+    @Override
+    public Map<Integer, Long> countByDecade() {
+        return delegate.countByDecade();
+    }
+
+    @Override
+    public Map<Integer, Long> countByAuthor() {
+        return delegate.countByAuthor();
+    }
+
+    @Override
+    public Map<String, Long> countByAuthorNationality() {
+        return delegate.countByAuthorNationality();
+    }
+
+    private static List<Integer> idsOf(List<Book> books) {
+        return books.stream().map(Book::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,69 @@
+package repository;
+
+import model.Borrowable;
+import repository.interfaces.LateFeeRepository;
+import utils.DatabaseConnection;
+import exception.DatabaseOperationException;
+
+import java.sql.*;
+import java.time.LocalDate;
+
+/**
+ * Set-based late-fee accrual. One INSERT ... SELECT computes the fee of every
+ * overdue loan in an id range (days overdue times the book type's daily rate,
+ * capped at {@link Borrowable#getMaxLateFee}) and upserts it into
+ * {@code late_fees}. A row is only rewritten when its day count or settled flag
+ * changes, and settled rows are skipped, so a re-run on the same day touches
+ * nothing and a run after missed days simply catches up.
+ */
+public class LateFeeRepositoryImpl implements LateFeeRepository {
+
+    private static final String ACCRUE_FEES = "WITH p AS (SELECT ?::date AS as_of, "
+            + "?::numeric AS ebook_rate, ?::numeric AS ebook_cap, "
+            + "?::numeric AS printed_rate, ?::numeric AS printed_cap) "
+            + "INSERT INTO late_fees(loan_id, patron, days_overdue, amount, settled, accrued_on) "
+            + "SELECT l.id, l.patron, o.days, "
+            + "round(least(o.days * CASE b.book_type WHEN 'EBOOK' THEN p.ebook_rate ELSE p.printed_rate END, "
+            + "CASE b.book_type WHEN 'EBOOK' THEN p.ebook_cap ELSE p.printed_cap END), 2), "
+            + "l.returned_at IS NOT NULL AND l.returned_at::date <= p.as_of, p.as_of "
+            + "FROM loans l JOIN books b ON b.id = l.book_id CROSS JOIN p "
+            + "CROSS JOIN LATERAL (SELECT least(coalesce(l.returned_at::date, p.as_of), p.as_of) "
+            + "- l.due_at::date AS days) o "
+            + "WHERE l.id BETWEEN ? AND ? AND l.due_at::date < p.as_of "
+            + "AND (l.returned_at IS NULL OR l.returned_at::date > l.due_at::date) "
+            + "AND NOT EXISTS (SELECT 1 FROM late_fees f WHERE f.loan_id = l.id AND f.settled) "
+            + "ON CONFLICT (loan_id) DO UPDATE SET days_overdue = excluded.days_overdue, amount = excluded.amount, "
+            + "settled = excluded.settled, accrued_on = excluded.accrued_on, updated_at = now() "
+            + "WHERE late_fees.days_overdue <> excluded.days_overdue OR late_fees.settled <> excluded.settled";
+
+    @Override
+    public int accrueFees(LocalDate asOf, int fromLoanId, int toLoanId, double eBookRate, double printedRate) {
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(ACCRUE_FEES)) {
+
+            ps.setDate(1, Date.valueOf(asOf));
+            ps.setDouble(2, eBookRate);
+            ps.setDouble(3, Borrowable.getMaxLateFee(eBookRate));
+            ps.setDouble(4, printedRate);
+            ps.setDouble(5, Borrowable.getMaxLateFee(printedRate));
+            ps.setInt(6, fromLoanId);
+            ps.setInt(7, toLoanId);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to accrue late fees", e));
+        }
+    }
+
+    @Override
+    public int findMaxLoanId() {
+        try (Connection conn = DatabaseConnection.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT coalesce(max(id), 0) FROM loans")) {
+
+            rs.next();
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to find loans", e));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package repository;
+
+import model.Hold;
+import model.Loan;
+import model.ReturnResult;
+import repository.interfaces.LoanRepository;
+import utils.DatabaseConnection;
+import exception.DatabaseOperationException;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Borrow and return as single transactions. The availability flip is a
+ * conditional UPDATE rather than a read followed by a write, so of any number of
+ * concurrent checkouts of one copy exactly one matches {@code available} and the
+ * rest update zero rows; no row locks are held between statements. Every flip
+ * also bumps {@code books.version} and returns the new value with the loan, so
+ * callers can order what they do after the commit.
+ *
+ * A return locks the book row (as {@link HoldRepositoryImpl#placeHold} does) and,
+ * if anyone is queued, hands the copy to the oldest hold in the same transaction,
+ * so the book is never seen on the shelf in between.
+ */
+public class LoanRepositoryImpl implements LoanRepository {
+
+    private static final String MARK_BORROWED = "UPDATE books SET available = false, version = version + 1 "
+            + "WHERE id = ? AND available RETURNING version";
+    private static final String MARK_RETURNED = "UPDATE books SET available = true, version = version + 1 "
+            + "WHERE id = ? AND NOT available RETURNING version";
+    private static final String MARK_HANDED_OFF = "UPDATE books SET version = version + 1 WHERE id = ? "
+            + "RETURNING version";
+    private static final String LOCK_BOOK = "SELECT id FROM books WHERE id = ? FOR UPDATE";
+    private static final String FULFIL_NEXT_HOLD = "UPDATE holds SET fulfilled_at = now() WHERE id = "
+            + "(SELECT id FROM holds WHERE book_id = ? AND " + HoldRepositoryImpl.OPEN + " ORDER BY id LIMIT 1) "
+            + "RETURNING id, book_id, patron, placed_at";
+    private static final String LINK_HOLD = "UPDATE holds SET loan_id = ? WHERE id = ?";
+    private static final String INSERT_LOAN = "INSERT INTO loans(book_id, patron, due_at) "
+            + "VALUES(?, ?, now() + make_interval(days => ?)) RETURNING id, borrowed_at, due_at";
+    private static final String CLOSE_LOAN = "UPDATE loans SET returned_at = now() "
+            + "WHERE book_id = ? AND returned_at IS NULL "
+            + "RETURNING id, book_id, patron, borrowed_at, due_at, returned_at";
+    private static final String SELECT_LOANS = "SELECT id, book_id, patron, borrowed_at, due_at, returned_at "
+            + "FROM loans";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    @Override
+    public Loan checkout(int bookId, String patron, int loanDays) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int version;
+                try (PreparedStatement ps = conn.prepareStatement(MARK_BORROWED)) {
+                    ps.setInt(1, bookId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return null;
+                        }
+                        version = rs.getInt("version");
+                    }
+                }
+
+                Loan loan = insertLoan(conn, bookId, patron, loanDays, version);
+                conn.commit();
+                return loan;
+            } catch (SQLException e) {
+                conn.rollback();
+                // an open loan already exists although the flag said available
+                if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    return null;
+                }
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to borrow book", e));
+        }
+    }
+
+    @Override
+    public ReturnResult checkin(int bookId, int loanDays) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = conn.prepareStatement(LOCK_BOOK)) {
+                    ps.setInt(1, bookId);
+                    ps.executeQuery().close();
+                }
+
+                Loan loan;
+                try (PreparedStatement ps = conn.prepareStatement(CLOSE_LOAN)) {
+                    ps.setInt(1, bookId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return null;
+                        }
+                        loan = mapLoan(rs);
+                    }
+                }
+
+                Hold hold = null;
+                try (PreparedStatement ps = conn.prepareStatement(FULFIL_NEXT_HOLD)) {
+                    ps.setInt(1, bookId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            hold = HoldRepositoryImpl.mapHold(rs);
+                        }
+                    }
+                }
+
+                Loan handOff = null;
+                if (hold != null) {
+                    handOff = insertLoan(conn, bookId, hold.getPatron(), loanDays, 0);
+                    try (PreparedStatement ps = conn.prepareStatement(LINK_HOLD)) {
+                        ps.setInt(1, handOff.getId());
+                        ps.setInt(2, hold.getId());
+                        ps.executeUpdate();
+                    }
+                }
+                // 0 when the flag was already up, which the row lock makes a data error, not a race
+                int version = 0;
+                try (PreparedStatement ps = conn.prepareStatement(hold != null ? MARK_HANDED_OFF : MARK_RETURNED)) {
+                    ps.setInt(1, bookId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            version = rs.getInt("version");
+                        }
+                    }
+                }
+                conn.commit();
+                return new ReturnResult(loan, hold, handOff, version);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to return book", e));
+        }
+    }
+
+    @Override
+    public Loan findOpenLoan(int bookId) {
+        String sql = SELECT_LOANS + " WHERE book_id = ? AND returned_at IS NULL";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, bookId);
+            ResultSet rs = ps.executeQuery();
+            return rs.next() ? mapLoan(rs) : null;
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to find open loan", e));
+        }
+    }
+
+    @Override
+    public List<Loan> findOpenLoansByPatron(String patron) {
+        String sql = SELECT_LOANS + " WHERE patron = ? AND returned_at IS NULL ORDER BY due_at, id";
+        List<Loan> loans = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, patron);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                loans.add(mapLoan(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(new DatabaseOperationException("Failed to find loans by patron", e));
+        }
+        return loans;
+    }
+
+    private static Loan insertLoan(Connection conn, int bookId, String patron, int loanDays, int bookVersion)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_LOAN)) {
+            ps.setInt(1, bookId);
+            ps.setString(2, patron);
+            ps.setInt(3, loanDays);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return new Loan(rs.getInt("id"), bookId, patron, toLocalDateTime(rs, "borrowed_at"),
+                        toLocalDateTime(rs, "due_at"), null, bookVersion);
+            }
+        }
+    }
+
+    private static Loan mapLoan(ResultSet rs) throws SQLException {
+        return new Loan(
+                rs.getInt("id"),
+                rs.getInt("book_id"),
+                rs.getString("patron"),
+                toLocalDateTime(rs, "borrowed_at"),
+                toLocalDateTime(rs, "due_at"),
+                toLocalDateTime(rs, "returned_at"));
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -1,11 +1,19 @@
 package repository.interfaces;
 
 import model.Author;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface AuthorRepository extends CrudRepository<Author, Integer> {
 
     Author findByName(String name);
 
+    Set<String> findExistingNames(Collection<String> names);
+
     List<Author> findByNationality(String nationality);
+
+    List<Author> findAllSortedByName(int limit);
+
+    List<Author> findPageByName(String afterName, int afterId, int limit);
 }
@@ -1,13 +1,44 @@
 package repository.interfaces;
 
 import model.Book;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface BookRepository extends CrudRepository<Book, Integer> {
 
     Book findByIsbn(String isbn);
 
+    /** The books with the given ids in the order given; ids with no book are skipped. */
+    List<Book> findAllById(List<Integer> ids);
+
+    Set<String> findExistingIsbns(Collection<String> isbns);
+
     List<Book> findByAuthorId(int authorId);
 
     List<Book> findByType(String bookType);
+
+    Stream<Book> streamAll();
+
+    List<Book> findAllSortedByTitle(int limit);
+
+    List<Book> findAllSortedByYear(int limit);
+
+    List<Book> findPageByTitle(String afterTitle, int afterId, int limit);
+
+    List<Book> findPageByYear(Integer afterYear, int afterId, int limit);
+
+    List<Book> searchFullText(String tsQuery, int offset, int limit);
+
+    // Facet counts, each computed with one GROUP BY in the database
+
+    Map<String, Long> countByType();
+
+    Map<Integer, Long> countByDecade();
+
+    Map<Integer, Long> countByAuthor();
+
+    Map<String, Long> countByAuthorNationality();
 }
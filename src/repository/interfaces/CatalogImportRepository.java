@@ -0,0 +1,10 @@
+package repository.interfaces;
+
+import model.Book;
+import model.ImportReport;
+import java.util.Iterator;
+
+public interface CatalogImportRepository {
+
+    void importBooks(Iterator<Book> books, ImportReport report);
+}
@@ -0,0 +1,17 @@
+package repository.interfaces;
+
+import model.CatalogSnapshot;
+
+import java.util.Map;
+
+public interface CatalogSnapshotRepository {
+
+    /** The current catalog watermark; it changes whenever a change to authors or book details commits. */
+    long findWatermark();
+
+    /** The watermark with every author and book, all read in one repeatable-read transaction. */
+    CatalogSnapshot readCatalog();
+
+    /** Version by id of every book that is currently out. */
+    Map<Integer, Integer> findBorrowedVersions();
+}
@@ -6,13 +6,19 @@ public interface CrudRepository<T, ID> {
 
     void save(T entity);
 
+    void saveAll(List<T> entities);
+
     T findById(ID id);
 
     List<T> findAll();
 
     void update(T entity);
 
+    void updateAll(List<T> entities);
+
     void deleteById(ID id);
 
+    void deleteAllById(List<ID> ids);
+
     boolean existsById(ID id);
 }
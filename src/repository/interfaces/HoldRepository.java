@@ -0,0 +1,24 @@
+package repository.interfaces;
+
+import model.Hold;
+import java.util.List;
+
+public interface HoldRepository {
+
+    /**
+     * Queues the patron for a book that is currently out. Returns {@code null} if
+     * the book does not exist, is on the shelf, is already borrowed by this patron
+     * or already has an open hold from them.
+     */
+    Hold placeHold(int bookId, String patron);
+
+    /** Returns the cancelled hold, or {@code null} if the patron has no open hold with that id. */
+    Hold cancelHold(int holdId, String patron);
+
+    List<Hold> findOpenHolds(int bookId);
+
+    List<Hold> findOpenHoldsByPatron(String patron);
+
+    /** Every open hold, ordered by book and then queue position. */
+    List<Hold> findAllOpenHolds();
+}
@@ -0,0 +1,16 @@
+package repository.interfaces;
+
+import java.time.LocalDate;
+
+public interface LateFeeRepository {
+
+    /**
+     * Brings the {@code late_fees} rows of the overdue loans with ids in
+     * {@code [fromLoanId, toLoanId]} up to date as of {@code asOf}, in one statement.
+     * Returns the number of ledger rows inserted or changed; running it again for
+     * the same day changes nothing.
+     */
+    int accrueFees(LocalDate asOf, int fromLoanId, int toLoanId, double eBookRate, double printedRate);
+
+    int findMaxLoanId();
+}
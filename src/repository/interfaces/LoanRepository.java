@@ -0,0 +1,27 @@
+package repository.interfaces;
+
+import model.Loan;
+import model.ReturnResult;
+import java.util.List;
+
+public interface LoanRepository {
+
+    /**
+     * Marks the book as borrowed and opens a loan in one transaction. Returns
+     * {@code null} if the book does not exist or is already out; otherwise the
+     * loan carries the book version the transaction wrote.
+     */
+    Loan checkout(int bookId, String patron, int loanDays);
+
+    /**
+     * Closes the book's open loan in one transaction and either lends the copy to
+     * the oldest open hold (for {@code loanDays}) or marks it available again.
+     * Returns {@code null} if the book had no open loan; otherwise the result
+     * carries the book version the transaction wrote.
+     */
+    ReturnResult checkin(int bookId, int loanDays);
+
+    Loan findOpenLoan(int bookId);
+
+    List<Loan> findOpenLoansByPatron(String patron);
+}
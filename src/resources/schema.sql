@@ -24,12 +24,120 @@ create table books
     file_size      double precision,
     shelf_location varchar(100),
     weight         double precision,
-    available      boolean default true
+    available      boolean default true,
+    -- bumped by every availability change (optimistic locking for borrow/return)
+    version        integer not null default 0,
+    search_vector  tsvector generated always as (to_tsvector('english', coalesce(title, ''))) stored
 );
 
 alter table books
     owner to postgres;
 
+-- keyset pagination: ORDER BY lower(title), id / publish_year, id / lower(name), id
+create index books_title_id_idx on books (lower(title), id);
+create index books_year_id_idx on books (publish_year, id);
+create index authors_name_id_idx on authors (lower(name), id);
+
+-- full-text search backend (search.backend=fulltext)
+create index books_search_vector_idx on books using gin (search_vector);
+
+create table loans
+(
+    id          serial
+        primary key,
+    book_id     integer      not null
+        references books on delete cascade,
+    patron      varchar(255) not null,
+    borrowed_at timestamp    not null default now(),
+    due_at      timestamp    not null,
+    returned_at timestamp
+);
+
+alter table loans
+    owner to postgres;
+
+-- at most one open loan per book, whatever the application does
+create unique index loans_open_book_idx on loans (book_id) where returned_at is null;
+create index loans_patron_idx on loans (patron) where returned_at is null;
+
+-- FIFO hold queue per book; a returned copy goes straight to the oldest open hold
+create table holds
+(
+    id           serial
+        primary key,
+    book_id      integer      not null
+        references books on delete cascade,
+    patron       varchar(255) not null,
+    placed_at    timestamp    not null default now(),
+    fulfilled_at timestamp,
+    cancelled_at timestamp,
+    loan_id      integer
+        references loans
+);
+
+alter table holds
+    owner to postgres;
+
+create unique index holds_open_patron_idx on holds (book_id, patron)
+    where fulfilled_at is null and cancelled_at is null;
+create index holds_open_queue_idx on holds (book_id, id)
+    where fulfilled_at is null and cancelled_at is null;
+
+-- late fee ledger, one row per overdue loan, brought up to date by the accrual job;
+-- settled once the loan is returned and its final fee has been recorded
+create table late_fees
+(
+    loan_id      integer       not null
+        primary key
+        references loans on delete cascade,
+    patron       varchar(255)  not null,
+    days_overdue integer       not null,
+    amount       numeric(10, 2) not null,
+    settled      boolean       not null default false,
+    accrued_on   date          not null,
+    updated_at   timestamp     not null default now()
+);
+
+alter table late_fees
+    owner to postgres;
+
+create index late_fees_patron_idx on late_fees (patron);
+create index loans_open_due_idx on loans (due_at) where returned_at is null;
+
+-- catalog change watermark for the warm-start snapshot: every statement that changes authors or the catalog
+-- columns of books bumps it inside the writing transaction, so it moves exactly when the change commits.
+-- available/version belong to loans and are left out, so checkouts never queue on this row.
+create table catalog_watermark
+(
+    id      boolean primary key default true check (id),
+    version bigint  not null
+);
+
+alter table catalog_watermark
+    owner to postgres;
+
+insert into catalog_watermark (id, version) values (true, 0);
+
+create function bump_catalog_watermark() returns trigger
+    language plpgsql as
+$$
+begin
+    update catalog_watermark set version = version + 1;
+    return null;
+end;
+$$;
+
+create trigger authors_catalog_watermark
+    after insert or update or delete or truncate on authors
+    for each statement execute function bump_catalog_watermark();
+create trigger books_catalog_watermark
+    after insert or delete or truncate or update of title, isbn, author_id, publish_year, book_type, download_url,
+        file_size, shelf_location, weight on books
+    for each statement execute function bump_catalog_watermark();
+
+-- borrowed books, re-read over a loaded snapshot
+create index books_borrowed_idx on books (id) where not available;
+
 
 --authors first because of foreign key--
 INSERT INTO authors (name, nationality, birthyear) VALUES
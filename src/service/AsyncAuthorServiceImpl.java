@@ -0,0 +1,59 @@
+package service;
+
+import model.Author;
+import model.Page;
+import service.interfaces.AsyncAuthorServiceInterface;
+import service.interfaces.AuthorServiceInterface;
+import utils.BoundedExecutor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs {@link AuthorServiceInterface} operations on a {@link BoundedExecutor}.
+ */
+public class AsyncAuthorServiceImpl implements AsyncAuthorServiceInterface {
+
+    private final AuthorServiceInterface authorService;
+    private final BoundedExecutor executor;
+
+    public AsyncAuthorServiceImpl(AuthorServiceInterface authorService, BoundedExecutor executor) {
+        this.authorService = authorService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Void> createAuthor(Author author) {
+        return executor.run(() -> authorService.createAuthor(author));
+    }
+
+    @Override
+    public CompletableFuture<Author> getAuthorById(int id) {
+        return executor.submit(() -> authorService.getAuthorById(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Author>> getAllAuthors() {
+        return executor.submit(authorService::getAllAuthors);
+    }
+
+    @Override
+    public CompletableFuture<Page<Author>> getAuthorsPage(Author after, int pageSize) {
+        return executor.submit(() -> authorService.getAuthorsPage(after, pageSize));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateAuthor(Author author) {
+        return executor.run(() -> authorService.updateAuthor(author));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAuthor(int id) {
+        return executor.run(() -> authorService.deleteAuthor(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Author>> searchByName(String keyword) {
+        return executor.submit(() -> authorService.searchByName(keyword));
+    }
+}
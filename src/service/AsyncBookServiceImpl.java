@@ -0,0 +1,106 @@
+package service;
+
+import model.Book;
+import model.Page;
+import service.interfaces.AsyncBookServiceInterface;
+import service.interfaces.BookServiceInterface;
+import utils.BoundedExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs book service operations on a {@link BoundedExecutor}, through the
+ * (possibly instrumented) {@link BookServiceInterface}. createBook checks the
+ * author and the ISBN in parallel before saving, using the package-private steps
+ * of {@link BookServiceImpl} that the interface does not expose.
+ */
+public class AsyncBookServiceImpl implements AsyncBookServiceInterface {
+
+    private final BookServiceInterface bookService;
+    private final BookServiceImpl createSteps;
+    private final BoundedExecutor executor;
+
+    public AsyncBookServiceImpl(BookServiceInterface bookService, BookServiceImpl createSteps,
+            BoundedExecutor executor) {
+        this.bookService = bookService;
+        this.createSteps = createSteps;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Void> createBook(Book book) {
+        try {
+            BookServiceImpl.validateBook(book);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<Void> authorCheck = executor.run(() -> createSteps.checkAuthorExists(book));
+        CompletableFuture<Void> isbnCheck = executor.run(() -> createSteps.checkIsbnAvailable(book));
+        return CompletableFuture.allOf(authorCheck, isbnCheck)
+                .thenCompose(ignored -> executor.run(() -> createSteps.saveValidated(book)));
+    }
+
+    @Override
+    public CompletableFuture<Void> createBooks(List<Book> books) {
+        return executor.run(() -> bookService.createBooks(books));
+    }
+
+    @Override
+    public CompletableFuture<Book> getBookById(int id) {
+        return executor.submit(() -> bookService.getBookById(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Book>> getBooksByIds(List<Integer> ids) {
+        List<CompletableFuture<Book>> lookups = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            lookups.add(getBookById(id));
+        }
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<Book> books = new ArrayList<>(lookups.size());
+                    for (CompletableFuture<Book> lookup : lookups) {
+                        books.add(lookup.join());
+                    }
+                    return books;
+                });
+    }
+
+    @Override
+    public CompletableFuture<List<Book>> getAllBooks() {
+        return executor.submit(bookService::getAllBooks);
+    }
+
+    @Override
+    public CompletableFuture<Page<Book>> getBooksPageByTitle(Book after, int pageSize) {
+        return executor.submit(() -> bookService.getBooksPageByTitle(after, pageSize));
+    }
+
+    @Override
+    public CompletableFuture<Page<Book>> getBooksPageByYear(Book after, int pageSize) {
+        return executor.submit(() -> bookService.getBooksPageByYear(after, pageSize));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateBook(Book book) {
+        return executor.run(() -> bookService.updateBook(book));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBook(int id) {
+        return executor.run(() -> bookService.deleteBook(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Book>> searchByTitle(String keyword) {
+        return executor.submit(() -> bookService.searchByTitle(keyword));
+    }
+
+    @Override
+    public CompletableFuture<Page<Book>> searchFullText(String query, int page, int pageSize) {
+        return executor.submit(() -> bookService.searchFullText(query, page, pageSize));
+    }
+}
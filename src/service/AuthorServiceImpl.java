@@ -1,32 +1,49 @@
 package service;
 
 import model.Author;
+import model.Page;
 import repository.interfaces.AuthorRepository;
 import service.interfaces.AuthorServiceInterface;
 import exception.*;
-import utils.SortingUtils;
+import utils.BkTree;
 
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class AuthorServiceImpl implements AuthorServiceInterface {
 
     private final AuthorRepository authorRepository;
+    private final CatalogSearchIndex searchIndex;
+    private final ColumnarCatalog columnarCatalog;
+    private final FacetServiceImpl facetService;
 
     public AuthorServiceImpl(AuthorRepository authorRepository) {
+        this(authorRepository, null);
+    }
+
+    public AuthorServiceImpl(AuthorRepository authorRepository, CatalogSearchIndex searchIndex) {
+        this(authorRepository, searchIndex, null);
+    }
+
+    public AuthorServiceImpl(AuthorRepository authorRepository, CatalogSearchIndex searchIndex,
+            ColumnarCatalog columnarCatalog) {
+        this(authorRepository, searchIndex, columnarCatalog, null);
+    }
+
+    public AuthorServiceImpl(AuthorRepository authorRepository, CatalogSearchIndex searchIndex,
+            ColumnarCatalog columnarCatalog, FacetServiceImpl facetService) {
         this.authorRepository = authorRepository;
+        this.searchIndex = searchIndex;
+        this.columnarCatalog = columnarCatalog;
+        this.facetService = facetService;
     }
 
     @Override
     public void createAuthor(Author author) throws InvalidInputException, DuplicateResourceException {
-        if (author.getName() == null || author.getName().trim().isEmpty()) {
-            throw new InvalidInputException("Name cannot be empty");
-        }
-        if (author.getBirthYear() < 0) {
-            throw new InvalidInputException("Birth year cannot be negative");
-        }
-        if (author.getNationality() == null || author.getNationality().trim().isEmpty()) {
-            throw new InvalidInputException("Nationality cannot be empty");
-        }
+        validateAuthor(author);
 
         Author existing = authorRepository.findByName(author.getName());
         if (existing != null) {
@@ -34,6 +51,26 @@ public class AuthorServiceImpl implements AuthorServiceInterface {
         }
 
         authorRepository.save(author);
+        indexAuthor(author);
+    }
+
+    @Override
+    public void createAuthors(List<Author> authors) throws InvalidInputException, DuplicateResourceException {
+        Set<String> names = new HashSet<>();
+        for (Author author : authors) {
+            validateAuthor(author);
+            if (!names.add(author.getName())) {
+                throw new DuplicateResourceException("Author '" + author.getName() + "' appears more than once");
+            }
+        }
+
+        Set<String> existing = authorRepository.findExistingNames(names);
+        if (!existing.isEmpty()) {
+            throw new DuplicateResourceException("Authors " + existing + " already exist");
+        }
+
+        authorRepository.saveAll(authors);
+        authors.forEach(this::indexAuthor);
     }
 
     @Override
@@ -42,6 +79,9 @@ public class AuthorServiceImpl implements AuthorServiceInterface {
         if (author == null) {
             throw new ResourceNotFoundException("Author with ID " + id + " not found");
         }
+        if (searchIndex != null) {
+            searchIndex.recordAuthorView(author);
+        }
         return author;
     }
 
@@ -52,8 +92,21 @@ public class AuthorServiceImpl implements AuthorServiceInterface {
 
     @Override
     public List<Author> getAuthorsSortedByName() {
-        List<Author> authors = authorRepository.findAll();
-        return SortingUtils.sortBy(authors, (a1, a2) -> a1.getName().compareToIgnoreCase(a2.getName()));
+        return authorRepository.findAllSortedByName(0);
+    }
+
+    @Override
+    public List<Author> getTopAuthorsByName(int limit) {
+        return authorRepository.findAllSortedByName(BookServiceImpl.clampPageSize(limit));
+    }
+
+    @Override
+    public Page<Author> getAuthorsPage(Author after, int pageSize) {
+        int size = BookServiceImpl.clampPageSize(pageSize);
+        List<Author> authors = after == null
+                ? authorRepository.findPageByName(null, 0, size + 1)
+                : authorRepository.findPageByName(after.getName(), after.getId(), size + 1);
+        return Page.of(authors, size);
     }
 
     @Override
@@ -67,6 +120,16 @@ public class AuthorServiceImpl implements AuthorServiceInterface {
         }
 
         authorRepository.update(author);
+        indexAuthor(author);
+    }
+
+    @Override
+    public void updateAuthors(List<Author> authors) throws InvalidInputException {
+        for (Author author : authors) {
+            validateAuthor(author);
+        }
+        authorRepository.updateAll(authors);
+        authors.forEach(this::indexAuthor);
     }
 
     @Override
@@ -77,6 +140,7 @@ public class AuthorServiceImpl implements AuthorServiceInterface {
 
         try {
             authorRepository.deleteById(id);
+            unindexAuthor(id);
         } catch (RuntimeException e) {
             if (e.getCause() instanceof DatabaseOperationException) {
                 throw new InvalidInputException("Cannot delete author: books reference this author");
@@ -84,4 +148,94 @@ public class AuthorServiceImpl implements AuthorServiceInterface {
             throw e;
         }
     }
+
+    @Override
+    public void deleteAuthors(List<Integer> ids) throws InvalidInputException {
+        try {
+            authorRepository.deleteAllById(ids);
+            ids.forEach(this::unindexAuthor);
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof DatabaseOperationException) {
+                throw new InvalidInputException(e.getCause().getMessage());
+            }
+            throw e;
+        }
+    }
+
+    private void indexAuthor(Author author) {
+        if (searchIndex != null) {
+            searchIndex.putAuthor(author);
+        }
+        if (columnarCatalog != null) {
+            columnarCatalog.putAuthor(author);
+        }
+        if (facetService != null) {
+            facetService.authorSaved(author);
+        }
+    }
+
+    private void unindexAuthor(int id) {
+        if (searchIndex != null) {
+            searchIndex.removeAuthor(id);
+        }
+        if (columnarCatalog != null) {
+            columnarCatalog.removeAuthor(id);
+        }
+        if (facetService != null) {
+            facetService.authorRemoved(id);
+        }
+    }
+
+    @Override
+    public List<Author> searchByName(String keyword) {
+        if (searchIndex != null) {
+            return searchIndex.searchAuthorNames(keyword);
+        }
+
+        String lowerKeyword = keyword.toLowerCase();
+        return authorRepository.findAll().stream()
+                .filter(author -> author.getName().toLowerCase().contains(lowerKeyword))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Author> fuzzySearchByName(String query) {
+        if (searchIndex != null) {
+            return searchIndex.fuzzySearchAuthorNames(query, BookServiceImpl.MAX_FUZZY_DISTANCE);
+        }
+
+        String lowerQuery = query.toLowerCase();
+        int max = BookServiceImpl.MAX_FUZZY_DISTANCE;
+        return authorRepository.findAllSortedByName(0).stream()
+                .filter(author -> BkTree.distance(lowerQuery, author.getName().toLowerCase(), max) <= max)
+                .sorted(Comparator.comparingInt(
+                        (Author author) -> BkTree.distance(lowerQuery, author.getName().toLowerCase(), max)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> autocompleteNames(String prefix) {
+        if (searchIndex != null) {
+            return searchIndex.suggestAuthorNames(prefix, CatalogSearchIndex.AUTOCOMPLETE_TOP_K);
+        }
+
+        String lowerPrefix = prefix.toLowerCase();
+        return authorRepository.findAllSortedByName(0).stream()
+                .map(Author::getName)
+                .filter(name -> name.toLowerCase().startsWith(lowerPrefix))
+                .limit(CatalogSearchIndex.AUTOCOMPLETE_TOP_K)
+                .collect(Collectors.toList());
+    }
+
+    static void validateAuthor(Author author) throws InvalidInputException {
+        if (author.getName() == null || author.getName().trim().isEmpty()) {
+            throw new InvalidInputException("Name cannot be empty");
+        }
+        if (author.getBirthYear() < 0) {
+            throw new InvalidInputException("Birth year cannot be negative");
+        }
+        if (author.getNationality() == null || author.getNationality().trim().isEmpty()) {
+            throw new InvalidInputException("Nationality cannot be empty");
+        }
+    }
 }
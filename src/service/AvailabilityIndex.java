@@ -0,0 +1,187 @@
+package service;
+
+import model.Book;
+import model.Borrowable;
+import utils.AtomicBitSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of which books are on the shelf. Availability is one bit per
+ * book id in an {@link AtomicBitSet}, so "is it available" is a single volatile
+ * read and borrow/return is a single CAS. Each author's book ids are kept in a
+ * sorted array that is replaced (never mutated) on change, so listing an
+ * author's available books is also lock-free.
+ *
+ * Built at startup and kept current by the book service (create/update/delete)
+ * and the checkout service (borrow/return) after each database commit. Those
+ * updates can arrive out of order, so every flag is stored with the
+ * {@code books.version} it came from and only a newer version replaces it;
+ * writers for one id are serialized through the version map while readers
+ * still only touch the bits.
+ *
+ * Only ids are kept: a stored {@code Book} would keep the availability it was
+ * read with, so callers read the books this returns from the repository.
+ */
+public class AvailabilityIndex {
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final AtomicBitSet known = new AtomicBitSet();
+    private final AtomicBitSet available = new AtomicBitSet();
+    private final Map<Integer, Integer> versions = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> authorIds = new ConcurrentHashMap<>();
+    private final Map<Integer, int[]> bookIdsByAuthor = new ConcurrentHashMap<>();
+
+    public void rebuild(Iterator<Book> allBooks) {
+        known.clearAll();
+        available.clearAll();
+        versions.clear();
+        authorIds.clear();
+        bookIdsByAuthor.clear();
+        while (allBooks.hasNext()) {
+            putBook(allBooks.next());
+        }
+    }
+
+    /**
+     * Adds or refreshes a book. The availability of a book that is already indexed
+     * is only replaced when the {@code Book} passed in carries a newer version, so
+     * a catalog edit (version 0) or a stale read cannot undo a borrow or return.
+     */
+    public void putBook(Book book) {
+        int id = book.getId();
+        int authorId = authorIdOf(book);
+        Integer previousAuthor = authorIds.put(id, authorId);
+        if (previousAuthor != null && previousAuthor != authorId) {
+            removeFromAuthor(previousAuthor, id);
+        }
+        if (authorId != 0) {
+            bookIdsByAuthor.compute(authorId, (key, ids) -> insertSorted(ids, id));
+        }
+        boolean isAvailable = book instanceof Borrowable && ((Borrowable) book).isAvailable();
+        versions.compute(id, (key, applied) -> {
+            if (known.get(id) && applied != null && applied >= book.getVersion()) {
+                return applied;
+            }
+            // availability first, so a reader that sees the id as known sees its real state
+            available.set(id, isAvailable);
+            known.set(id);
+            return book.getVersion();
+        });
+    }
+
+    public void removeBook(int id) {
+        versions.compute(id, (key, applied) -> {
+            known.clear(id);
+            available.clear(id);
+            return null;
+        });
+        Integer previousAuthor = authorIds.remove(id);
+        if (previousAuthor != null) {
+            removeFromAuthor(previousAuthor, id);
+        }
+    }
+
+    /** Records a committed borrow that wrote {@code version}. */
+    public void markBorrowed(int id, int version) {
+        apply(id, false, version);
+    }
+
+    /** Records a committed return that wrote {@code version}. */
+    public void markReturned(int id, int version) {
+        apply(id, true, version);
+    }
+
+    /**
+     * Sets the flag of an indexed book unless a change with the same or a newer
+     * version was applied first. Ids the index has not seen are left to
+     * {@link #putBook}, which reads the flag and version together.
+     */
+    private void apply(int id, boolean isAvailable, int version) {
+        versions.computeIfPresent(id, (key, applied) -> {
+            if (applied >= version || !known.get(id)) {
+                return applied;
+            }
+            available.set(id, isAvailable);
+            return version;
+        });
+    }
+
+    /**
+     * Returns whether the book is on the shelf, or {@code null} if the index has
+     * never seen that id.
+     */
+    public Boolean isAvailable(int id) {
+        if (!known.get(id)) {
+            return null;
+        }
+        return available.get(id);
+    }
+
+    /** Ids of the author's books that are on the shelf, in id order. */
+    public List<Integer> availableBookIdsByAuthor(int authorId) {
+        int[] ids = bookIdsByAuthor.getOrDefault(authorId, NO_IDS);
+        List<Integer> result = new ArrayList<>();
+        for (int id : ids) {
+            if (available.get(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    public int getBookCount() {
+        return authorIds.size();
+    }
+
+    public long getAvailableCount() {
+        return available.cardinality();
+    }
+
+    private void removeFromAuthor(int authorId, int id) {
+        if (authorId != 0) {
+            bookIdsByAuthor.computeIfPresent(authorId, (key, ids) -> removeSorted(ids, id));
+        }
+    }
+
+    private static int authorIdOf(Book book) {
+        return book != null && book.getAuthor() != null ? book.getAuthor().getId() : 0;
+    }
+
+    private static int[] insertSorted(int[] ids, int id) {
+        if (ids == null) {
+            return new int[] { id };
+        }
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) {
+            return ids;
+        }
+        pos = -pos - 1;
+        int[] copy = new int[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, pos);
+        copy[pos] = id;
+        System.arraycopy(ids, pos, copy, pos + 1, ids.length - pos);
+        return copy;
+    }
+
+    private static int[] removeSorted(int[] ids, int id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            // returning null drops the author's entry
+            return null;
+        }
+        int[] copy = new int[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, pos);
+        System.arraycopy(ids, pos + 1, copy, pos, ids.length - pos - 1);
+        return copy;
+    }
+}
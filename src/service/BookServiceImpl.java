@@ -1,42 +1,194 @@
 package service;
 
 import model.Book;
+import model.CatalogFilter;
 import model.EBook;
+import model.Page;
 import model.PrintedBook;
 import repository.interfaces.BookRepository;
 import repository.interfaces.AuthorRepository;
 import service.interfaces.BookServiceInterface;
 import exception.*;
-import utils.SortingUtils;
+import utils.BkTree;
+import utils.CsvUtils;
+import utils.FullTextQuery;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class BookServiceImpl implements BookServiceInterface {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_FUZZY_DISTANCE = 2;
+
+    // Same layout that CatalogImportServiceImpl reads
+    private static final String EXPORT_HEADER = "title,isbn,year,type,author_name,author_birthyear,"
+            + "author_nationality,download_url,file_size,shelf_location,weight";
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
+    private final CatalogSearchIndex searchIndex;
+    private final SearchBackend searchBackend;
+    private final AvailabilityIndex availabilityIndex;
+    private final ColumnarCatalog columnarCatalog;
+    private final FacetServiceImpl facetService;
+    private final HoldQueue holdQueue;
 
     public BookServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository) {
-        this.bookRepository = bookRepository;
-        this.authorRepository = authorRepository;
+        this(builder(bookRepository, authorRepository));
+    }
+
+    private BookServiceImpl(Builder builder) {
+        this.bookRepository = builder.bookRepository;
+        this.authorRepository = builder.authorRepository;
+        this.searchIndex = builder.searchIndex;
+        SearchBackend backend = builder.searchBackend != null ? builder.searchBackend
+                : searchIndex != null ? SearchBackend.INDEX : SearchBackend.SCAN;
+        this.searchBackend = backend == SearchBackend.INDEX && searchIndex == null ? SearchBackend.SCAN : backend;
+        this.availabilityIndex = builder.availabilityIndex;
+        this.columnarCatalog = builder.columnarCatalog;
+        this.facetService = builder.facetService;
+        this.holdQueue = builder.holdQueue;
+    }
+
+    /** Starts a service over the two repositories; every index and the facet cache are optional. */
+    public static Builder builder(BookRepository bookRepository, AuthorRepository authorRepository) {
+        return new Builder(bookRepository, authorRepository);
+    }
+
+    public static class Builder {
+        private final BookRepository bookRepository;
+        private final AuthorRepository authorRepository;
+        private CatalogSearchIndex searchIndex;
+        private SearchBackend searchBackend;
+        private AvailabilityIndex availabilityIndex;
+        private ColumnarCatalog columnarCatalog;
+        private FacetServiceImpl facetService;
+        private HoldQueue holdQueue;
+
+        private Builder(BookRepository bookRepository, AuthorRepository authorRepository) {
+            this.bookRepository = bookRepository;
+            this.authorRepository = authorRepository;
+        }
+
+        public Builder searchIndex(CatalogSearchIndex searchIndex) {
+            this.searchIndex = searchIndex;
+            return this;
+        }
+
+        /** Defaults to INDEX with a search index and SCAN without; INDEX without an index falls back to SCAN. */
+        public Builder searchBackend(SearchBackend searchBackend) {
+            this.searchBackend = searchBackend;
+            return this;
+        }
+
+        public Builder availabilityIndex(AvailabilityIndex availabilityIndex) {
+            this.availabilityIndex = availabilityIndex;
+            return this;
+        }
+
+        public Builder columnarCatalog(ColumnarCatalog columnarCatalog) {
+            this.columnarCatalog = columnarCatalog;
+            return this;
+        }
+
+        public Builder facetService(FacetServiceImpl facetService) {
+            this.facetService = facetService;
+            return this;
+        }
+
+        /** The reservation mirror; a deleted book's holds go with it in the database, so they are dropped here too. */
+        public Builder holdQueue(HoldQueue holdQueue) {
+            this.holdQueue = holdQueue;
+            return this;
+        }
+
+        public BookServiceImpl build() {
+            return new BookServiceImpl(this);
+        }
     }
 
     @Override
     public void createBook(Book book)
             throws InvalidInputException, ResourceNotFoundException, DuplicateResourceException {
         validateBook(book);
+        checkAuthorExists(book);
+        checkIsbnAvailable(book);
+        saveValidated(book);
+    }
 
+    // The createBook steps are package-private so AsyncBookServiceImpl can run the
+    // two independent lookups in parallel.
+
+    void checkAuthorExists(Book book) throws ResourceNotFoundException {
         if (!authorRepository.existsById(book.getAuthor().getId())) {
             throw new ResourceNotFoundException("Author with ID " + book.getAuthor().getId() + " not found");
         }
+    }
 
+    void checkIsbnAvailable(Book book) throws DuplicateResourceException {
         Book existing = bookRepository.findByIsbn(book.getIsbn());
         if (existing != null) {
             throw new DuplicateResourceException("Book with ISBN '" + book.getIsbn() + "' already exists");
         }
+    }
+
+    void saveValidated(Book book) {
+        writeCatalog(() -> {
+            bookRepository.save(book);
+            indexBook(book);
+            if (facetService != null) {
+                facetService.bookAdded(book);
+            }
+        });
+    }
+
+    @Override
+    public void createBooks(List<Book> books)
+            throws InvalidInputException, ResourceNotFoundException, DuplicateResourceException {
+        Set<Integer> authorIds = new HashSet<>();
+        Set<String> isbns = new HashSet<>();
+        for (Book book : books) {
+            validateBook(book);
+            authorIds.add(book.getAuthor().getId());
+            if (book.getIsbn() != null && !isbns.add(book.getIsbn())) {
+                throw new DuplicateResourceException("Book with ISBN '" + book.getIsbn() + "' appears more than once");
+            }
+        }
 
-        bookRepository.save(book);
+        for (int authorId : authorIds) {
+            if (!authorRepository.existsById(authorId)) {
+                throw new ResourceNotFoundException("Author with ID " + authorId + " not found");
+            }
+        }
+
+        if (!isbns.isEmpty()) {
+            Set<String> existing = bookRepository.findExistingIsbns(isbns);
+            if (!existing.isEmpty()) {
+                throw new DuplicateResourceException("Books with ISBN " + existing + " already exist");
+            }
+        }
+
+        writeCatalog(() -> {
+            bookRepository.saveAll(books);
+            books.forEach(this::indexBook);
+            if (facetService != null) {
+                books.forEach(facetService::bookAdded);
+            }
+        });
     }
 
     @Override
@@ -45,6 +197,9 @@ public class BookServiceImpl implements BookServiceInterface {
         if (book == null) {
             throw new ResourceNotFoundException("Book with ID " + id + " not found");
         }
+        if (searchIndex != null) {
+            searchIndex.recordBookView(book);
+        }
         return book;
     }
 
@@ -53,46 +208,323 @@ public class BookServiceImpl implements BookServiceInterface {
         return bookRepository.findAll();
     }
 
+    @Override
+    public Stream<Book> streamAllBooks() {
+        return bookRepository.streamAll();
+    }
+
     @Override
     public List<Book> getBooksSortedByTitle() {
-        List<Book> books = bookRepository.findAll();
-        return SortingUtils.sortBy(books, (b1, b2) -> b1.getTitle().compareToIgnoreCase(b2.getTitle()));
+        return bookRepository.findAllSortedByTitle(0);
     }
 
     @Override
     public List<Book> getBooksSortedByYear() {
-        List<Book> books = bookRepository.findAll();
-        return SortingUtils.sortBy(books, (b1, b2) -> Integer.compare(b1.getYear(), b2.getYear()));
+        return bookRepository.findAllSortedByYear(0);
+    }
+
+    @Override
+    public List<Book> getTopBooksByTitle(int limit) {
+        return bookRepository.findAllSortedByTitle(clampPageSize(limit));
+    }
+
+    @Override
+    public List<Book> getTopBooksByYear(int limit) {
+        return bookRepository.findAllSortedByYear(clampPageSize(limit));
+    }
+
+    @Override
+    public Page<Book> getBooksPageByTitle(Book after, int pageSize) {
+        int size = clampPageSize(pageSize);
+        List<Book> books = after == null
+                ? bookRepository.findPageByTitle(null, 0, size + 1)
+                : bookRepository.findPageByTitle(after.getTitle(), after.getId(), size + 1);
+        return Page.of(books, size);
+    }
+
+    @Override
+    public Page<Book> getBooksPageByYear(Book after, int pageSize) {
+        int size = clampPageSize(pageSize);
+        List<Book> books = after == null
+                ? bookRepository.findPageByYear(null, 0, size + 1)
+                : bookRepository.findPageByYear(after.getYear(), after.getId(), size + 1);
+        return Page.of(books, size);
+    }
+
+    private void indexBook(Book book) {
+        if (searchIndex != null) {
+            searchIndex.putBook(book);
+        }
+        if (availabilityIndex != null) {
+            availabilityIndex.putBook(book);
+        }
+        if (columnarCatalog != null) {
+            columnarCatalog.putBook(book);
+        }
+    }
+
+    private void unindexBook(int id) {
+        if (searchIndex != null) {
+            searchIndex.removeBook(id);
+        }
+        if (availabilityIndex != null) {
+            availabilityIndex.removeBook(id);
+        }
+        if (columnarCatalog != null) {
+            columnarCatalog.removeBook(id);
+        }
+        if (holdQueue != null) {
+            holdQueue.removeBook(id);
+        }
+    }
+
+    static int clampPageSize(int pageSize) {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
     }
 
     @Override
     public void updateBook(Book book) throws ResourceNotFoundException, InvalidInputException {
-        if (!bookRepository.existsById(book.getId())) {
+        Book previous = bookRepository.findById(book.getId());
+        if (previous == null) {
             throw new ResourceNotFoundException("Book with ID " + book.getId() + " not found");
         }
 
         validateBook(book);
 
-        bookRepository.update(book);
+        writeCatalog(() -> {
+            bookRepository.update(book);
+            indexBook(book);
+            if (facetService != null) {
+                if (previous == book) {
+                    // the caller edited the cached instance, so the old values are gone
+                    facetService.refresh();
+                } else {
+                    facetService.bookUpdated(previous, book);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void updateBooks(List<Book> books) throws InvalidInputException {
+        for (Book book : books) {
+            validateBook(book);
+        }
+        List<Book> previous = facetService != null ? bookRepository.findAllById(idsOf(books)) : null;
+        writeCatalog(() -> {
+            bookRepository.updateAll(books);
+            books.forEach(this::indexBook);
+            if (facetService != null) {
+                Map<Integer, Book> previousById = new HashMap<>();
+                previous.forEach(book -> previousById.put(book.getId(), book));
+                for (Book book : books) {
+                    Book old = previousById.get(book.getId());
+                    if (old == book) {
+                        // the caller edited the cached instance, so the old values are gone
+                        facetService.refresh();
+                    } else if (old != null) {
+                        facetService.bookUpdated(old, book);
+                    }
+                }
+            }
+        });
     }
 
     @Override
     public void deleteBook(int id) throws ResourceNotFoundException {
-        if (!bookRepository.existsById(id)) {
+        Book previous = bookRepository.findById(id);
+        if (previous == null) {
             throw new ResourceNotFoundException("Book with ID " + id + " not found");
         }
-        bookRepository.deleteById(id);
+        writeCatalog(() -> {
+            bookRepository.deleteById(id);
+            unindexBook(id);
+            if (facetService != null) {
+                facetService.bookRemoved(previous);
+            }
+        });
+    }
+
+    @Override
+    public void deleteBooks(List<Integer> ids) {
+        List<Book> previous = facetService != null ? bookRepository.findAllById(ids) : null;
+        writeCatalog(() -> {
+            bookRepository.deleteAllById(ids);
+            ids.forEach(this::unindexBook);
+            if (facetService != null) {
+                previous.forEach(facetService::bookRemoved);
+            }
+        });
+    }
+
+    // the write and its facet report go through the facet service together, see FacetServiceImpl
+    private void writeCatalog(Runnable write) {
+        if (facetService != null) {
+            facetService.write(write);
+        } else {
+            write.run();
+        }
+    }
+
+    private static List<Integer> idsOf(List<Book> books) {
+        List<Integer> ids = new ArrayList<>(books.size());
+        for (Book book : books) {
+            ids.add(book.getId());
+        }
+        return ids;
     }
 
     @Override
     public List<Book> searchByTitle(String keyword) {
-        List<Book> allBooks = bookRepository.findAll();
-        return allBooks.stream()
-                .filter(book -> book.getTitle().toLowerCase().contains(keyword.toLowerCase()))
-                .collect(Collectors.toList());
+        if (searchBackend == SearchBackend.FULLTEXT) {
+            String tsQuery = FullTextQuery.toTsQuery(keyword);
+            return tsQuery.isEmpty() ? new ArrayList<>() : bookRepository.searchFullText(tsQuery, 0, 0);
+        }
+        if (searchBackend == SearchBackend.INDEX) {
+            return bookRepository.findAllById(searchIndex.searchTitles(keyword));
+        }
+
+        String lowerKeyword = keyword.toLowerCase();
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            return books
+                    .filter(book -> book.getTitle().toLowerCase().contains(lowerKeyword))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public List<Book> fuzzySearchByTitle(String query) {
+        if (searchIndex != null) {
+            return bookRepository.findAllById(searchIndex.fuzzySearchTitles(query, MAX_FUZZY_DISTANCE));
+        }
+
+        String lowerQuery = query.toLowerCase();
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            return books
+                    .filter(book -> BkTree.distance(lowerQuery, book.getTitle().toLowerCase(),
+                            MAX_FUZZY_DISTANCE) <= MAX_FUZZY_DISTANCE)
+                    .sorted(Comparator
+                            .comparingInt((Book book) -> BkTree.distance(lowerQuery, book.getTitle().toLowerCase(),
+                                    MAX_FUZZY_DISTANCE))
+                            .thenComparing(book -> book.getTitle().toLowerCase())
+                            .thenComparingInt(Book::getId))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public List<String> autocompleteTitles(String prefix) {
+        if (searchIndex != null) {
+            return searchIndex.suggestTitles(prefix, CatalogSearchIndex.AUTOCOMPLETE_TOP_K);
+        }
+
+        String lowerPrefix = prefix.toLowerCase();
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            return books
+                    .map(Book::getTitle)
+                    .filter(title -> title.toLowerCase().startsWith(lowerPrefix))
+                    .distinct()
+                    .sorted(String.CASE_INSENSITIVE_ORDER)
+                    .limit(CatalogSearchIndex.AUTOCOMPLETE_TOP_K)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public Page<Book> searchFullText(String query, int page, int pageSize) {
+        String tsQuery = FullTextQuery.toTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return new Page<>(new ArrayList<>(), false);
+        }
+        int size = clampPageSize(pageSize);
+        int offset = Math.max(page, 0) * size;
+        return Page.of(bookRepository.searchFullText(tsQuery, offset, size + 1), size);
+    }
+
+    @Override
+    public long countBooks(CatalogFilter filter) throws InvalidInputException {
+        validateFilter(filter);
+        if (columnarCatalog != null) {
+            return columnarCatalog.count(filter);
+        }
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            return books.filter(filter::matches).count();
+        }
+    }
+
+    @Override
+    public List<Book> filterBooks(CatalogFilter filter, int limit) throws InvalidInputException {
+        validateFilter(filter);
+        int size = clampPageSize(limit);
+        if (columnarCatalog != null) {
+            int[] ids = columnarCatalog.filterIds(filter, size);
+            if (ids.length == 0) {
+                return new ArrayList<>();
+            }
+            return bookRepository.findAllById(Arrays.stream(ids).boxed().collect(Collectors.toList()));
+        }
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            return books.filter(filter::matches).limit(size).collect(Collectors.toList());
+        }
+    }
+
+    private static void validateFilter(CatalogFilter filter) throws InvalidInputException {
+        String type = filter.getBookType();
+        if (type != null && !type.equals("EBOOK") && !type.equals("PRINTED")) {
+            throw new InvalidInputException("Book type must be EBOOK or PRINTED");
+        }
+        if (filter.getFromYear() != null && filter.getToYear() != null && filter.getFromYear() > filter.getToYear()) {
+            throw new InvalidInputException("Year range is empty: " + filter.getFromYear() + "-" + filter.getToYear());
+        }
+    }
+
+    @Override
+    public long exportCsv(Path file) throws IOException {
+        long rows = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                Stream<Book> books = bookRepository.streamAll()) {
+            writer.write(EXPORT_HEADER);
+            writer.newLine();
+            for (Book book : (Iterable<Book>) books::iterator) {
+                writer.write(toCsvRow(book));
+                writer.newLine();
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private String toCsvRow(Book book) {
+        String authorName = "";
+        String authorBirthYear = "";
+        String authorNationality = "";
+        if (book.getAuthor() != null) {
+            authorName = CsvUtils.escape(book.getAuthor().getName());
+            authorBirthYear = String.valueOf(book.getAuthor().getBirthYear());
+            authorNationality = CsvUtils.escape(book.getAuthor().getNationality());
+        }
+
+        String typeColumns = ",,,";
+        if (book instanceof EBook) {
+            EBook ebook = (EBook) book;
+            typeColumns = CsvUtils.escape(ebook.getDownloadURL()) + "," + ebook.getFileSize() + ",,";
+        } else if (book instanceof PrintedBook) {
+            PrintedBook pbook = (PrintedBook) book;
+            typeColumns = ",," + CsvUtils.escape(pbook.getShelfLocation()) + "," + pbook.getWeight();
+        }
+
+        return String.join(",",
+                CsvUtils.escape(book.getTitle()),
+                CsvUtils.escape(book.getIsbn()),
+                String.valueOf(book.getYear()),
+                book.getBookType(),
+                authorName,
+                authorBirthYear,
+                authorNationality,
+                typeColumns);
     }
 
-    private void validateBook(Book book) throws InvalidInputException {
+    static void validateBook(Book book) throws InvalidInputException {
         if (book.getTitle() == null || book.getTitle().trim().isEmpty()) {
             throw new InvalidInputException("Title cannot be empty");
         }
@@ -0,0 +1,202 @@
+package service;
+
+import model.Author;
+import model.Book;
+import model.EBook;
+import model.ImportReport;
+import model.PrintedBook;
+import repository.interfaces.CatalogImportRepository;
+import service.interfaces.CatalogImportServiceInterface;
+import exception.InvalidInputException;
+import utils.CsvUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Imports a vendor catalog CSV. The file is read record by record (a quoted field
+ * may span lines, as in files written by --export); rows that fail the
+ * regular book/author validation are recorded in the report and never reach the
+ * database.
+ *
+ * Expected header: title,isbn,year,type,author_name,author_birthyear,author_nationality,
+ * download_url,file_size,shelf_location,weight (type is EBOOK or PRINTED).
+ */
+public class CatalogImportServiceImpl implements CatalogImportServiceInterface {
+
+    private static final String[] REQUIRED_COLUMNS = { "title", "isbn", "year", "type", "author_name",
+            "author_birthyear", "author_nationality" };
+
+    private final CatalogImportRepository importRepository;
+
+    public CatalogImportServiceImpl(CatalogImportRepository importRepository) {
+        this.importRepository = importRepository;
+    }
+
+    @Override
+    public ImportReport importCsv(Path file) throws IOException {
+        ImportReport report = new ImportReport();
+        long start = System.currentTimeMillis();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = CsvUtils.readRecord(reader);
+            if (header == null) {
+                throw new IOException("CSV file is empty: " + file);
+            }
+            Map<String, Integer> columns = parseHeader(header);
+            importRepository.importBooks(new RowIterator(reader, columns, report), report);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        return report;
+    }
+
+    private Map<String, Integer> parseHeader(String header) throws IOException {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = CsvUtils.parseLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IOException("CSV header is missing column '" + column + "'");
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Lazily parses and validates rows so the repository can stream them straight
+     * into COPY without holding the file in memory.
+     */
+    private static class RowIterator implements Iterator<Book> {
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns;
+        private final ImportReport report;
+        private final Set<String> seenIsbns = new HashSet<>();
+        private int lineNumber = 1;
+        private Book next;
+
+        private RowIterator(BufferedReader reader, Map<String, Integer> columns, ImportReport report) {
+            this.reader = reader;
+            this.columns = columns;
+            this.report = report;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                String record;
+                try {
+                    record = CsvUtils.readRecord(reader);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (record == null) {
+                    return false;
+                }
+                // reported against the record's first line
+                int firstLine = ++lineNumber;
+                lineNumber += record.chars().filter(c -> c == '\n').count();
+                if (record.trim().isEmpty()) {
+                    continue;
+                }
+                report.rowRead();
+                try {
+                    Book book = parseRow(CsvUtils.parseLine(record));
+                    if (!seenIsbns.add(book.getIsbn())) {
+                        throw new InvalidInputException("ISBN '" + book.getIsbn() + "' appears more than once");
+                    }
+                    next = book;
+                } catch (InvalidInputException | IllegalArgumentException e) {
+                    report.reject(firstLine, e.getMessage());
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Book next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Book book = next;
+            next = null;
+            return book;
+        }
+
+        private Book parseRow(List<String> fields) throws InvalidInputException {
+            Author author = new Author(0, field(fields, "author_name"),
+                    parseInt(fields, "author_birthyear"), field(fields, "author_nationality"));
+            AuthorServiceImpl.validateAuthor(author);
+
+            String title = field(fields, "title");
+            String isbn = field(fields, "isbn");
+            int year = parseInt(fields, "year");
+            if (isbn == null) {
+                throw new InvalidInputException("ISBN cannot be empty");
+            }
+
+            Book book;
+            String type = field(fields, "type");
+            if ("EBOOK".equalsIgnoreCase(type)) {
+                book = new EBook(0, title, author, year, isbn, parseDouble(fields, "file_size"),
+                        field(fields, "download_url"));
+            } else if ("PRINTED".equalsIgnoreCase(type)) {
+                book = new PrintedBook(0, title, author, year, isbn, field(fields, "shelf_location"),
+                        parseDouble(fields, "weight"));
+            } else {
+                throw new InvalidInputException("Unknown book type '" + type + "'");
+            }
+            BookServiceImpl.validateBook(book);
+            return book;
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private int parseInt(List<String> fields, String column) throws InvalidInputException {
+            String value = field(fields, column);
+            if (value == null) {
+                throw new InvalidInputException("Missing " + column);
+            }
+            try {
+                int parsed = Integer.parseInt(value);
+                if (parsed <= 0) {
+                    throw new InvalidInputException("Invalid " + column + ": " + value);
+                }
+                return parsed;
+            } catch (NumberFormatException e) {
+                throw new InvalidInputException("Invalid " + column + ": " + value);
+            }
+        }
+
+        private double parseDouble(List<String> fields, String column) throws InvalidInputException {
+            String value = field(fields, column);
+            try {
+                return value == null ? 0 : Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new InvalidInputException("Invalid " + column + ": " + value);
+            }
+        }
+    }
+}
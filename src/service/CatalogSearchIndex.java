@@ -0,0 +1,215 @@
+package service;
+
+import model.Author;
+import model.Book;
+import utils.BkTree;
+import utils.PrefixIndex;
+import utils.TrigramIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory substring, fuzzy and prefix search over book titles and author
+ * names. Built once at startup and kept current by the book and author services
+ * as they create, update and delete entities.
+ *
+ * Autocomplete ranks titles by how often the book was opened and authors by
+ * their number of books plus how often they were opened.
+ *
+ * Title searches return book ids, not books: checkouts and author renames change
+ * a book without passing through here, so callers read the matches from the
+ * repository.
+ */
+public class CatalogSearchIndex {
+
+    public static final int AUTOCOMPLETE_TOP_K = 10;
+
+    private final TrigramIndex titles = new TrigramIndex();
+    private final TrigramIndex authorNames = new TrigramIndex();
+    private final Map<Integer, Author> authors = new ConcurrentHashMap<>();
+    private final BkTree fuzzyTitles = new BkTree();
+    private final BkTree fuzzyAuthorNames = new BkTree();
+    private final PrefixIndex titleSuggestions = new PrefixIndex(AUTOCOMPLETE_TOP_K);
+    private final PrefixIndex authorSuggestions = new PrefixIndex(AUTOCOMPLETE_TOP_K);
+    // values as last indexed, so a renamed entity can be removed from the prefix index
+    private final Map<Integer, String> indexedTitles = new ConcurrentHashMap<>();
+    private final Map<Integer, String> indexedNames = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> bookAuthorIds = new ConcurrentHashMap<>();
+
+    public synchronized void rebuild(Iterator<Book> allBooks, Collection<Author> allAuthors) {
+        titles.clear();
+        authorNames.clear();
+        authors.clear();
+        fuzzyTitles.clear();
+        fuzzyAuthorNames.clear();
+        titleSuggestions.clear();
+        authorSuggestions.clear();
+        indexedTitles.clear();
+        indexedNames.clear();
+        bookAuthorIds.clear();
+        for (Author author : allAuthors) {
+            putAuthor(author);
+        }
+        while (allBooks.hasNext()) {
+            putBook(allBooks.next());
+        }
+    }
+
+    /**
+     * Adds a book or updates it in place: only a changed title is re-indexed, and it
+     * keeps its autocomplete score; a changed author moves one book's worth of score.
+     */
+    public synchronized void putBook(Book book) {
+        int id = book.getId();
+        String title = book.getTitle();
+        String oldTitle = indexedTitles.get(id);
+        if (oldTitle == null || !oldTitle.equals(title)) {
+            titles.put(id, title);
+            fuzzyTitles.put(id, title);
+            if (oldTitle != null) {
+                titleSuggestions.rename(oldTitle, title);
+            } else {
+                titleSuggestions.add(title, 0);
+            }
+            if (title != null) {
+                indexedTitles.put(id, title);
+            } else {
+                indexedTitles.remove(id);
+            }
+        }
+
+        Integer authorId = book.getAuthor() != null ? book.getAuthor().getId() : null;
+        Integer oldAuthorId = authorId != null ? bookAuthorIds.put(id, authorId) : bookAuthorIds.remove(id);
+        if (!Objects.equals(authorId, oldAuthorId)) {
+            if (oldAuthorId != null) {
+                authorSuggestions.addScore(indexedNames.get(oldAuthorId), -1);
+            }
+            if (authorId != null) {
+                authorSuggestions.addScore(indexedNames.get(authorId), 1);
+            }
+        }
+    }
+
+    public synchronized void removeBook(int id) {
+        titles.remove(id);
+        fuzzyTitles.remove(id);
+        titleSuggestions.remove(indexedTitles.remove(id));
+        Integer authorId = bookAuthorIds.remove(id);
+        if (authorId != null) {
+            authorSuggestions.addScore(indexedNames.get(authorId), -1);
+        }
+    }
+
+    /** Adds an author or updates it in place; a rename keeps the name's autocomplete score. */
+    public synchronized void putAuthor(Author author) {
+        int id = author.getId();
+        authors.put(id, author);
+        String name = author.getName();
+        String oldName = indexedNames.get(id);
+        if (oldName != null && oldName.equals(name)) {
+            return;
+        }
+        authorNames.put(id, name);
+        fuzzyAuthorNames.put(id, name);
+        if (oldName != null) {
+            authorSuggestions.rename(oldName, name);
+        } else {
+            authorSuggestions.add(name, 0);
+        }
+        if (name != null) {
+            indexedNames.put(id, name);
+        } else {
+            indexedNames.remove(id);
+        }
+    }
+
+    public synchronized void removeAuthor(int id) {
+        authorNames.remove(id);
+        fuzzyAuthorNames.remove(id);
+        authors.remove(id);
+        authorSuggestions.remove(indexedNames.remove(id));
+    }
+
+    public void recordBookView(Book book) {
+        titleSuggestions.addScore(indexedTitles.get(book.getId()), 1);
+    }
+
+    public void recordAuthorView(Author author) {
+        authorSuggestions.addScore(indexedNames.get(author.getId()), 1);
+    }
+
+    public List<String> suggestTitles(String prefix, int limit) {
+        return titleSuggestions.suggest(prefix, limit);
+    }
+
+    public List<String> suggestAuthorNames(String prefix, int limit) {
+        return authorSuggestions.suggest(prefix, limit);
+    }
+
+    /** Ids of the books whose title contains {@code keyword}. */
+    public List<Integer> searchTitles(String keyword) {
+        int[] ids = titles.search(keyword);
+        List<Integer> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    public List<Author> searchAuthorNames(String keyword) {
+        int[] ids = authorNames.search(keyword);
+        List<Author> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Author author = authors.get(id);
+            if (author != null) {
+                result.add(author);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ids of the books whose whole title is within {@code maxDistance} edits of the
+     * query, closest first and then by title.
+     */
+    public List<Integer> fuzzySearchTitles(String query, int maxDistance) {
+        List<Integer> result = new ArrayList<>();
+        for (BkTree.Match match : fuzzyTitles.search(query, maxDistance)) {
+            result.addAll(sortedIds(match));
+        }
+        return result;
+    }
+
+    public List<Author> fuzzySearchAuthorNames(String query, int maxDistance) {
+        List<Author> result = new ArrayList<>();
+        for (BkTree.Match match : fuzzyAuthorNames.search(query, maxDistance)) {
+            for (int id : sortedIds(match)) {
+                Author author = authors.get(id);
+                if (author != null) {
+                    result.add(author);
+                }
+            }
+        }
+        return result;
+    }
+
+    public int getBookCount() {
+        return titles.size();
+    }
+
+    public int getAuthorCount() {
+        return authorNames.size();
+    }
+
+    private static List<Integer> sortedIds(BkTree.Match match) {
+        List<Integer> ids = new ArrayList<>(match.getIds());
+        ids.sort(null);
+        return ids;
+    }
+}
@@ -0,0 +1,155 @@
+package service;
+
+import model.Author;
+import model.Book;
+import model.CatalogSnapshot;
+import model.EBook;
+import model.PrintedBook;
+import repository.CatalogSnapshotFile;
+import repository.interfaces.CatalogSnapshotRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the catalog in a binary snapshot file ({@link CatalogSnapshotFile}) so a
+ * restart can fill the caches and in-memory indexes from one memory-mapped read
+ * instead of streaming the tables several times. The file is stamped with the
+ * database's catalog watermark and only used while the watermark is unchanged;
+ * any committed change to authors or book details since makes it stale, and
+ * startup falls back to the database.
+ *
+ * Availability changes with every checkout and is not part of the watermark, so
+ * it is re-read from the (small) set of borrowed books whenever a snapshot is used.
+ */
+public class CatalogSnapshotService implements AutoCloseable {
+
+    private final CatalogSnapshotRepository repository;
+    private final Path file;
+    private ScheduledExecutorService scheduler;
+    private long savedWatermark = -1;
+
+    public CatalogSnapshotService(CatalogSnapshotRepository repository, Path file) {
+        this.repository = repository;
+        this.file = file;
+    }
+
+    /** The snapshot if it exists and matches the current watermark, otherwise null. */
+    public CatalogSnapshot loadIfCurrent() {
+        long start = System.currentTimeMillis();
+        CatalogSnapshotFile.Contents contents;
+        long watermark;
+        try {
+            contents = CatalogSnapshotFile.read(file);
+            if (contents == null) {
+                System.out.println("✗ No catalog snapshot at " + file + ", loading from the database");
+                return null;
+            }
+            watermark = repository.findWatermark();
+        } catch (IOException | RuntimeException e) {
+            System.out.println("✗ Catalog snapshot not used, loading from the database: "
+                    + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+            return null;
+        }
+        if (contents.getStamp() != watermark) {
+            System.out.println("✗ Catalog snapshot is stale (watermark " + contents.getStamp() + ", database at "
+                    + watermark + "), loading from the database");
+            return null;
+        }
+        savedWatermark = watermark;
+
+        Map<Integer, Integer> borrowed = repository.findBorrowedVersions();
+        Map<Integer, Author> authors = new HashMap<>();
+        for (Author author : contents.getAuthors()) {
+            authors.put(author.getId(), author);
+        }
+        List<Book> books = contents.getBooks();
+        for (Book book : books) {
+            if (book.getAuthor() != null) {
+                Author author = authors.get(book.getAuthor().getId());
+                if (author != null) {
+                    book.setAuthor(author);
+                }
+            }
+            Integer version = borrowed.get(book.getId());
+            setAvailable(book, version == null);
+            if (version != null) {
+                book.setVersion(version);
+            }
+        }
+        System.out.println("✓ Catalog snapshot loaded (" + authors.size() + " authors, " + books.size()
+                + " books at watermark " + watermark + ", " + borrowed.size() + " out on loan, "
+                + (System.currentTimeMillis() - start) + "ms)");
+        return new CatalogSnapshot(watermark, contents.getAuthors(), books);
+    }
+
+    /**
+     * Writes a fresh snapshot unless the file already matches the current
+     * watermark. Returns whether a file was written.
+     */
+    public synchronized boolean save() throws IOException {
+        if (repository.findWatermark() == savedWatermark && Files.exists(file)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        CatalogSnapshot snapshot = repository.readCatalog();
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        CatalogSnapshotFile.write(file, snapshot.getWatermark(), 0, 0, snapshot.getAuthors(), snapshot.getBooks());
+        savedWatermark = snapshot.getWatermark();
+        System.out.println("[snapshot] Catalog snapshot written (" + snapshot.getBooks().size() + " books at watermark "
+                + savedWatermark + ", " + (System.currentTimeMillis() - start) + "ms)");
+        return true;
+    }
+
+    /** Saves every {@code intervalMinutes} on a daemon thread (when the catalog changed). */
+    public synchronized void start(long intervalMinutes) {
+        if (scheduler != null || intervalMinutes <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::saveQuietly, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /** Stops the schedule and saves one last time, so the next start is warm. */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+        }
+        saveQuietly();
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException | RuntimeException e) {
+            // an exception would cancel every later run
+            System.err.println("[snapshot] Catalog snapshot failed: "
+                    + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+        }
+    }
+
+    private static void setAvailable(Book book, boolean available) {
+        if (book instanceof EBook) {
+            ((EBook) book).setAvailable(available);
+        } else if (book instanceof PrintedBook) {
+            ((PrintedBook) book).setAvailable(available);
+        }
+    }
+}
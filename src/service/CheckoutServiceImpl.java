@@ -0,0 +1,170 @@
+package service;
+
+import model.Book;
+import model.Borrowable;
+import model.Loan;
+import model.ReturnResult;
+import repository.interfaces.BookRepository;
+import repository.interfaces.LoanRepository;
+import service.interfaces.CheckoutServiceInterface;
+import exception.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Borrow/return on top of {@link LoanRepository}, which makes each one atomic in
+ * the database. Listeners are told the id of every book whose availability
+ * changed, so cached copies can be dropped.
+ *
+ * With an {@link AvailabilityIndex} availability questions are answered from
+ * memory; without one they go to the database. The index is updated with the
+ * book version each transaction wrote, so concurrent borrows and returns land
+ * in commit order; when a borrow or return is refused the book is re-read
+ * rather than its state guessed. A returned copy that the database handed to a
+ * waiting patron is removed from the {@link HoldQueue}.
+ */
+public class CheckoutServiceImpl implements CheckoutServiceInterface {
+
+    private final LoanRepository loanRepository;
+    private final BookRepository bookRepository;
+    private final int loanDays;
+    private final AvailabilityIndex availabilityIndex;
+    private final HoldQueue holdQueue;
+    private final List<Consumer<Integer>> availabilityListeners = new CopyOnWriteArrayList<>();
+
+    public CheckoutServiceImpl(LoanRepository loanRepository, BookRepository bookRepository, int loanDays) {
+        this(loanRepository, bookRepository, loanDays, null, null);
+    }
+
+    public CheckoutServiceImpl(LoanRepository loanRepository, BookRepository bookRepository, int loanDays,
+            AvailabilityIndex availabilityIndex, HoldQueue holdQueue) {
+        if (!Borrowable.isValidBorrowingPeriod(loanDays)) {
+            throw new IllegalArgumentException("Loan period must be between 1 and 30 days");
+        }
+        this.loanRepository = loanRepository;
+        this.bookRepository = bookRepository;
+        this.loanDays = loanDays;
+        this.availabilityIndex = availabilityIndex;
+        this.holdQueue = holdQueue;
+    }
+
+    public void addAvailabilityListener(Consumer<Integer> listener) {
+        availabilityListeners.add(listener);
+    }
+
+    @Override
+    public Loan borrowBook(int bookId, String patron) throws ResourceNotFoundException, InvalidInputException {
+        validatePatron(patron);
+
+        Loan loan = loanRepository.checkout(bookId, patron.trim(), loanDays);
+        if (loan == null) {
+            // the conditional update cannot tell a missing book from a borrowed one
+            reread(bookId);
+            throw new BookUnavailableException("Book with ID " + bookId + " is already borrowed");
+        }
+        if (availabilityIndex != null) {
+            availabilityIndex.markBorrowed(bookId, loan.getBookVersion());
+        }
+        availabilityChanged(bookId);
+        return loan;
+    }
+
+    @Override
+    public ReturnResult returnBook(int bookId) throws ResourceNotFoundException, InvalidInputException {
+        ReturnResult result = loanRepository.checkin(bookId, loanDays);
+        if (result == null) {
+            reread(bookId);
+            throw new InvalidInputException("Book with ID " + bookId + " is not borrowed");
+        }
+        if (result.isHandedOff()) {
+            if (holdQueue != null) {
+                holdQueue.remove(result.getFulfilledHold());
+            }
+            if (availabilityIndex != null) {
+                // still out, but the version moved on
+                availabilityIndex.markBorrowed(bookId, result.getBookVersion());
+            }
+        } else if (availabilityIndex != null) {
+            availabilityIndex.markReturned(bookId, result.getBookVersion());
+        }
+        availabilityChanged(bookId);
+        return result;
+    }
+
+    @Override
+    public List<Loan> getLoansByPatron(String patron) throws InvalidInputException {
+        validatePatron(patron);
+        return loanRepository.findOpenLoansByPatron(patron.trim());
+    }
+
+    @Override
+    public boolean isAvailable(int bookId) throws ResourceNotFoundException {
+        if (availabilityIndex != null) {
+            Boolean available = availabilityIndex.isAvailable(bookId);
+            if (available != null) {
+                return available;
+            }
+        }
+
+        Book book = bookRepository.findById(bookId);
+        if (book == null) {
+            throw new ResourceNotFoundException("Book with ID " + bookId + " not found");
+        }
+        if (availabilityIndex != null) {
+            availabilityIndex.putBook(book);
+        }
+        return book instanceof Borrowable && ((Borrowable) book).isAvailable();
+    }
+
+    @Override
+    public List<Book> getAvailableBooksByAuthor(int authorId) {
+        // the index narrows the candidates; the books and their flags come from the repository
+        List<Book> candidates = availabilityIndex != null
+                ? bookRepository.findAllById(availabilityIndex.availableBookIdsByAuthor(authorId))
+                : bookRepository.findByAuthorId(authorId);
+        List<Book> available = new ArrayList<>();
+        for (Book book : candidates) {
+            if (book instanceof Borrowable && ((Borrowable) book).isAvailable()) {
+                available.add(book);
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public int getLoanDays() {
+        return loanDays;
+    }
+
+    /**
+     * Reads the book after a refused borrow or return and hands it to the index,
+     * which keeps it only if it is newer than what was applied.
+     */
+    private void reread(int bookId) throws ResourceNotFoundException {
+        Book book = bookRepository.findById(bookId);
+        if (book == null) {
+            throw new ResourceNotFoundException("Book with ID " + bookId + " not found");
+        }
+        if (availabilityIndex != null) {
+            availabilityIndex.putBook(book);
+        }
+    }
+
+    private void availabilityChanged(int bookId) {
+        for (Consumer<Integer> listener : availabilityListeners) {
+            listener.accept(bookId);
+        }
+    }
+
+    static void validatePatron(String patron) throws InvalidInputException {
+        if (patron == null || patron.trim().isEmpty()) {
+            throw new InvalidInputException("Patron name cannot be empty");
+        }
+        if (patron.trim().length() > 255) {
+            throw new InvalidInputException("Patron name is too long");
+        }
+    }
+}
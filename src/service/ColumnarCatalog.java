@@ -0,0 +1,300 @@
+package service;
+
+import model.Author;
+import model.Book;
+import model.CatalogFilter;
+import utils.StringDictionary;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-only columnar copy of the catalog for filters and reports. Each book is a
+ * row across parallel primitive arrays (id, year, author id, title code) plus one
+ * bit in a type bitmap, titles and nationalities are dictionary-encoded, and an
+ * author's nationality is an {@code int[]} lookup by author id. A filter is one
+ * tight loop over those arrays and allocates nothing but its result.
+ *
+ * Built at startup and kept current by the book and author services. Updates
+ * rewrite a row in place and deletes leave a tombstone; once a quarter of the
+ * rows are dead the columns are compacted. Filters share a read lock, updates
+ * take the write lock.
+ */
+public class ColumnarCatalog {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int ANY_TYPE = -1;
+    private static final int ANY_NATIONALITY = -2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringDictionary titles = new StringDictionary();
+    private final StringDictionary nationalities = new StringDictionary();
+    private final Map<Integer, Integer> rowById = new HashMap<>();
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] years = new int[INITIAL_CAPACITY];
+    private int[] authorIds = new int[INITIAL_CAPACITY];
+    private int[] titleCodes = new int[INITIAL_CAPACITY];
+    private long[] eBookBits = new long[words(INITIAL_CAPACITY)];
+    private long[] deletedBits = new long[words(INITIAL_CAPACITY)];
+    private int rows;
+    private int deletedRows;
+
+    // nationality code by author id, StringDictionary.NONE if unknown
+    private int[] nationalityByAuthor = newNationalityColumn(INITIAL_CAPACITY);
+
+    public void rebuild(Iterator<Book> allBooks, Collection<Author> allAuthors) {
+        lock.writeLock().lock();
+        try {
+            titles.clear();
+            nationalities.clear();
+            rowById.clear();
+            Arrays.fill(eBookBits, 0L);
+            Arrays.fill(deletedBits, 0L);
+            Arrays.fill(nationalityByAuthor, StringDictionary.NONE);
+            rows = 0;
+            deletedRows = 0;
+            for (Author author : allAuthors) {
+                setNationality(author.getId(), author.getNationality());
+            }
+            while (allBooks.hasNext()) {
+                writeBook(allBooks.next());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putBook(Book book) {
+        lock.writeLock().lock();
+        try {
+            writeBook(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(int id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.remove(id);
+            if (row != null) {
+                deletedBits[row >>> 6] |= 1L << row;
+                deletedRows++;
+                if (deletedRows >= INITIAL_CAPACITY && deletedRows * 4 >= rows) {
+                    compact();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAuthor(Author author) {
+        lock.writeLock().lock();
+        try {
+            setNationality(author.getId(), author.getNationality());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAuthor(int id) {
+        lock.writeLock().lock();
+        try {
+            if (id >= 0 && id < nationalityByAuthor.length) {
+                nationalityByAuthor[id] = StringDictionary.NONE;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int count(CatalogFilter filter) {
+        lock.readLock().lock();
+        try {
+            return scan(filter, null, Integer.MAX_VALUE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids of up to {@code limit} matching books, in row order. */
+    public int[] filterIds(CatalogFilter filter, int limit) {
+        lock.readLock().lock();
+        try {
+            int[] out = new int[Math.min(limit, rows - deletedRows)];
+            return Arrays.copyOf(out, scan(filter, out, out.length));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String getTitle(int bookId) {
+        lock.readLock().lock();
+        try {
+            Integer row = rowById.get(bookId);
+            return row != null ? titles.decode(titleCodes[row]) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getBookCount() {
+        lock.readLock().lock();
+        try {
+            return rows - deletedRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int scan(CatalogFilter filter, int[] out, int limit) {
+        int fromYear = filter.getFromYear() != null ? filter.getFromYear() : Integer.MIN_VALUE;
+        int toYear = filter.getToYear() != null ? filter.getToYear() : Integer.MAX_VALUE;
+        int type = filter.getBookType() == null ? ANY_TYPE : "EBOOK".equals(filter.getBookType()) ? 1 : 0;
+        int nationality = filter.getNationality() == null
+                ? ANY_NATIONALITY
+                : nationalities.codeOf(filter.getNationality());
+        if (nationality == StringDictionary.NONE || limit == 0) {
+            return 0;
+        }
+
+        // columns in locals so the loop reads no fields
+        int[] ids = this.ids;
+        int[] years = this.years;
+        int[] authorIds = this.authorIds;
+        long[] eBookBits = this.eBookBits;
+        long[] deletedBits = this.deletedBits;
+        int[] nationalityByAuthor = this.nationalityByAuthor;
+        int matches = 0;
+        for (int row = 0, n = rows; row < n; row++) {
+            if ((deletedBits[row >>> 6] & (1L << row)) != 0) {
+                continue;
+            }
+            int year = years[row];
+            if (year < fromYear || year > toYear) {
+                continue;
+            }
+            if (type != ANY_TYPE && (int) ((eBookBits[row >>> 6] >>> row) & 1L) != type) {
+                continue;
+            }
+            if (nationality != ANY_NATIONALITY) {
+                int authorId = authorIds[row];
+                if (authorId <= 0 || authorId >= nationalityByAuthor.length
+                        || nationalityByAuthor[authorId] != nationality) {
+                    continue;
+                }
+            }
+            if (out != null) {
+                out[matches] = ids[row];
+            }
+            if (++matches == limit) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    private void writeBook(Book book) {
+        Integer existing = rowById.get(book.getId());
+        int row;
+        if (existing != null) {
+            row = existing;
+        } else {
+            ensureCapacity(rows + 1);
+            row = rows++;
+            rowById.put(book.getId(), row);
+        }
+        Author author = book.getAuthor();
+        int authorId = author != null ? author.getId() : 0;
+        ids[row] = book.getId();
+        years[row] = book.getYear();
+        authorIds[row] = authorId;
+        titleCodes[row] = titles.encode(book.getTitle());
+        if ("EBOOK".equals(book.getBookType())) {
+            eBookBits[row >>> 6] |= 1L << row;
+        } else {
+            eBookBits[row >>> 6] &= ~(1L << row);
+        }
+        // the book's author row may be a lookup placeholder; only fill gaps from it
+        if (author != null && author.getNationality() != null
+                && nationalityOf(authorId) == StringDictionary.NONE) {
+            setNationality(authorId, author.getNationality());
+        }
+    }
+
+    private int nationalityOf(int authorId) {
+        return authorId > 0 && authorId < nationalityByAuthor.length
+                ? nationalityByAuthor[authorId]
+                : StringDictionary.NONE;
+    }
+
+    private void setNationality(int authorId, String nationality) {
+        if (authorId <= 0) {
+            return;
+        }
+        if (authorId >= nationalityByAuthor.length) {
+            int oldLength = nationalityByAuthor.length;
+            nationalityByAuthor = Arrays.copyOf(nationalityByAuthor, Math.max(authorId + 1, oldLength * 2));
+            Arrays.fill(nationalityByAuthor, oldLength, nationalityByAuthor.length, StringDictionary.NONE);
+        }
+        nationalityByAuthor[authorId] = nationalities.encode(nationality);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newLength = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newLength);
+        years = Arrays.copyOf(years, newLength);
+        authorIds = Arrays.copyOf(authorIds, newLength);
+        titleCodes = Arrays.copyOf(titleCodes, newLength);
+        eBookBits = Arrays.copyOf(eBookBits, words(newLength));
+        deletedBits = Arrays.copyOf(deletedBits, words(newLength));
+    }
+
+    /** Drops tombstoned rows and titles no live row uses any more. */
+    private void compact() {
+        String[] oldTitles = new String[titles.size()];
+        for (int code = 0; code < oldTitles.length; code++) {
+            oldTitles[code] = titles.decode(code);
+        }
+        titles.clear();
+        long[] oldEBookBits = eBookBits;
+        eBookBits = new long[eBookBits.length];
+        int live = 0;
+        for (int row = 0; row < rows; row++) {
+            if ((deletedBits[row >>> 6] & (1L << row)) != 0) {
+                continue;
+            }
+            ids[live] = ids[row];
+            years[live] = years[row];
+            authorIds[live] = authorIds[row];
+            titleCodes[live] = titles.encode(oldTitles[titleCodes[row]]);
+            if ((oldEBookBits[row >>> 6] & (1L << row)) != 0) {
+                eBookBits[live >>> 6] |= 1L << live;
+            }
+            rowById.put(ids[live], live);
+            live++;
+        }
+        Arrays.fill(deletedBits, 0L);
+        rows = live;
+        deletedRows = 0;
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static int[] newNationalityColumn(int length) {
+        int[] column = new int[length];
+        Arrays.fill(column, StringDictionary.NONE);
+        return column;
+    }
+}
@@ -0,0 +1,202 @@
+package service;
+
+import model.Author;
+import model.Book;
+import repository.interfaces.AuthorRepository;
+import repository.interfaces.BookRepository;
+import service.interfaces.FacetServiceInterface;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cached catalog facet counts. The first read loads them with one GROUP BY query
+ * per facet; after that the book and author services report every single-row
+ * change and the counts are adjusted in place, so a facet sidebar never goes to
+ * the database. Bulk updates and deletes report each book the same way; only
+ * {@link #refresh()} (e.g. after an in-place edit) makes the next read reload.
+ *
+ * A load must not fall between a book write and its report, or the GROUP BY
+ * would already count the book and the report would count it again. Writers run
+ * the write and the report through {@link #write}, which shares a read lock among
+ * them; a load takes the write lock, so it waits for those in flight and holds
+ * new ones back until the counts are read.
+ */
+public class FacetServiceImpl implements FacetServiceInterface {
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+
+    private final ReentrantReadWriteLock writes = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+    private final Map<String, Long> byType = new HashMap<>();
+    private final Map<Integer, Long> byDecade = new HashMap<>();
+    private final Map<Integer, Long> byAuthor = new HashMap<>();
+    private final Map<String, Long> byNationality = new HashMap<>();
+    private final Map<Integer, Author> authors = new HashMap<>();
+
+    public FacetServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+    }
+
+    @Override
+    public Map<String, Long> getTypeCounts() {
+        load();
+        synchronized (this) {
+            return sortedByCount(byType, Integer.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getDecadeCounts() {
+        load();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        synchronized (this) {
+            byDecade.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(e -> counts.put(e.getKey() + "s", e.getValue()));
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getAuthorCounts(int limit) {
+        load();
+        Map<String, Long> byName = new HashMap<>();
+        synchronized (this) {
+            byAuthor.forEach((authorId, count) -> {
+                Author author = authors.get(authorId);
+                byName.put(author != null ? author.getName() : "Author " + authorId, count);
+            });
+        }
+        return sortedByCount(byName, limit);
+    }
+
+    @Override
+    public Map<String, Long> getNationalityCounts() {
+        load();
+        synchronized (this) {
+            return sortedByCount(byNationality, Integer.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public synchronized void refresh() {
+        loaded = false;
+    }
+
+    /** Runs a book write together with its report, so that no load falls between the two. */
+    public void write(Runnable writeAndReport) {
+        writes.readLock().lock();
+        try {
+            writeAndReport.run();
+        } finally {
+            writes.readLock().unlock();
+        }
+    }
+
+    public synchronized void bookAdded(Book book) {
+        adjust(book, 1);
+    }
+
+    public synchronized void bookRemoved(Book book) {
+        adjust(book, -1);
+    }
+
+    public synchronized void bookUpdated(Book previous, Book current) {
+        adjust(previous, -1);
+        adjust(current, 1);
+    }
+
+    public synchronized void authorSaved(Author author) {
+        if (!loaded) {
+            return;
+        }
+        Author previous = authors.put(author.getId(), author);
+        if (previous == author) {
+            // edited in place, the old nationality is gone
+            loaded = false;
+            return;
+        }
+        long books = byAuthor.getOrDefault(author.getId(), 0L);
+        if (previous != null && books > 0 && !Objects.equals(previous.getNationality(), author.getNationality())) {
+            add(byNationality, previous.getNationality(), -books);
+            add(byNationality, author.getNationality(), books);
+        }
+    }
+
+    public synchronized void authorRemoved(int authorId) {
+        // an author can only be deleted once they have no books
+        authors.remove(authorId);
+    }
+
+    // lock order is writes, then this: a writer holds the read lock when it reports
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        writes.writeLock().lock();
+        try {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        } finally {
+            writes.writeLock().unlock();
+        }
+    }
+
+    private void reload() {
+        byType.clear();
+        byDecade.clear();
+        byAuthor.clear();
+        byNationality.clear();
+        authors.clear();
+        byType.putAll(bookRepository.countByType());
+        byDecade.putAll(bookRepository.countByDecade());
+        byAuthor.putAll(bookRepository.countByAuthor());
+        byNationality.putAll(bookRepository.countByAuthorNationality());
+        for (Author author : authorRepository.findAll()) {
+            authors.put(author.getId(), author);
+        }
+        loaded = true;
+    }
+
+    private void adjust(Book book, long delta) {
+        if (!loaded) {
+            // the next load reads the change from the database
+            return;
+        }
+        add(byType, book.getBookType(), delta);
+        add(byDecade, book.getYear() / 10 * 10, delta);
+        if (book.getAuthor() != null) {
+            int authorId = book.getAuthor().getId();
+            add(byAuthor, authorId, delta);
+            Author author = authors.get(authorId);
+            add(byNationality, author != null ? author.getNationality() : book.getAuthor().getNationality(), delta);
+        }
+    }
+
+    private static <K> void add(Map<K, Long> counts, K key, long delta) {
+        if (key != null) {
+            // a count that drops to zero removes the facet value
+            counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private static Map<String, Long> sortedByCount(Map<String, Long> counts, int limit) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+}
@@ -0,0 +1,98 @@
+package service;
+
+import model.Hold;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory mirror of the open holds, one queue per book. Each queue is a
+ * {@link ConcurrentSkipListMap} keyed by hold id, so it stays in database (FIFO)
+ * order whatever order the mirror is updated in. Updates to one book run inside
+ * the map's {@code compute} for that book; depth and position reads never block.
+ *
+ * A hold can be fulfilled or cancelled before the thread that placed it gets to
+ * {@link #add} it, so a removal of a hold the queue has not seen is remembered and
+ * the late add is dropped.
+ *
+ * The database decides who gets a returned copy; this only answers depth and
+ * position questions without a round trip.
+ */
+public class HoldQueue {
+
+    private final Map<Integer, BookQueue> queues = new ConcurrentHashMap<>();
+
+    public void rebuild(List<Hold> openHolds) {
+        queues.clear();
+        openHolds.forEach(this::add);
+    }
+
+    public void add(Hold hold) {
+        queues.compute(hold.getBookId(), (bookId, queue) -> {
+            if (queue == null) {
+                queue = new BookQueue();
+            }
+            if (!queue.closed.remove(hold.getId()) && queue.holds.putIfAbsent(hold.getId(), hold) == null) {
+                queue.depth.incrementAndGet();
+            }
+            return queue;
+        });
+    }
+
+    public void remove(Hold hold) {
+        queues.compute(hold.getBookId(), (bookId, queue) -> {
+            if (queue == null) {
+                queue = new BookQueue();
+            }
+            if (queue.holds.remove(hold.getId()) != null) {
+                queue.depth.decrementAndGet();
+            } else {
+                queue.closed.add(hold.getId());
+            }
+            return queue;
+        });
+    }
+
+    public void removeBook(int bookId) {
+        queues.remove(bookId);
+    }
+
+    public int depth(int bookId) {
+        BookQueue queue = queues.get(bookId);
+        return queue == null ? 0 : queue.depth.get();
+    }
+
+    /** 1-based place of the patron in the book's queue, or 0 if they are not waiting. */
+    public int position(int bookId, String patron) {
+        BookQueue queue = queues.get(bookId);
+        if (queue == null) {
+            return 0;
+        }
+        int position = 0;
+        for (Hold hold : queue.holds.values()) {
+            position++;
+            if (hold.getPatron().equals(patron)) {
+                return position;
+            }
+        }
+        return 0;
+    }
+
+    public List<Hold> snapshot(int bookId) {
+        BookQueue queue = queues.get(bookId);
+        return queue == null ? new ArrayList<>() : new ArrayList<>(queue.holds.values());
+    }
+
+    private static final class BookQueue {
+        private final ConcurrentSkipListMap<Integer, Hold> holds = new ConcurrentSkipListMap<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        // holds removed before they were added; only touched inside compute
+        private final Set<Integer> closed = new HashSet<>();
+    }
+}
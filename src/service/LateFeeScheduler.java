@@ -0,0 +1,63 @@
+package service;
+
+import model.AccrualReport;
+import service.interfaces.LateFeeServiceInterface;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the late-fee accrual once at start (to catch up on missed days) and then
+ * every day at {@code runAt}, on a single daemon thread. A failed run is logged
+ * and retried at the next slot; accrual is idempotent, so nothing is lost.
+ */
+public class LateFeeScheduler implements AutoCloseable {
+
+    private final LateFeeServiceInterface lateFeeService;
+    private final LocalTime runAt;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "late-fee-accrual");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LateFeeScheduler(LateFeeServiceInterface lateFeeService, LocalTime runAt) {
+        this.lateFeeService = lateFeeService;
+        this.runAt = runAt;
+    }
+
+    public void start() {
+        scheduler.execute(this::runOnce);
+        scheduler.scheduleAtFixedRate(this::runOnce, millisUntilNextRun(LocalDateTime.now()),
+                TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    private void runOnce() {
+        try {
+            AccrualReport report = lateFeeService.accrueFees(LocalDate.now());
+            System.out.println("[fees] " + report);
+        } catch (RuntimeException e) {
+            // an exception would cancel every later run
+            System.err.println("[fees] Late fee accrual failed: "
+                    + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+        }
+    }
+
+    private long millisUntilNextRun(LocalDateTime now) {
+        LocalDateTime next = now.toLocalDate().atTime(runAt);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        return Duration.between(now, next).toMillis();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
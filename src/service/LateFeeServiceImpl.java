@@ -0,0 +1,46 @@
+package service;
+
+import model.AccrualReport;
+import model.EBook;
+import model.PrintedBook;
+import repository.interfaces.LateFeeRepository;
+import service.interfaces.LateFeeServiceInterface;
+
+import java.time.LocalDate;
+
+/**
+ * Accrues late fees for all overdue loans, {@code chunkSize} loan ids per
+ * statement so no single transaction grows with the size of the loans table.
+ * Each chunk commits on its own; an interrupted run is finished by the next one.
+ * Fees use the default per-type daily rates of {@link EBook} and
+ * {@link PrintedBook}.
+ */
+public class LateFeeServiceImpl implements LateFeeServiceInterface {
+
+    private final LateFeeRepository lateFeeRepository;
+    private final int chunkSize;
+
+    public LateFeeServiceImpl(LateFeeRepository lateFeeRepository, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.lateFeeRepository = lateFeeRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public AccrualReport accrueFees(LocalDate asOf) {
+        AccrualReport report = new AccrualReport(asOf);
+        long start = System.currentTimeMillis();
+
+        int maxLoanId = lateFeeRepository.findMaxLoanId();
+        for (long from = 1; from <= maxLoanId; from += chunkSize) {
+            int to = (int) Math.min(from + chunkSize - 1, maxLoanId);
+            report.addChunk(lateFeeRepository.accrueFees(asOf, (int) from, to,
+                    EBook.DEFAULT_LATE_FEE, PrintedBook.DEFAULT_LATE_FEE));
+        }
+
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        return report;
+    }
+}
@@ -0,0 +1,106 @@
+package service;
+
+import model.Hold;
+import model.Loan;
+import repository.interfaces.BookRepository;
+import repository.interfaces.HoldRepository;
+import repository.interfaces.LoanRepository;
+import service.interfaces.ReservationServiceInterface;
+import exception.*;
+
+import java.util.List;
+
+/**
+ * Per-book FIFO hold queues. Holds are written to the database first and then
+ * mirrored in a {@link HoldQueue}, which answers depth and position queries;
+ * without a mirror those go to the database.
+ */
+public class ReservationServiceImpl implements ReservationServiceInterface {
+
+    private final HoldRepository holdRepository;
+    private final LoanRepository loanRepository;
+    private final BookRepository bookRepository;
+    private final HoldQueue holdQueue;
+
+    public ReservationServiceImpl(HoldRepository holdRepository, LoanRepository loanRepository,
+            BookRepository bookRepository, HoldQueue holdQueue) {
+        this.holdRepository = holdRepository;
+        this.loanRepository = loanRepository;
+        this.bookRepository = bookRepository;
+        this.holdQueue = holdQueue;
+    }
+
+    @Override
+    public Hold placeHold(int bookId, String patron) throws ResourceNotFoundException, InvalidInputException {
+        CheckoutServiceImpl.validatePatron(patron);
+        String name = patron.trim();
+
+        Hold hold = holdRepository.placeHold(bookId, name);
+        if (hold == null) {
+            // work out which of the insert's conditions failed
+            if (!bookRepository.existsById(bookId)) {
+                throw new ResourceNotFoundException("Book with ID " + bookId + " not found");
+            }
+            Loan loan = loanRepository.findOpenLoan(bookId);
+            if (loan == null) {
+                throw new InvalidInputException("Book with ID " + bookId + " is available, borrow it instead");
+            }
+            if (loan.getPatron().equals(name)) {
+                throw new InvalidInputException(name + " already has book " + bookId);
+            }
+            throw new DuplicateResourceException(name + " is already waiting for book " + bookId);
+        }
+        if (holdQueue != null) {
+            holdQueue.add(hold);
+        }
+        return hold;
+    }
+
+    @Override
+    public void cancelHold(int holdId, String patron) throws ResourceNotFoundException, InvalidInputException {
+        CheckoutServiceImpl.validatePatron(patron);
+        Hold hold = holdRepository.cancelHold(holdId, patron.trim());
+        if (hold == null) {
+            throw new ResourceNotFoundException("No open hold " + holdId + " for " + patron.trim());
+        }
+        if (holdQueue != null) {
+            holdQueue.remove(hold);
+        }
+    }
+
+    @Override
+    public int getQueueDepth(int bookId) {
+        if (holdQueue != null) {
+            return holdQueue.depth(bookId);
+        }
+        return holdRepository.findOpenHolds(bookId).size();
+    }
+
+    @Override
+    public int getQueuePosition(int bookId, String patron) {
+        if (holdQueue != null) {
+            return holdQueue.position(bookId, patron);
+        }
+        List<Hold> queue = holdRepository.findOpenHolds(bookId);
+        for (int i = 0; i < queue.size(); i++) {
+            if (queue.get(i).getPatron().equals(patron)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public List<Hold> getQueue(int bookId) {
+        if (holdQueue != null) {
+            return holdQueue.snapshot(bookId);
+        }
+        return holdRepository.findOpenHolds(bookId);
+    }
+
+    @Override
+    public List<Hold> getHoldsByPatron(String patron) throws InvalidInputException {
+        CheckoutServiceImpl.validatePatron(patron);
+        return holdRepository.findOpenHoldsByPatron(patron.trim());
+    }
+}
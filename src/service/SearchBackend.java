@@ -0,0 +1,23 @@
+package service;
+
+/**
+ * Backend used by {@code BookServiceInterface.searchByTitle}, selected with the
+ * {@code search.backend} config key.
+ */
+public enum SearchBackend {
+    /** Streams the table and filters titles with contains(). */
+    SCAN,
+    /** In-memory trigram index ({@link CatalogSearchIndex}). */
+    INDEX,
+    /** PostgreSQL full-text search over the books.search_vector column. */
+    FULLTEXT;
+
+    public static SearchBackend fromConfig(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown search backend '" + value + "', using INDEX");
+            return INDEX;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package service.interfaces;
+
+import model.Author;
+import model.Page;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link AuthorServiceInterface}. Checked exceptions of the
+ * blocking methods complete the returned future exceptionally.
+ */
+public interface AsyncAuthorServiceInterface {
+
+    CompletableFuture<Void> createAuthor(Author author);
+
+    CompletableFuture<Author> getAuthorById(int id);
+
+    CompletableFuture<List<Author>> getAllAuthors();
+
+    CompletableFuture<Page<Author>> getAuthorsPage(Author after, int pageSize);
+
+    CompletableFuture<Void> updateAuthor(Author author);
+
+    CompletableFuture<Void> deleteAuthor(int id);
+
+    CompletableFuture<List<Author>> searchByName(String keyword);
+}
@@ -0,0 +1,35 @@
+package service.interfaces;
+
+import model.Book;
+import model.Page;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link BookServiceInterface}. Checked exceptions of the
+ * blocking methods complete the returned future exceptionally.
+ */
+public interface AsyncBookServiceInterface {
+
+    CompletableFuture<Void> createBook(Book book);
+
+    CompletableFuture<Void> createBooks(List<Book> books);
+
+    CompletableFuture<Book> getBookById(int id);
+
+    CompletableFuture<List<Book>> getBooksByIds(List<Integer> ids);
+
+    CompletableFuture<List<Book>> getAllBooks();
+
+    CompletableFuture<Page<Book>> getBooksPageByTitle(Book after, int pageSize);
+
+    CompletableFuture<Page<Book>> getBooksPageByYear(Book after, int pageSize);
+
+    CompletableFuture<Void> updateBook(Book book);
+
+    CompletableFuture<Void> deleteBook(int id);
+
+    CompletableFuture<List<Book>> searchByTitle(String keyword);
+
+    CompletableFuture<Page<Book>> searchFullText(String query, int page, int pageSize);
+}
@@ -1,6 +1,7 @@
 package service.interfaces;
 
 import model.Author;
+import model.Page;
 import exception.*;
 import java.util.List;
 
@@ -8,13 +9,29 @@ public interface AuthorServiceInterface {
 
     void createAuthor(Author author) throws InvalidInputException, DuplicateResourceException;
 
+    void createAuthors(List<Author> authors) throws InvalidInputException, DuplicateResourceException;
+
     Author getAuthorById(int id) throws ResourceNotFoundException;
 
     List<Author> getAllAuthors();
 
     List<Author> getAuthorsSortedByName();
 
+    List<Author> getTopAuthorsByName(int limit);
+
+    Page<Author> getAuthorsPage(Author after, int pageSize);
+
     void updateAuthor(Author author) throws ResourceNotFoundException, InvalidInputException;
 
+    void updateAuthors(List<Author> authors) throws InvalidInputException;
+
     void deleteAuthor(int id) throws ResourceNotFoundException, InvalidInputException;
+
+    void deleteAuthors(List<Integer> ids) throws InvalidInputException;
+
+    List<Author> searchByName(String keyword);
+
+    List<Author> fuzzySearchByName(String query);
+
+    List<String> autocompleteNames(String prefix);
 }
@@ -1,24 +1,58 @@
 package service.interfaces;
 
 import model.Book;
+import model.CatalogFilter;
+import model.Page;
 import exception.*;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookServiceInterface {
 
     void createBook(Book book) throws InvalidInputException, ResourceNotFoundException, DuplicateResourceException;
 
+    void createBooks(List<Book> books)
+            throws InvalidInputException, ResourceNotFoundException, DuplicateResourceException;
+
     Book getBookById(int id) throws ResourceNotFoundException;
 
     List<Book> getAllBooks();
 
+    Stream<Book> streamAllBooks();
+
     List<Book> getBooksSortedByTitle();
 
     List<Book> getBooksSortedByYear();
 
+    List<Book> getTopBooksByTitle(int limit);
+
+    List<Book> getTopBooksByYear(int limit);
+
+    Page<Book> getBooksPageByTitle(Book after, int pageSize);
+
+    Page<Book> getBooksPageByYear(Book after, int pageSize);
+
     void updateBook(Book book) throws ResourceNotFoundException, InvalidInputException;
 
+    void updateBooks(List<Book> books) throws InvalidInputException;
+
     void deleteBook(int id) throws ResourceNotFoundException;
 
+    void deleteBooks(List<Integer> ids);
+
     List<Book> searchByTitle(String keyword);
+
+    Page<Book> searchFullText(String query, int page, int pageSize);
+
+    List<Book> fuzzySearchByTitle(String query);
+
+    List<String> autocompleteTitles(String prefix);
+
+    long countBooks(CatalogFilter filter) throws InvalidInputException;
+
+    List<Book> filterBooks(CatalogFilter filter, int limit) throws InvalidInputException;
+
+    long exportCsv(Path file) throws IOException;
 }
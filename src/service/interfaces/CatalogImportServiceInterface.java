@@ -0,0 +1,10 @@
+package service.interfaces;
+
+import model.ImportReport;
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface CatalogImportServiceInterface {
+
+    ImportReport importCsv(Path file) throws IOException;
+}
@@ -0,0 +1,22 @@
+package service.interfaces;
+
+import model.Book;
+import model.Loan;
+import model.ReturnResult;
+import exception.*;
+import java.util.List;
+
+public interface CheckoutServiceInterface {
+
+    Loan borrowBook(int bookId, String patron) throws ResourceNotFoundException, InvalidInputException;
+
+    ReturnResult returnBook(int bookId) throws ResourceNotFoundException, InvalidInputException;
+
+    List<Loan> getLoansByPatron(String patron) throws InvalidInputException;
+
+    boolean isAvailable(int bookId) throws ResourceNotFoundException;
+
+    List<Book> getAvailableBooksByAuthor(int authorId);
+
+    int getLoanDays();
+}
@@ -0,0 +1,21 @@
+package service.interfaces;
+
+import java.util.Map;
+
+public interface FacetServiceInterface {
+
+    /** Book counts per type, largest first. */
+    Map<String, Long> getTypeCounts();
+
+    /** Book counts per decade ("1990s"), oldest first. */
+    Map<String, Long> getDecadeCounts();
+
+    /** Book counts of the {@code limit} authors with the most books, largest first. */
+    Map<String, Long> getAuthorCounts(int limit);
+
+    /** Book counts per author nationality, largest first. */
+    Map<String, Long> getNationalityCounts();
+
+    /** Drops the cached counts; the next read recomputes them in the database. */
+    void refresh();
+}
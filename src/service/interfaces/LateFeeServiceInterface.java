@@ -0,0 +1,9 @@
+package service.interfaces;
+
+import model.AccrualReport;
+import java.time.LocalDate;
+
+public interface LateFeeServiceInterface {
+
+    AccrualReport accrueFees(LocalDate asOf);
+}
@@ -0,0 +1,20 @@
+package service.interfaces;
+
+import model.Hold;
+import exception.*;
+import java.util.List;
+
+public interface ReservationServiceInterface {
+
+    Hold placeHold(int bookId, String patron) throws ResourceNotFoundException, InvalidInputException;
+
+    void cancelHold(int holdId, String patron) throws ResourceNotFoundException, InvalidInputException;
+
+    int getQueueDepth(int bookId);
+
+    int getQueuePosition(int bookId, String patron);
+
+    List<Hold> getQueue(int bookId);
+
+    List<Hold> getHoldsByPatron(String patron) throws InvalidInputException;
+}
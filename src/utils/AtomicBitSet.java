@@ -0,0 +1,112 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free bitset over non-negative int indexes. Bits live in 64K-bit segments
+ * that are allocated on first write with a CAS, and every update is a CAS on one
+ * 64-bit word, so readers never block and writers only contend when they touch
+ * the same word.
+ */
+public class AtomicBitSet {
+
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int SEGMENT_BITS = 1 << SEGMENT_SHIFT;
+    private static final int WORDS_PER_SEGMENT = SEGMENT_BITS / 64;
+    private static final int MAX_SEGMENTS = (int) ((Integer.MAX_VALUE + 1L) >>> SEGMENT_SHIFT);
+
+    private final AtomicReferenceArray<AtomicLongArray> segments = new AtomicReferenceArray<>(MAX_SEGMENTS);
+
+    public boolean get(int index) {
+        AtomicLongArray segment = segments.get(checkIndex(index) >>> SEGMENT_SHIFT);
+        return segment != null && (segment.get(wordIndex(index)) & mask(index)) != 0;
+    }
+
+    /** Sets the bit and returns {@code true} if it was previously clear. */
+    public boolean set(int index) {
+        AtomicLongArray segment = segmentForWrite(checkIndex(index) >>> SEGMENT_SHIFT);
+        int word = wordIndex(index);
+        long mask = mask(index);
+        while (true) {
+            long current = segment.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (segment.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    /** Clears the bit and returns {@code true} if it was previously set. */
+    public boolean clear(int index) {
+        AtomicLongArray segment = segments.get(checkIndex(index) >>> SEGMENT_SHIFT);
+        if (segment == null) {
+            return false;
+        }
+        int word = wordIndex(index);
+        long mask = mask(index);
+        while (true) {
+            long current = segment.get(word);
+            if ((current & mask) == 0) {
+                return false;
+            }
+            if (segment.compareAndSet(word, current, current & ~mask)) {
+                return true;
+            }
+        }
+    }
+
+    public void set(int index, boolean value) {
+        if (value) {
+            set(index);
+        } else {
+            clear(index);
+        }
+    }
+
+    public void clearAll() {
+        for (int i = 0; i < MAX_SEGMENTS; i++) {
+            segments.set(i, null);
+        }
+    }
+
+    /** Number of set bits; a moving target while other threads are writing. */
+    public long cardinality() {
+        long count = 0;
+        for (int i = 0; i < MAX_SEGMENTS; i++) {
+            AtomicLongArray segment = segments.get(i);
+            if (segment != null) {
+                for (int w = 0; w < WORDS_PER_SEGMENT; w++) {
+                    count += Long.bitCount(segment.get(w));
+                }
+            }
+        }
+        return count;
+    }
+
+    private AtomicLongArray segmentForWrite(int segmentIndex) {
+        AtomicLongArray segment = segments.get(segmentIndex);
+        if (segment == null) {
+            AtomicLongArray created = new AtomicLongArray(WORDS_PER_SEGMENT);
+            segment = segments.compareAndSet(segmentIndex, null, created) ? created : segments.get(segmentIndex);
+        }
+        return segment;
+    }
+
+    private static int checkIndex(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Negative bit index: " + index);
+        }
+        return index;
+    }
+
+    private static int wordIndex(int index) {
+        return (index & (SEGMENT_BITS - 1)) >>> 6;
+    }
+
+    private static long mask(int index) {
+        return 1L << (index & 63);
+    }
+}
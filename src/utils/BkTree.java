@@ -0,0 +1,229 @@
+package utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BK-tree over lowercased strings for edit-distance (Levenshtein) lookups. The
+ * triangle inequality lets a query skip every subtree whose edge distance is
+ * outside {@code [d - max, d + max]}, so only a small part of the tree is compared.
+ *
+ * Each key carries the set of ids that share it. Removing the last id leaves the
+ * node in place as a routing node; the tree is rebuilt once those outnumber the
+ * live keys.
+ */
+public class BkTree {
+
+    private Node root;
+    private final Map<Integer, String> keysById = new HashMap<>();
+    private int liveKeys;
+    private int deadKeys;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(int id, String value) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            String key = value.toLowerCase();
+            keysById.put(id, key);
+            insert(key).ids.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (deadKeys > liveKeys && deadKeys > 64) {
+                rebuild();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root = null;
+            keysById.clear();
+            liveKeys = 0;
+            deadKeys = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every key within {@code maxDistance} edits of {@code query}, ordered by
+     * distance and then by key.
+     */
+    public List<Match> search(String query, int maxDistance) {
+        String key = query.toLowerCase();
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (root == null) {
+                return matches;
+            }
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int distance = distance(key, node.key, Integer.MAX_VALUE);
+                if (distance <= maxDistance && !node.ids.isEmpty()) {
+                    matches.add(new Match(node.key, distance, new ArrayList<>(node.ids)));
+                }
+                for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                        pending.push(child.getValue());
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingInt(Match::getDistance).thenComparing(Match::getKey));
+        return matches;
+    }
+
+    /**
+     * Levenshtein distance between {@code a} and {@code b}. Once every cell of a row
+     * exceeds {@code max} the computation stops and {@code max + 1} is returned.
+     */
+    public static int distance(String a, String b, int max) {
+        if (max != Integer.MAX_VALUE && Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (max != Integer.MAX_VALUE && rowMin > max) {
+                return max + 1;
+            }
+            int[] tmp = previous;
+            previous = current;
+            current = tmp;
+        }
+        return previous[b.length()];
+    }
+
+    private Node insert(String key) {
+        if (root == null) {
+            root = new Node(key);
+            liveKeys++;
+            return root;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(key, node.key, Integer.MAX_VALUE);
+            if (distance == 0) {
+                if (node.ids.isEmpty()) {
+                    deadKeys--;
+                    liveKeys++;
+                }
+                return node;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                child = new Node(key);
+                node.children.put(distance, child);
+                liveKeys++;
+                return child;
+            }
+            node = child;
+        }
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        while (node != null) {
+            int distance = distance(key, node.key, Integer.MAX_VALUE);
+            if (distance == 0) {
+                return node;
+            }
+            node = node.children.get(distance);
+        }
+        return null;
+    }
+
+    private void removeInternal(int id) {
+        String key = keysById.remove(id);
+        if (key == null) {
+            return;
+        }
+        Node node = find(key);
+        if (node != null && node.ids.remove(id) && node.ids.isEmpty()) {
+            liveKeys--;
+            deadKeys++;
+        }
+    }
+
+    private void rebuild() {
+        Map<Integer, String> live = new HashMap<>(keysById);
+        root = null;
+        liveKeys = 0;
+        deadKeys = 0;
+        for (Map.Entry<Integer, String> entry : live.entrySet()) {
+            insert(entry.getValue()).ids.add(entry.getKey());
+        }
+    }
+
+    public static final class Match {
+        private final String key;
+        private final int distance;
+        private final List<Integer> ids;
+
+        private Match(String key, int distance, List<Integer> ids) {
+            this.key = key;
+            this.distance = distance;
+            this.ids = ids;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+
+        public List<Integer> getIds() {
+            return ids;
+        }
+    }
+
+    private static final class Node {
+        private final String key;
+        private final Set<Integer> ids = new HashSet<>();
+        private final Map<Integer, Node> children = new HashMap<>();
+
+        private Node(String key) {
+            this.key = key;
+        }
+    }
+}
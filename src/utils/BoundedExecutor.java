@@ -0,0 +1,127 @@
+package utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking tasks, one thread per task, and returns their results as
+ * {@link CompletableFuture}s. At most {@code maxConcurrency} tasks run their body
+ * at once, so callers can fan out freely without queuing more work on the
+ * connection pool than it has connections.
+ *
+ * On Java 21+ tasks run on virtual threads, each blocking on a permit before its
+ * body runs. Older runtimes fall back to a fixed pool of {@code maxConcurrency}
+ * daemon platform threads with a queue in front, so a fan-out of 10,000 tasks
+ * queues 10,000 tasks rather than starting 10,000 threads.
+ */
+public class BoundedExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final boolean virtualThreads;
+
+    public BoundedExecutor(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be positive");
+        }
+        this.virtualThreads = virtualThreadsAvailable();
+        this.executor = virtualThreads
+                ? newThreadPerTaskExecutor("async-service-")
+                : Executors.newFixedThreadPool(maxConcurrency, daemonThreadFactory("async-service-"));
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+                return;
+            }
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                permits.release();
+            }
+        });
+        return future;
+    }
+
+    public CompletableFuture<Void> run(ThrowingRunnable task) {
+        return submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * An unbounded executor that starts one thread per task: a virtual thread on
+     * Java 21+, otherwise a daemon platform thread named {@code threadNamePrefix + n}.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String threadNamePrefix) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return newDaemonThreadExecutor(threadNamePrefix);
+        }
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService newDaemonThreadExecutor(String threadNamePrefix) {
+        return Executors.newCachedThreadPool(daemonThreadFactory(threadNamePrefix));
+    }
+
+    private static ThreadFactory daemonThreadFactory(String threadNamePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, threadNamePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
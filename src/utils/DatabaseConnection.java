@@ -1,24 +1,60 @@
 package utils;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
-    private static final String URL = "jdbc:postgresql://localhost:5432/librarydb";
+    private static final String URL = "jdbc:postgresql://localhost:5432/librarydb?reWriteBatchedInserts=true";
     private static final String USER = "postgres";
     private static final String PASSWORD = "1234";
 
+    private static volatile ConnectionPool pool;
+
     private DatabaseConnection() {
     }
 
     public static Connection getConnection() throws SQLException {
+        return getDataSource().getConnection();
+    }
+
+    public static ConnectionPool getDataSource() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = pool;
+                if (current == null) {
+                    current = createPool();
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public static void shutdown() {
+        ConnectionPool current = pool;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private static ConnectionPool createPool() throws SQLException {
         try {
             Class.forName("org.postgresql.Driver");
-            Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
-            return conn;
         } catch (ClassNotFoundException e) {
             throw new SQLException("PostgreSQL Driver not found", e);
         }
+
+        ConnectionPool created = new ConnectionPool(
+                AppConfig.getString("db.url", URL),
+                AppConfig.getString("db.user", USER),
+                AppConfig.getString("db.password", PASSWORD),
+                AppConfig.getInt("db.pool.maxSize", 10),
+                AppConfig.getInt("db.pool.minIdle", 2),
+                AppConfig.getLong("db.pool.connectionTimeoutMs", 30_000),
+                AppConfig.getLong("db.pool.idleTimeoutMs", 600_000),
+                AppConfig.getLong("db.pool.leakDetectionThresholdMs", 60_000));
+        Runtime.getRuntime().addShutdownHook(new Thread(created::close, "connection-pool-shutdown"));
+        return created;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns free text typed by a user into a PostgreSQL tsquery string.
+ * Words are AND-ed, "quoted words" become a phrase ({@code <->}) and a trailing
+ * {@code *} makes a prefix match ({@code :*}). Anything that is not a letter or
+ * digit is dropped, so the result is always valid tsquery syntax.
+ */
+public class FullTextQuery {
+
+    private FullTextQuery() {
+    }
+
+    public static String toTsQuery(String input) {
+        List<String> clauses = new ArrayList<>();
+        int i = 0;
+        while (i < input.length()) {
+            char c = input.charAt(i);
+            if (c == '"') {
+                int end = input.indexOf('"', i + 1);
+                if (end < 0) {
+                    end = input.length();
+                }
+                String phrase = phrase(input.substring(i + 1, end));
+                if (!phrase.isEmpty()) {
+                    clauses.add(phrase);
+                }
+                i = end + 1;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                int end = i;
+                while (end < input.length() && !Character.isWhitespace(input.charAt(end))
+                        && input.charAt(end) != '"') {
+                    end++;
+                }
+                String term = term(input.substring(i, end));
+                if (!term.isEmpty()) {
+                    clauses.add(term);
+                }
+                i = end;
+            }
+        }
+        return String.join(" & ", clauses);
+    }
+
+    private static String phrase(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String word : text.trim().split("\\s+")) {
+            String term = term(word);
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms.size() > 1 ? "(" + String.join(" <-> ", terms) + ")" : String.join("", terms);
+    }
+
+    private static String term(String word) {
+        boolean prefix = word.endsWith("*");
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+            }
+        }
+        if (term.length() > 0 && prefix) {
+            term.append(":*");
+        }
+        return term.toString();
+    }
+}
@@ -0,0 +1,171 @@
+package utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded LRU cache with an optional time-to-live per entry.
+ *
+ * Read-through callers that load a value outside the cache take a {@link #stamp()}
+ * first and store the value with {@link #putIfNotInvalidated}, which refuses it if
+ * its key was {@link #invalidate invalidated} since, so a value read just before a
+ * concurrent write never outlives that write. Invalidations are tracked per stripe
+ * of keys, so an unrelated key can at worst cost one skipped put.
+ */
+public class LruCache<K, V> {
+
+    private static final int INVALIDATION_STRIPES = 256;
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    // invalidation sequence, and the sequence value of the last invalidation per key stripe
+    private long invalidations;
+    private long invalidatedAll;
+    private final long[] invalidatedAt = new long[INVALIDATION_STRIPES];
+
+    public LruCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (isExpired(entry)) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /** Like {@link #get} but without touching the LRU order or the hit/miss counters. */
+    public synchronized V peek(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && !isExpired(entry) ? entry.value : null;
+    }
+
+    public synchronized boolean containsKey(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && !isExpired(entry);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+    }
+
+    /** The stamp to pass to {@link #putIfNotInvalidated} for a value about to be loaded. */
+    public synchronized long stamp() {
+        return invalidations;
+    }
+
+    /** Stores the value unless its key was invalidated after {@code stamp}; returns whether it was stored. */
+    public synchronized boolean putIfNotInvalidated(K key, V value, long stamp) {
+        if (invalidatedAll > stamp || invalidatedAt[stripe(key)] > stamp) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    /** Removes the key and refuses values for it that were loaded before this call. */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        invalidatedAt[stripe(key)] = ++invalidations;
+    }
+
+    /**
+     * Removes every matching entry. Counts as an invalidation of all keys, since
+     * a value being loaded right now may match as well.
+     */
+    public synchronized void removeIf(Predicate<V> predicate) {
+        invalidatedAll = ++invalidations;
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (predicate.test(it.next().value)) {
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getExpirations() {
+        return expirations;
+    }
+
+    public synchronized String getStats() {
+        long lookups = hits + misses;
+        double hitRate = lookups == 0 ? 0 : hits * 100.0 / lookups;
+        return String.format("size=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, expirations=%d",
+                entries.size(), maxSize, hits, misses, hitRate, evictions, expirations);
+    }
+
+    private static int stripe(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (INVALIDATION_STRIPES - 1);
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return ttlMillis > 0 && System.currentTimeMillis() - entry.createdAt > ttlMillis;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long createdAt;
+
+        private Entry(V value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Process-wide registry of per-operation metrics: a latency {@link Histogram},
+ * an error count and, for repository reads, a histogram of rows returned.
+ *
+ * {@link #instrument} wraps a repository or service behind a proxy of its
+ * interface that times every method into the operation registered for it when
+ * the proxy was made, so a call costs one map lookup and a few atomic adds on
+ * top of the proxy dispatch itself.
+ */
+public final class Metrics {
+
+    private static final double[] QUANTILES = { 0.5, 0.99, 0.999 };
+    private static final ConcurrentMap<String, Operation> OPERATIONS = new ConcurrentSkipListMap<>();
+
+    /** Counts, latencies and rows of one operation, e.g. repository BookRepository.findById. */
+    public static final class Operation {
+        private final String layer;
+        private final String component;
+        private final String name;
+        private final Histogram latencyNanos = new Histogram();
+        private final Histogram rows = new Histogram();
+        private final LongAdder errors = new LongAdder();
+
+        private Operation(String layer, String component, String name) {
+            this.layer = layer;
+            this.component = component;
+            this.name = name;
+        }
+
+        public void record(long nanos) {
+            latencyNanos.record(nanos);
+        }
+
+        public void recordError(long nanos) {
+            latencyNanos.record(nanos);
+            errors.increment();
+        }
+
+        public void recordRows(long count) {
+            rows.record(count);
+        }
+
+        public String getLayer() {
+            return layer;
+        }
+
+        public String getComponent() {
+            return component;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Histogram getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        public Histogram getRows() {
+            return rows;
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return AppConfig.getBoolean("metrics.enabled", true);
+    }
+
+    /** The operation for {@code layer}/{@code component}/{@code name}, created on first use. */
+    public static Operation operation(String layer, String component, String name) {
+        return OPERATIONS.computeIfAbsent(layer + ' ' + component + '.' + name,
+                key -> new Operation(layer, component, name));
+    }
+
+    public static Collection<Operation> getOperations() {
+        return OPERATIONS.values();
+    }
+
+    /**
+     * Returns {@code target} behind a proxy of {@code type} that times every call,
+     * or {@code target} itself when metrics are disabled. The component is the
+     * interface's simple name without an "Interface" suffix. With {@code countRows}
+     * the size of every returned collection or map (1 or 0 for a single entity) is
+     * recorded as well; streams are returned before they are read and are not counted.
+     * A returned {@link CompletionStage} is timed, and its value counted, when it completes.
+     */
+    public static <T> T instrument(Class<T> type, T target, String layer, boolean countRows) {
+        if (target == null || !isEnabled()) {
+            return target;
+        }
+        String component = type.getSimpleName().replaceFirst("Interface$", "");
+        Map<Method, Operation> operations = new HashMap<>();
+        Map<Method, Boolean> rowCounted = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            operations.put(method, operation(layer, component, method.getName()));
+            Class<?> returned = method.getReturnType();
+            rowCounted.put(method, countRows && !returned.isPrimitive() && !Stream.class.isAssignableFrom(returned));
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new TimingHandler(target, operations, rowCounted)));
+    }
+
+    /** One line per operation that has been called, grouped by layer; latencies in microseconds. */
+    public static String formatTable() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-48s %9s %7s %9s %9s %9s %9s %9s%n", "Operation", "Calls", "Errors",
+                "p50 us", "p99 us", "p999 us", "max us", "rows p50"));
+        for (Operation operation : OPERATIONS.values()) {
+            Histogram latency = operation.latencyNanos;
+            long calls = latency.getCount();
+            if (calls == 0) {
+                continue;
+            }
+            Histogram rows = operation.rows;
+            out.append(String.format("%-48s %9d %7d %9.1f %9.1f %9.1f %9.1f %9s%n",
+                    operation.layer + ' ' + operation.component + '.' + operation.name, calls,
+                    operation.getErrors(), micros(latency.valueAt(0.5)), micros(latency.valueAt(0.99)),
+                    micros(latency.valueAt(0.999)), micros(latency.getMax()),
+                    rows.getCount() == 0 ? "-" : String.valueOf(rows.valueAt(0.5))));
+        }
+        return out.toString();
+    }
+
+    /** Every called operation in the Prometheus text exposition format (version 0.0.4). */
+    public static String formatPrometheus() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP library_operation_duration_seconds Latency of repository, service and connection pool "
+                + "operations.\n");
+        out.append("# TYPE library_operation_duration_seconds summary\n");
+        for (Operation operation : OPERATIONS.values()) {
+            if (operation.latencyNanos.getCount() > 0) {
+                appendSummary(out, "library_operation_duration_seconds", operation, operation.latencyNanos, 1e9);
+            }
+        }
+        out.append("# HELP library_operation_errors_total Operations that ended with an exception.\n");
+        out.append("# TYPE library_operation_errors_total counter\n");
+        for (Operation operation : OPERATIONS.values()) {
+            if (operation.latencyNanos.getCount() > 0) {
+                out.append("library_operation_errors_total").append(labels(operation, null)).append(' ')
+                        .append(operation.getErrors()).append('\n');
+            }
+        }
+        out.append("# HELP library_operation_rows Rows returned per repository call.\n");
+        out.append("# TYPE library_operation_rows summary\n");
+        for (Operation operation : OPERATIONS.values()) {
+            if (operation.rows.getCount() > 0) {
+                appendSummary(out, "library_operation_rows", operation, operation.rows, 1);
+            }
+        }
+        return out.toString();
+    }
+
+    private static void appendSummary(StringBuilder out, String metric, Operation operation, Histogram histogram,
+            double divisor) {
+        for (double quantile : QUANTILES) {
+            out.append(metric).append(labels(operation, quantile)).append(' ')
+                    .append(histogram.valueAt(quantile) / divisor).append('\n');
+        }
+        out.append(metric).append("_sum").append(labels(operation, null)).append(' ')
+                .append(histogram.getSum() / divisor).append('\n');
+        out.append(metric).append("_count").append(labels(operation, null)).append(' ')
+                .append(histogram.getCount()).append('\n');
+    }
+
+    private static String labels(Operation operation, Double quantile) {
+        return "{layer=\"" + operation.layer + "\",component=\"" + operation.component + "\",operation=\""
+                + operation.name + "\"" + (quantile != null ? ",quantile=\"" + quantile + "\"" : "") + "}";
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+
+    private static final class TimingHandler implements InvocationHandler {
+        private final Object target;
+        private final Map<Method, Operation> operations;
+        private final Map<Method, Boolean> rowCounted;
+
+        private TimingHandler(Object target, Map<Method, Operation> operations, Map<Method, Boolean> rowCounted) {
+            this.target = target;
+            this.operations = operations;
+            this.rowCounted = rowCounted;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Operation operation = operations.get(method);
+            if (operation == null) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Instrumented(" + target + ")";
+                    default:
+                        return call(method, args);
+                }
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = call(method, args);
+            } catch (Throwable e) {
+                operation.recordError(System.nanoTime() - start);
+                throw e;
+            }
+            if (result instanceof CompletionStage) {
+                // async calls are timed until the returned stage completes, not just submitted
+                ((CompletionStage<?>) result).whenComplete((value, error) -> {
+                    long nanos = System.nanoTime() - start;
+                    if (error != null) {
+                        operation.recordError(nanos);
+                    } else {
+                        operation.record(nanos);
+                        if (rowCounted.get(method)) {
+                            operation.recordRows(rows(value));
+                        }
+                    }
+                });
+                return result;
+            }
+            operation.record(System.nanoTime() - start);
+            if (rowCounted.get(method)) {
+                operation.recordRows(rows(result));
+            }
+            return result;
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private static long rows(Object result) {
+            if (result instanceof Collection) {
+                return ((Collection<?>) result).size();
+            }
+            if (result instanceof Map) {
+                return ((Map<?, ?>) result).size();
+            }
+            return result == null ? 0 : 1;
+        }
+    }
+}
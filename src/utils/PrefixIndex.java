@@ -0,0 +1,306 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive prefix autocomplete. Values live in a trie whose children are
+ * kept in sorted arrays, and every node caches the top-K values below it by
+ * score, so a lookup is a walk down the prefix plus a copy of at most K strings.
+ *
+ * The same text may be added several times (e.g. two editions of one title);
+ * it is suggested once and disappears when its last copy is removed.
+ */
+public class PrefixIndex {
+
+    private static final Comparator<Entry> BY_SCORE = (a, b) -> a.score != b.score
+            ? Long.compare(b.score, a.score)
+            : a.key.compareTo(b.key);
+
+    private final int topK;
+    private final Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PrefixIndex(int topK) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("Top-K must be positive");
+        }
+        this.topK = topK;
+    }
+
+    public void add(String text, long score) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String key = text.toLowerCase();
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                entry.copies++;
+                return;
+            }
+            entry = new Entry(key, text, score);
+            entries.put(key, entry);
+
+            Node node = root;
+            offer(node, entry);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childOrCreate(key.charAt(i));
+                offer(node, entry);
+            }
+            node.terminal = entry;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String key = text.toLowerCase();
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null || --entry.copies > 0) {
+                return;
+            }
+            entries.remove(key);
+
+            Node[] path = path(key);
+            path[path.length - 1].terminal = null;
+            for (int i = path.length - 1; i >= 0; i--) {
+                if (contains(path[i], entry)) {
+                    recompute(path[i]);
+                }
+                if (i > 0 && path[i].isEmpty()) {
+                    path[i - 1].removeChild(key.charAt(i - 1));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces one copy of {@code oldText} with {@code newText}, carrying its score
+     * over, so an edited title or renamed author keeps its popularity. If
+     * {@code newText} is already indexed it keeps its own score.
+     */
+    public void rename(String oldText, String newText) {
+        lock.writeLock().lock();
+        try {
+            Entry old = oldText != null ? entries.get(oldText.toLowerCase()) : null;
+            long score = old != null ? old.score : 0;
+            remove(oldText);
+            add(newText, score);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addScore(String text, long delta) {
+        if (text == null || text.isEmpty() || delta == 0) {
+            return;
+        }
+        String key = text.toLowerCase();
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return;
+            }
+            entry.score += delta;
+
+            Node[] path = path(key);
+            for (int i = path.length - 1; i >= 0; i--) {
+                if (delta < 0 && contains(path[i], entry)) {
+                    // a lower score may let an entry outside the list overtake this one
+                    recompute(path[i]);
+                } else {
+                    offer(path[i], entry);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = prefix.toLowerCase();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            List<String> result = new ArrayList<>();
+            if (node != null) {
+                for (int i = 0; i < node.topSize && result.size() < limit; i++) {
+                    result.add(node.top[i].text);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            root.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Node[] path(String key) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+        }
+        return path;
+    }
+
+    /** Adds or re-sorts {@code entry} in the node's top list if it ranks high enough. */
+    private void offer(Node node, Entry entry) {
+        if (node.top == null) {
+            node.top = new Entry[topK];
+        }
+        int pos = indexOf(node, entry);
+        if (pos < 0) {
+            if (node.topSize == topK && BY_SCORE.compare(entry, node.top[topK - 1]) >= 0) {
+                return;
+            }
+            pos = node.topSize == topK ? topK - 1 : node.topSize++;
+            node.top[pos] = entry;
+        }
+        // bubble towards the front; scores only grow here, so the entry never moves back
+        while (pos > 0 && BY_SCORE.compare(node.top[pos], node.top[pos - 1]) < 0) {
+            Entry tmp = node.top[pos - 1];
+            node.top[pos - 1] = node.top[pos];
+            node.top[pos] = tmp;
+            pos--;
+        }
+    }
+
+    /** Rebuilds a node's top list from its own value and its children's lists. */
+    private void recompute(Node node) {
+        List<Entry> candidates = new ArrayList<>();
+        if (node.terminal != null) {
+            candidates.add(node.terminal);
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            Node child = node.children[i];
+            candidates.addAll(Arrays.asList(child.top).subList(0, child.topSize));
+        }
+        candidates.sort(BY_SCORE);
+        node.topSize = Math.min(candidates.size(), topK);
+        Arrays.fill(node.top, null);
+        for (int i = 0; i < node.topSize; i++) {
+            node.top[i] = candidates.get(i);
+        }
+    }
+
+    private static boolean contains(Node node, Entry entry) {
+        return indexOf(node, entry) >= 0;
+    }
+
+    private static int indexOf(Node node, Entry entry) {
+        for (int i = 0; i < node.topSize; i++) {
+            if (node.top[i] == entry) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final String text;
+        private long score;
+        private int copies = 1;
+
+        private Entry(String key, String text, long score) {
+            this.key = key;
+            this.text = text;
+            this.score = score;
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+        private Entry terminal;
+        private Entry[] top;
+        private int topSize;
+
+        private Node child(char c) {
+            int pos = Arrays.binarySearch(keys, 0, childCount, c);
+            return pos >= 0 ? children[pos] : null;
+        }
+
+        private Node childOrCreate(char c) {
+            int pos = Arrays.binarySearch(keys, 0, childCount, c);
+            if (pos >= 0) {
+                return children[pos];
+            }
+            pos = -pos - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, pos, keys, pos + 1, childCount - pos);
+            System.arraycopy(children, pos, children, pos + 1, childCount - pos);
+            keys[pos] = c;
+            children[pos] = new Node();
+            childCount++;
+            return children[pos];
+        }
+
+        private void removeChild(char c) {
+            int pos = Arrays.binarySearch(keys, 0, childCount, c);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(keys, pos + 1, keys, pos, childCount - pos - 1);
+            System.arraycopy(children, pos + 1, children, pos, childCount - pos - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+
+        private boolean isEmpty() {
+            return terminal == null && childCount == 0;
+        }
+
+        private void clear() {
+            keys = new char[0];
+            children = new Node[0];
+            childCount = 0;
+            terminal = null;
+            top = null;
+            topSize = 0;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for string columns: each distinct value gets a dense int
+ * code, so a column of strings can be stored as an {@code int[]} and compared
+ * with {@code ==}. Codes are never reused. Not thread-safe.
+ */
+public class StringDictionary {
+
+    public static final int NONE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /** Returns the code of {@code value}, assigning the next one if it is new. */
+    public int encode(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /** Returns the code of {@code value}, or {@link #NONE} if it was never encoded. */
+    public int codeOf(String value) {
+        Integer code = value != null ? codes.get(value) : null;
+        return code != null ? code : NONE;
+    }
+
+    public String decode(int code) {
+        return code == NONE ? null : values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public void clear() {
+        codes.clear();
+        values.clear();
+    }
+}